@@ -0,0 +1,15 @@
+package org.example.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.report.RunReport;
+import org.example.table.TableSettings;
+
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class BenchmarkResult {
+    private final TableSettings tableSettings;
+    private final RunReport runReport;
+}
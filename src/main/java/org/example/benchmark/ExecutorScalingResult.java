@@ -0,0 +1,14 @@
+package org.example.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.report.RunReport;
+
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class ExecutorScalingResult {
+    private final int numberOfExecutors;
+    private final RunReport runReport;
+}
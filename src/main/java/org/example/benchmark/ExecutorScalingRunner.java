@@ -0,0 +1,177 @@
+package org.example.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.spark.sql.SparkSession;
+import org.example.report.RunReport;
+import org.example.writer.Configuration;
+import org.example.writer.TransactionManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the {@link TransactionManager} on a local Spark cluster, {@code local-cluster[executors,cores,memory]}, for
+ * every given number of executors, to see how the writers and the verification reads scale when their Spark jobs are
+ * spread over executor JVMs instead of the threads of a single one.
+ * <p>
+ * The master of a Spark context can't change and a JVM only has one, so every run gets its own driver process with
+ * the Spark configuration of the given session. The executors are started from the class path of the driver, and the
+ * launcher only needs a Spark home with a {@code jars} directory, so an empty one is created when there is none.
+ */
+@Slf4j
+public class ExecutorScalingRunner {
+    private static final String METRICS_FORMAT = "%10s %10s %9s %9s %9s %9s %9s %9s %10s %9s %9s %6s%n";
+
+    private final Configuration baseConfiguration;
+    private final SparkSession session;
+    private final List<Integer> executorCounts;
+    private final int coresPerExecutor;
+    private final int memoryPerExecutorInMegabytes;
+
+    public ExecutorScalingRunner(Configuration baseConfiguration, SparkSession session, List<Integer> executorCounts, int coresPerExecutor, int memoryPerExecutorInMegabytes) {
+        this.baseConfiguration = baseConfiguration;
+        this.session = session;
+        this.executorCounts = List.copyOf(executorCounts);
+        this.coresPerExecutor = coresPerExecutor;
+        this.memoryPerExecutorInMegabytes = memoryPerExecutorInMegabytes;
+    }
+
+    /**
+     * Runs the driver process of a single number of executors.
+     *
+     * @param args The file with the configuration of the run and the file to write the run report to
+     */
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException, ClassNotFoundException, InterruptedException {
+        Configuration configuration;
+        Map<String, String> sparkConfiguration;
+        String master;
+        try (var input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(Path.of(args[0]))))) {
+            configuration = (Configuration) input.readObject();
+            sparkConfiguration = (Map<String, String>) input.readObject();
+            master = (String) input.readObject();
+        }
+
+        var builder = SparkSession.builder().appName("acid-verification-executor-scaling");
+        sparkConfiguration.forEach(builder::config);
+        builder.master(master)
+                .config("spark.executor.extraClassPath", System.getProperty("java.class.path"))
+                .config("spark.ui.enabled", "false");
+        if ("hive".equals(sparkConfiguration.get("spark.sql.catalogImplementation"))) {
+            builder.enableHiveSupport();
+        }
+        var session = builder.getOrCreate();
+        try {
+            var transactionManager = new TransactionManager(configuration, session);
+            transactionManager.run();
+            try (var output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(Path.of(args[1]))))) {
+                output.writeObject(transactionManager.getRunReport());
+            }
+        } finally {
+            session.stop();
+        }
+    }
+
+    public List<ExecutorScalingResult> run() throws InterruptedException {
+        var catalogType = baseConfiguration.getCatalogType();
+        if (!catalogType.isSharedAcrossProcesses()) {
+            throw new IllegalArgumentException("Catalog type " + catalogType + " can't be shared by the driver and executor processes.");
+        }
+        var results = new ArrayList<ExecutorScalingResult>(executorCounts.size());
+        for (var numberOfExecutors : executorCounts) {
+            var master = "local-cluster[" + numberOfExecutors + "," + coresPerExecutor + "," + memoryPerExecutorInMegabytes + "]";
+            log.info("Acid Verification executor scaling master={}", master);
+            results.add(ExecutorScalingResult.create(numberOfExecutors, runDriverProcess(master)));
+        }
+        log.info("Acid Verification executor scaling results\n{}", formatResults(results));
+        return results;
+    }
+
+    private RunReport runDriverProcess(String master) throws InterruptedException {
+        try {
+            var runDirectory = Files.createTempDirectory("acid-verification-executor-scaling");
+            var configurationFile = runDirectory.resolve("configuration");
+            var runReportFile = runDirectory.resolve("run-report");
+            try (var output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(configurationFile)))) {
+                output.writeObject(baseConfiguration);
+                output.writeObject(new HashMap<>(TransactionManager.getWorkerSparkConfiguration(session)));
+                output.writeObject(master);
+            }
+
+            var command = TransactionManager.createJavaCommand(ExecutorScalingRunner.class);
+            command.add(configurationFile.toString());
+            command.add(runReportFile.toString());
+            var processBuilder = new ProcessBuilder(command).inheritIO();
+            var environment = processBuilder.environment();
+            if (!environment.containsKey("SPARK_HOME")) {
+                var sparkHome = runDirectory.resolve("spark-home");
+                Files.createDirectories(sparkHome.resolve("jars"));
+                environment.put("SPARK_HOME", sparkHome.toString());
+            }
+            environment.putIfAbsent("SPARK_SCALA_VERSION", getScalaBinaryVersion());
+
+            // The driver process runs the writers and readers of the run itself, so it gets the timeout of a worker
+            var exitCode = TransactionManager.waitForProcess(processBuilder.start(), baseConfiguration.getWorkerProcessTimeoutInMillis());
+            if (exitCode != 0 || !Files.exists(runReportFile)) {
+                throw new IllegalStateException("The driver process on " + master + " failed with exit code " + exitCode + ".");
+            }
+            try (var input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(runReportFile)))) {
+                return (RunReport) input.readObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to run the driver process on " + master, e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Invalid run report of the driver process on " + master, e);
+        }
+    }
+
+    /**
+     * @return The Scala version the executor launcher needs to find the class path of a Spark home, e.g. 2.12
+     */
+    private static String getScalaBinaryVersion() {
+        var version = scala.util.Properties.versionNumberString().split("\\.");
+        return version[0] + "." + version[1];
+    }
+
+    /**
+     * @return A table of the throughput and latencies of the writers and readers per number of executors, with the
+     * speedup over the first number of executors
+     */
+    public static String formatResults(List<ExecutorScalingResult> results) {
+        var table = new StringBuilder();
+        table.append(String.format(METRICS_FORMAT, "executors", "commits/s", "speedup", "commit50", "commit99",
+                "reads/s", "speedup", "read50", "read99", "scanMB/s", "retries", "acid"));
+        var baseline = results.isEmpty() ? null : results.get(0).getRunReport();
+        for (var result : results) {
+            var runReport = result.getRunReport();
+            table.append(String.format(METRICS_FORMAT,
+                    result.getNumberOfExecutors(),
+                    String.format("%.2f", runReport.getCommitThroughput()),
+                    String.format("%.2fx", speedup(runReport.getCommitThroughput(), baseline.getCommitThroughput())),
+                    runReport.getCommitLatency().getP50(),
+                    runReport.getCommitLatency().getP99(),
+                    String.format("%.2f", runReport.getReadThroughput()),
+                    String.format("%.2fx", speedup(runReport.getReadThroughput(), baseline.getReadThroughput())),
+                    runReport.getReadLatency().getP50(),
+                    runReport.getReadLatency().getP99(),
+                    String.format("%.2f", runReport.getScannedMegabytesPerSecond()),
+                    String.format("%.1f%%", runReport.getRetryRate() * 100),
+                    runReport.isAcidVerified() ? "ok" : "FAILED"));
+        }
+        return table.toString();
+    }
+
+    private static double speedup(double throughput, double baselineThroughput) {
+        return baselineThroughput == 0 ? 0 : throughput / baselineThroughput;
+    }
+}
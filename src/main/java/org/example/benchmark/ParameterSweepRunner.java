@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.spark.sql.SparkSession;
+import org.example.writer.Configuration;
+import org.example.writer.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the {@link TransactionManager} for every point in the cartesian product of the given parameter ranges. Every
+ * run recreates the table, but reuses the Spark context of the given session, so the points can be compared to find
+ * where throughput stops scaling.
+ */
+@Slf4j
+public class ParameterSweepRunner {
+    private static final String PARAMETER_FORMAT = "%11s";
+    private static final String METRICS_FORMAT = " %10s %9s %9s %9s %9s %9s %9s %10s %10s %9s %10s %6s%n";
+
+    private final Configuration baseConfiguration;
+    private final SparkSession session;
+    private final Map<SweepParameter, List<Integer>> ranges;
+
+    public ParameterSweepRunner(Configuration baseConfiguration, SparkSession session, Map<SweepParameter, List<Integer>> ranges) {
+        this.baseConfiguration = baseConfiguration;
+        this.session = session;
+        this.ranges = new LinkedHashMap<>(ranges);
+    }
+
+    public List<SweepResult> run() throws InterruptedException {
+        var sweepPoints = SweepPoint.allPoints(ranges);
+        var results = new ArrayList<SweepResult>(sweepPoints.size());
+        for (var sweepPoint : sweepPoints) {
+            log.info("Acid Verification sweep point={}", sweepPoint);
+            var transactionManager = new TransactionManager(sweepPoint.applyTo(baseConfiguration), session);
+            transactionManager.run();
+            results.add(SweepResult.create(sweepPoint, transactionManager.getRunReport()));
+        }
+        log.info("Acid Verification sweep results\n{}", formatResults(ranges.keySet(), results));
+        return results;
+    }
+
+    public static String formatResults(Iterable<SweepParameter> sweepParameters, List<SweepResult> results) {
+        var table = new StringBuilder();
+        for (var sweepParameter : sweepParameters) {
+            table.append(String.format(PARAMETER_FORMAT, sweepParameter.getColumnName()));
+        }
+        table.append(String.format(METRICS_FORMAT, "commits/s", "retries", "commit50", "commit95", "commit99",
+                "read50", "read99", "commitMB/s", "scanMB/s", "files/cmt", "files/scan", "acid"));
+        for (var result : results) {
+            for (var sweepParameter : sweepParameters) {
+                table.append(String.format(PARAMETER_FORMAT, result.getSweepPoint().getValue(sweepParameter)));
+            }
+            var runReport = result.getRunReport();
+            table.append(String.format(METRICS_FORMAT,
+                    String.format("%.2f", runReport.getCommitThroughput()),
+                    String.format("%.1f%%", runReport.getRetryRate() * 100),
+                    runReport.getCommitLatency().getP50(),
+                    runReport.getCommitLatency().getP95(),
+                    runReport.getCommitLatency().getP99(),
+                    runReport.getReadLatency().getP50(),
+                    runReport.getReadLatency().getP99(),
+                    String.format("%.2f", runReport.getCommittedMegabytesPerSecond()),
+                    String.format("%.2f", runReport.getScannedMegabytesPerSecond()),
+                    String.format("%.1f", runReport.getIcebergMetrics().getAddedFilesPerCommit()),
+                    String.format("%.1f", runReport.getIcebergMetrics().getScannedFilesPerScan()),
+                    runReport.isAcidVerified() ? "ok" : "FAILED"));
+        }
+        return table.toString();
+    }
+}
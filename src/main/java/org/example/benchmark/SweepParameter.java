@@ -0,0 +1,32 @@
+package org.example.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.writer.Configuration;
+
+import java.util.function.BiFunction;
+
+/**
+ * Numeric {@link Configuration} knobs that can be swept by the {@link ParameterSweepRunner}.
+ */
+@AllArgsConstructor
+public enum SweepParameter {
+    WRITER_THREADS("writers", Configuration::withNumberOfWriterThreads),
+    READER_THREADS("readers", Configuration::withNumberOfReaderThreads),
+    SPARK_SESSIONS_FOR_WRITERS("w.sessions", Configuration::withNumberOfSparkSessionsForWriters),
+    SPARK_SESSIONS_FOR_READERS("r.sessions", Configuration::withNumberOfSparkSessionsForReaders),
+    PARTITIONS("partitions", Configuration::withMaximumNumberOfPartitions),
+    RECORDS("keys", Configuration::withMaximumNumberOfRecords),
+    RECORDS_PER_TRANSACTION("rec/tx", Configuration::withRecordsPerTransaction),
+    PAYLOAD_COLUMNS("p.columns", (configuration, value) -> configuration.withPayloadSchema(configuration.getPayloadSchema().withNumberOfColumns(value))),
+    PAYLOAD_SIZE("p.bytes", (configuration, value) -> configuration.withPayloadSchema(configuration.getPayloadSchema().withPayloadSizeInBytes(value))),
+    TARGET_FILE_SIZE("file.bytes", Configuration::withTargetFileSizeInBytes);
+
+    @Getter
+    private final String columnName;
+    private final BiFunction<Configuration, Integer, Configuration> wither;
+
+    public Configuration applyTo(Configuration configuration, int value) {
+        return wither.apply(configuration, value);
+    }
+}
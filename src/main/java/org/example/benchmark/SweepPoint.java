@@ -0,0 +1,59 @@
+package org.example.benchmark;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.example.writer.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single point of a parameter sweep: one value for every swept {@link SweepParameter}.
+ */
+@ToString
+@EqualsAndHashCode
+public class SweepPoint {
+    private final Map<SweepParameter, Integer> values;
+
+    private SweepPoint(Map<SweepParameter, Integer> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    public int getValue(SweepParameter sweepParameter) {
+        return values.get(sweepParameter);
+    }
+
+    public Configuration applyTo(Configuration configuration) {
+        var result = configuration;
+        for (var value : values.entrySet()) {
+            result = value.getKey().applyTo(result, value.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * @return The cartesian product of the ranges, varying the last parameter fastest.
+     */
+    public static List<SweepPoint> allPoints(Map<SweepParameter, List<Integer>> ranges) {
+        var points = List.of(new LinkedHashMap<SweepParameter, Integer>());
+        for (var range : ranges.entrySet()) {
+            var extendedPoints = new ArrayList<LinkedHashMap<SweepParameter, Integer>>(points.size() * range.getValue().size());
+            for (var point : points) {
+                for (var value : range.getValue()) {
+                    var extendedPoint = new LinkedHashMap<>(point);
+                    extendedPoint.put(range.getKey(), value);
+                    extendedPoints.add(extendedPoint);
+                }
+            }
+            points = extendedPoints;
+        }
+        var sweepPoints = new ArrayList<SweepPoint>(points.size());
+        for (var point : points) {
+            sweepPoints.add(new SweepPoint(point));
+        }
+        return sweepPoints;
+    }
+}
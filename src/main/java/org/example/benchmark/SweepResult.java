@@ -0,0 +1,14 @@
+package org.example.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.report.RunReport;
+
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class SweepResult {
+    private final SweepPoint sweepPoint;
+    private final RunReport runReport;
+}
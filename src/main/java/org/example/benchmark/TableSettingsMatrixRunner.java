@@ -0,0 +1,67 @@
+package org.example.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.spark.sql.SparkSession;
+import org.example.table.TableSettings;
+import org.example.writer.Configuration;
+import org.example.writer.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the same seeded workload once for every combination of {@link TableSettings}, so the combinations can be
+ * compared on throughput, retries, latency and ACID outcome.
+ */
+@Slf4j
+public class TableSettingsMatrixRunner {
+    private static final String ROW_FORMAT = "%-7s %-14s %-13s %10s %9s %9s %9s %9s %9s %6s%n";
+
+    private final Configuration baseConfiguration;
+    private final SparkSession session;
+    private final List<TableSettings> tableSettingsMatrix;
+
+    public TableSettingsMatrixRunner(Configuration baseConfiguration, SparkSession session) {
+        this(baseConfiguration, session, TableSettings.allCombinations());
+    }
+
+    public TableSettingsMatrixRunner(Configuration baseConfiguration, SparkSession session, List<TableSettings> tableSettingsMatrix) {
+        this.baseConfiguration = baseConfiguration;
+        this.session = session;
+        this.tableSettingsMatrix = tableSettingsMatrix;
+    }
+
+    public List<BenchmarkResult> run() throws InterruptedException {
+        var results = new ArrayList<BenchmarkResult>(tableSettingsMatrix.size());
+        for (var tableSettings : tableSettingsMatrix) {
+            log.info("Acid Verification benchmark tableSettings={}", tableSettings);
+            var transactionManager = new TransactionManager(tableSettings.applyTo(baseConfiguration), session);
+            transactionManager.run();
+            results.add(BenchmarkResult.create(tableSettings, transactionManager.getRunReport()));
+        }
+        log.info("Acid Verification benchmark results\n{}", formatResults(results));
+        return results;
+    }
+
+    public static String formatResults(List<BenchmarkResult> results) {
+        var table = new StringBuilder();
+        table.append(String.format(ROW_FORMAT, "format", "write mode", "isolation", "commits/s", "retries",
+                "commit50", "commit99", "read50", "read99", "acid"));
+        for (var result : results) {
+            var tableSettings = result.getTableSettings();
+            var runReport = result.getRunReport();
+            table.append(String.format(ROW_FORMAT,
+                    "v" + tableSettings.getFormatVersion(),
+                    tableSettings.getWriteMode().getPropertyValue(),
+                    tableSettings.getIsolationLevel().getPropertyValue(),
+                    String.format("%.2f", runReport.getCommitThroughput()),
+                    String.format("%.1f%%", runReport.getRetryRate() * 100),
+                    runReport.getCommitLatency().getP50(),
+                    runReport.getCommitLatency().getP99(),
+                    runReport.getReadLatency().getP50(),
+                    runReport.getReadLatency().getP99(),
+                    runReport.isAcidVerified() ? "ok" : "FAILED"));
+        }
+        return table.toString();
+    }
+}
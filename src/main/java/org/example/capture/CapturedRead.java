@@ -0,0 +1,63 @@
+package org.example.capture;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.resultset.Record;
+import org.example.resultset.ResultSet;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read of a reader in capture mode, with everything needed to verify it later: the window of the transaction log
+ * it has to be verified against and the result set it read.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+@AllArgsConstructor(staticName = "create")
+public class CapturedRead implements Serializable {
+    @ToString.Include
+    private final String readerName;
+    @ToString.Include
+    private final int iteration;
+    @ToString.Include
+    private final int eventCountBeforeRead;
+    @ToString.Include
+    private final int eventCountAfterRead;
+    private final long requiredCommitTimeInMillis;
+    @ToString.Include
+    private final Long readSnapshotId;
+    private final List<Record> records;
+    private final Map<String, BulkInsertAggregate> bulkInsertAggregates;
+    private final List<String> primaryKeyValuesWithMismatchingPayload;
+    /**
+     * Null when the table has no baseline records.
+     */
+    private final BaselineAggregate baselineAggregate;
+
+    static CapturedRead create(String readerName, int iteration, int eventCountBeforeRead, int eventCountAfterRead, long requiredCommitTimeInMillis, Long readSnapshotId, ResultSet resultSet) {
+        return create(
+                readerName,
+                iteration,
+                eventCountBeforeRead,
+                eventCountAfterRead,
+                requiredCommitTimeInMillis,
+                readSnapshotId,
+                resultSet.getRecords(),
+                resultSet.getBulkInsertAggregates(),
+                resultSet.getPrimaryKeyValuesWithMismatchingPayload(),
+                resultSet.getBaselineAggregate().orElse(null)
+        );
+    }
+
+    /**
+     * @return The result set as it was read, without the records of the baseline aggregate added again
+     */
+    public ResultSet toResultSet() {
+        return new ResultSet(records, bulkInsertAggregates, primaryKeyValuesWithMismatchingPayload, baselineAggregate);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.capture;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of the {@link CapturedReadVerifier}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class CapturedReadVerificationResult {
+    private final int spillFiles;
+    private final int verifiedReads;
+    private final int failedReads;
+    private final List<String> failureExamples;
+    private final long durationInMillis;
+
+    public boolean isSatisfied() {
+        return failedReads == 0;
+    }
+}
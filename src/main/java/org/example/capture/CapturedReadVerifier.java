@@ -0,0 +1,180 @@
+package org.example.capture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.resultexpectations.ResultSetExpectationProducer;
+import org.example.resultset.InconsistentResultSetException;
+import org.example.transactionlog.TransactionLog;
+import org.example.transactionlog.TransactionLogEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the reads that readers in capture mode spilled, against the transaction log that the run persisted in the
+ * same directory. The expectations of a read only depend on its window of the log, so the reads are verified by a pool
+ * of threads, in the JVM of the run or in a separate verifier process started with {@link #main(String[])}.
+ */
+@Slf4j
+public class CapturedReadVerifier {
+    static final String TRANSACTION_LOG_FILE = "transaction-log";
+    private static final int MAXIMUM_NUMBER_OF_EXAMPLES = 10;
+
+    private final Path captureDirectory;
+    private final int numberOfThreads;
+
+    public CapturedReadVerifier(Path captureDirectory, int numberOfThreads) {
+        this.captureDirectory = captureDirectory;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Verifies a capture directory in a separate process.
+     *
+     * @param args The capture directory and, optionally, the number of verification threads
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var numberOfThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        var result = new CapturedReadVerifier(Path.of(args[0]), numberOfThreads).verify();
+        System.out.println("ACID Verification captured read verification! satisfied=" + result.isSatisfied() + " " + result);
+        System.exit(result.isSatisfied() ? 0 : 1);
+    }
+
+    /**
+     * Persists the transaction log of a run in the capture directory, once the writers finished.
+     */
+    public static void writeTransactionLog(Path captureDirectory, TransactionLog transactionLog) throws IOException {
+        var events = new ArrayList<>(transactionLog.getFirstNEvents(transactionLog.getEventCount()));
+        try (var output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(captureDirectory.resolve(TRANSACTION_LOG_FILE))))) {
+            output.writeObject(events);
+        }
+    }
+
+    public CapturedReadVerificationResult verify() throws IOException, InterruptedException {
+        var timeBeforeVerification = System.currentTimeMillis();
+        var resultSetExpectationProducer = new ResultSetExpectationProducer(readTransactionLog());
+        List<Path> spillFiles;
+        try (var files = Files.list(captureDirectory)) {
+            spillFiles = files.filter(file -> file.getFileName().toString().endsWith(ReadCapture.SPILL_FILE_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        var verifiedReads = new AtomicInteger();
+        var failedReads = new AtomicInteger();
+        var failureExamples = Collections.synchronizedList(new ArrayList<String>());
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        // Bounds the reads held in memory, as the spill files can be much larger than the heap
+        var pendingReads = new Semaphore(numberOfThreads * 2);
+        try {
+            for (var spillFile : spillFiles) {
+                try (var input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(spillFile)))) {
+                    while (true) {
+                        CapturedRead capturedRead;
+                        try {
+                            capturedRead = (CapturedRead) input.readObject();
+                        } catch (EOFException e) {
+                            // The end of the file, or a read that is still being written
+                            break;
+                        }
+                        pendingReads.acquire();
+                        executor.execute(() -> {
+                            try {
+                                var failure = verify(resultSetExpectationProducer, capturedRead);
+                                if (failure == null) {
+                                    verifiedReads.incrementAndGet();
+                                } else {
+                                    failedReads.incrementAndGet();
+                                    log.error("Captured read verification failed. {}", failure);
+                                    if (failureExamples.size() < MAXIMUM_NUMBER_OF_EXAMPLES) {
+                                        failureExamples.add(failure);
+                                    }
+                                }
+                            } finally {
+                                pendingReads.release();
+                            }
+                        });
+                    }
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Invalid spill file " + spillFile, e);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        return CapturedReadVerificationResult.create(
+                spillFiles.size(),
+                verifiedReads.get(),
+                failedReads.get(),
+                List.copyOf(failureExamples),
+                System.currentTimeMillis() - timeBeforeVerification
+        );
+    }
+
+    /**
+     * @return Why the read failed, or null when it satisfied its expectations
+     */
+    private static String verify(ResultSetExpectationProducer resultSetExpectationProducer, CapturedRead capturedRead) {
+        var resultSetExpectations = resultSetExpectationProducer.createResultSetExpectations(
+                capturedRead.getEventCountBeforeRead(),
+                capturedRead.getEventCountAfterRead(),
+                capturedRead.getRequiredCommitTimeInMillis()
+        );
+        var resultSet = capturedRead.toResultSet();
+        try {
+            return resultSetExpectations.isStatisfied(resultSet) ? null : capturedRead + " doesn't satisfy its expectations. ResultSet: " + resultSet;
+        } catch (InconsistentResultSetException e) {
+            return capturedRead + " is inconsistent: " + e.getMessage();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private TransactionLog readTransactionLog() throws IOException {
+        var transactionLogFile = captureDirectory.resolve(TRANSACTION_LOG_FILE);
+        try (var input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(transactionLogFile)))) {
+            return new PersistedTransactionLog((List<TransactionLogEvent>) input.readObject());
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Invalid transaction log file " + transactionLogFile, e);
+        }
+    }
+
+    /**
+     * The complete log of a run, which no longer changes, so the verification threads can share it without locking.
+     */
+    private static final class PersistedTransactionLog implements TransactionLog {
+        private final List<TransactionLogEvent> events;
+
+        private PersistedTransactionLog(List<TransactionLogEvent> events) {
+            this.events = List.copyOf(events);
+        }
+
+        @Override
+        public void add(TransactionLogEvent event) {
+            throw new UnsupportedOperationException("The persisted transaction log is read-only");
+        }
+
+        @Override
+        public List<TransactionLogEvent> getFirstNEvents(int n) {
+            return events.subList(0, Math.min(n, events.size()));
+        }
+
+        @Override
+        public int getEventCount() {
+            return events.size();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.capture;
+
+import org.example.reader.TableReader;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.EventType;
+import org.example.transactionlog.TransactionLog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Spills the reads of one reader in capture mode to a file in the capture directory, so they can be verified later by
+ * the {@link CapturedReadVerifier} instead of on the reader thread.
+ * <p>
+ * Which aggregates a read needs depends on its expectations, which the reader doesn't build. So the bulk inserts are
+ * aggregated once one was intended, and all baseline records a transaction touched are read as records. That's what
+ * the expectations of the baseline count on, whether their transactions are visible or not.
+ */
+public class ReadCapture implements AutoCloseable {
+    static final String SPILL_FILE_SUFFIX = ".reads";
+
+    private final TransactionLog transactionLog;
+    private final TableReader tableReader;
+    private final ObjectOutputStream output;
+    private final Set<String> touchedBaselinePrimaryKeyValues = new HashSet<>();
+    private int indexedEventCount;
+    private boolean hasBaseline;
+    private boolean hasBulkInserts;
+
+    private ReadCapture(TransactionLog transactionLog, TableReader tableReader, ObjectOutputStream output) {
+        this.transactionLog = transactionLog;
+        this.tableReader = tableReader;
+        this.output = output;
+    }
+
+    public static ReadCapture open(Path captureDirectory, String readerName, TransactionLog transactionLog, TableReader tableReader) {
+        try {
+            Files.createDirectories(captureDirectory);
+            var output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(getSpillFile(captureDirectory, readerName))));
+            return new ReadCapture(transactionLog, tableReader, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the spill file of " + readerName, e);
+        }
+    }
+
+    static Path getSpillFile(Path captureDirectory, String readerName) {
+        return captureDirectory.resolve(readerName + SPILL_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the aggregates the read may need from the same snapshot, and spills it. Every read is flushed, so a
+     * verifier never misses more than the read that is being written.
+     *
+     * @return Whether the read was spilled. It isn't when it needs aggregates, but the snapshot it read is unknown.
+     */
+    public boolean capture(String readerName, int iteration, int eventCountBeforeRead, int eventCountAfterRead, long requiredCommitTimeInMillis, Long readSnapshotId, ResultSet resultSet) {
+        indexEvents(eventCountAfterRead);
+        if (readSnapshotId == null && (hasBulkInserts || hasBaseline)) {
+            return false;
+        }
+        if (hasBulkInserts) {
+            resultSet = resultSet.withBulkInsertAggregates(tableReader.readBulkInsertAggregates(readSnapshotId));
+        }
+        if (hasBaseline) {
+            resultSet = resultSet.withBaselineAggregate(tableReader.readBaselineAggregate(readSnapshotId, touchedBaselinePrimaryKeyValues));
+        }
+        try {
+            output.writeObject(CapturedRead.create(readerName, iteration, eventCountBeforeRead, eventCountAfterRead, requiredCommitTimeInMillis, readSnapshotId, resultSet));
+            // Every read is self-contained, so the stream doesn't have to keep references to the earlier ones
+            output.reset();
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spill read " + iteration + " of " + readerName, e);
+        }
+        return true;
+    }
+
+    private void indexEvents(int eventCount) {
+        if (eventCount <= indexedEventCount) {
+            return;
+        }
+        var events = transactionLog.getFirstNEvents(eventCount);
+        for (var event : events.subList(indexedEventCount, eventCount)) {
+            if (event.eventType != EventType.TRANSACTION_INTENDED) {
+                continue;
+            }
+            hasBaseline = hasBaseline || event.transaction.baselineSpec != null;
+            hasBulkInserts = hasBulkInserts || event.transaction.bulkInsertSpec != null;
+            for (var dataManipulation : event.transaction.dataManipulations) {
+                if (dataManipulation.primaryKeyValue.startsWith(BaselineSpec.KEY_PREFIX)) {
+                    touchedBaselinePrimaryKeyValues.add(dataManipulation.primaryKeyValue);
+                }
+            }
+        }
+        indexedEventCount = eventCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            output.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close spill file", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.catalog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Iceberg catalog implementation used during a run. Except for {@link #HIVE}, none of these need an external
+ * service, so they can be registered on the running Spark session right before the run starts.
+ */
+public enum CatalogType {
+    /**
+     * Hive metastore catalog. Expected to be configured on the Spark session upfront, as it needs a running metastore.
+     */
+    HIVE,
+    /**
+     * Iceberg Hadoop catalog, which keeps the table metadata on the (local) file system of the warehouse.
+     */
+    HADOOP,
+    /**
+     * Iceberg JDBC catalog on an embedded, in-memory H2 database.
+     */
+    JDBC,
+    /**
+     * Iceberg in-memory catalog, shared by all Spark sessions of the JVM.
+     */
+    IN_MEMORY;
+
+    public static final String CACHE_ENABLED_PROPERTY = "cache-enabled";
+    public static final String METRICS_REPORTER_PROPERTY = "metrics-reporter-impl";
+
+    public boolean requiresExternalService() {
+        return this == HIVE;
+    }
+
+    /**
+     * @return Whether separate JVMs see the same tables. The JDBC and in-memory catalogs live inside a single JVM.
+     */
+    public boolean isSharedAcrossProcesses() {
+        return this == HIVE || this == HADOOP;
+    }
+
+    /**
+     * Only for catalog types that don't {@link #requiresExternalService() require an external service}.
+     *
+     * @param catalogName       The name of the catalog in Spark
+     * @param warehouseLocation The location where the catalog stores its tables
+     * @param cacheEnabled      Whether the catalog caches its tables
+     * @return The catalog properties, without the {@code spark.sql.catalog.<catalogName>} prefix and the metrics reporter,
+     * which is registered for every catalog type
+     */
+    public Map<String, String> getCatalogProperties(String catalogName, String warehouseLocation, boolean cacheEnabled) {
+        var properties = new HashMap<String, String>();
+        properties.put("warehouse", warehouseLocation);
+        properties.put(CACHE_ENABLED_PROPERTY, String.valueOf(cacheEnabled));
+        switch (this) {
+            case HIVE:
+                throw new IllegalArgumentException("Catalog type " + this + " is configured on the Spark session upfront.");
+            case HADOOP:
+                properties.put("type", "hadoop");
+                break;
+            case JDBC:
+                properties.put("type", "jdbc");
+                properties.put("uri", "jdbc:h2:mem:" + catalogName + ";DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+                properties.put("jdbc.schema-version", "V1");
+                break;
+            case IN_MEMORY:
+                properties.put("catalog-impl", SharedInMemoryCatalog.class.getName());
+                break;
+            default:
+                throw new IllegalStateException("Unknown catalog type: " + this);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.catalog;
+
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.catalog.Catalog;
+import org.apache.iceberg.catalog.Namespace;
+import org.apache.iceberg.catalog.SupportsNamespaces;
+import org.apache.iceberg.catalog.TableIdentifier;
+import org.apache.iceberg.inmemory.InMemoryCatalog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link InMemoryCatalog} that is shared by all catalog instances with the same name in the JVM.
+ * <p>
+ * Spark creates a catalog instance per session, and as the writers and readers each use a cloned session, a plain
+ * {@link InMemoryCatalog} would give every session its own set of tables.
+ */
+public class SharedInMemoryCatalog implements Catalog, SupportsNamespaces {
+    private static final Map<String, InMemoryCatalog> CATALOGS = new ConcurrentHashMap<>();
+
+    private InMemoryCatalog delegate;
+
+    @Override
+    public void initialize(String name, Map<String, String> properties) {
+        this.delegate = CATALOGS.computeIfAbsent(name, catalogName -> {
+            // InMemoryCatalog doesn't expose its properties, which leaves the metrics reporter of its tables unset.
+            var catalog = new InMemoryCatalog() {
+                @Override
+                protected Map<String, String> properties() {
+                    return properties;
+                }
+            };
+            catalog.initialize(catalogName, properties);
+            return catalog;
+        });
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public List<TableIdentifier> listTables(Namespace namespace) {
+        return delegate.listTables(namespace);
+    }
+
+    @Override
+    public TableBuilder buildTable(TableIdentifier identifier, Schema schema) {
+        return delegate.buildTable(identifier, schema);
+    }
+
+    @Override
+    public boolean dropTable(TableIdentifier identifier, boolean purge) {
+        return delegate.dropTable(identifier, purge);
+    }
+
+    @Override
+    public void renameTable(TableIdentifier from, TableIdentifier to) {
+        delegate.renameTable(from, to);
+    }
+
+    @Override
+    public Table loadTable(TableIdentifier identifier) {
+        return delegate.loadTable(identifier);
+    }
+
+    @Override
+    public Table registerTable(TableIdentifier identifier, String metadataFileLocation) {
+        return delegate.registerTable(identifier, metadataFileLocation);
+    }
+
+    @Override
+    public void createNamespace(Namespace namespace, Map<String, String> metadata) {
+        delegate.createNamespace(namespace, metadata);
+    }
+
+    @Override
+    public List<Namespace> listNamespaces(Namespace namespace) {
+        return delegate.listNamespaces(namespace);
+    }
+
+    @Override
+    public Map<String, String> loadNamespaceMetadata(Namespace namespace) {
+        return delegate.loadNamespaceMetadata(namespace);
+    }
+
+    @Override
+    public boolean dropNamespace(Namespace namespace) {
+        return delegate.dropNamespace(namespace);
+    }
+
+    @Override
+    public boolean setProperties(Namespace namespace, Map<String, String> properties) {
+        return delegate.setProperties(namespace, properties);
+    }
+
+    @Override
+    public boolean removeProperties(Namespace namespace, Set<String> properties) {
+        return delegate.removeProperties(namespace, properties);
+    }
+
+    @Override
+    public boolean namespaceExists(Namespace namespace) {
+        return delegate.namespaceExists(namespace);
+    }
+}
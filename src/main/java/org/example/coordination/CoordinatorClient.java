@@ -0,0 +1,116 @@
+package org.example.coordination;
+
+import org.example.transactionlog.Transaction;
+import org.example.transactionlog.TransactionLogEvent;
+import org.example.writer.Configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client of the {@link CoordinatorServer}. Shared by all threads of a worker, which take turns sending requests.
+ */
+public class CoordinatorClient implements AutoCloseable {
+    private final Socket socket;
+    private final ObjectOutputStream output;
+    private final ObjectInputStream input;
+
+    public CoordinatorClient(int port) {
+        try {
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            this.output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            output.flush();
+            this.input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to connect to the coordinator on port " + port, e);
+        }
+    }
+
+    public Configuration getConfiguration() {
+        return (Configuration) call(CoordinatorOperation.GET_CONFIGURATION);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getSparkConfiguration() {
+        return (Map<String, String>) call(CoordinatorOperation.GET_SPARK_CONFIGURATION);
+    }
+
+    public void addEvent(TransactionLogEvent event) {
+        call(CoordinatorOperation.ADD_EVENT, event);
+    }
+
+    /**
+     * @return The events of the log with a position from (inclusive) to (exclusive)
+     */
+    @SuppressWarnings("unchecked")
+    public List<TransactionLogEvent> getEvents(int from, int to) {
+        return (List<TransactionLogEvent>) call(CoordinatorOperation.GET_EVENTS, from, to);
+    }
+
+    public int getEventCount() {
+        return (Integer) call(CoordinatorOperation.GET_EVENT_COUNT);
+    }
+
+    public Transaction nextTransaction() {
+        return (Transaction) call(CoordinatorOperation.NEXT_TRANSACTION);
+    }
+
+    public void transactionCommitted(Transaction transaction) {
+        call(CoordinatorOperation.TRANSACTION_COMMITTED, transaction);
+    }
+
+    public void verificationFailed() {
+        call(CoordinatorOperation.VERIFICATION_FAILED);
+    }
+
+    public boolean isStopped() {
+        return (Boolean) call(CoordinatorOperation.IS_STOPPED);
+    }
+
+    public void recordCommit(long durationInMillis, int attempts) {
+        call(CoordinatorOperation.RECORD_COMMIT, durationInMillis, attempts);
+    }
+
+    public void recordRead(long durationInMillis) {
+        call(CoordinatorOperation.RECORD_READ, durationInMillis);
+    }
+
+    private synchronized Object call(CoordinatorOperation operation, Object... arguments) {
+        try {
+            output.writeObject(operation);
+            for (var argument : arguments) {
+                if (argument instanceof Integer) {
+                    output.writeInt((Integer) argument);
+                } else if (argument instanceof Long) {
+                    output.writeLong((Long) argument);
+                } else {
+                    output.writeObject(argument);
+                }
+            }
+            output.reset();
+            output.flush();
+            return input.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to call the coordinator: " + operation, e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unexpected response of the coordinator: " + operation, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close the coordinator connection", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.coordination;
+
+/**
+ * Operations of the protocol between the {@link CoordinatorServer} and its {@link CoordinatorClient}s.
+ */
+enum CoordinatorOperation {
+    GET_CONFIGURATION,
+    GET_SPARK_CONFIGURATION,
+    ADD_EVENT,
+    GET_EVENTS,
+    GET_EVENT_COUNT,
+    NEXT_TRANSACTION,
+    TRANSACTION_COMMITTED,
+    VERIFICATION_FAILED,
+    IS_STOPPED,
+    RECORD_COMMIT,
+    RECORD_READ
+}
@@ -0,0 +1,161 @@
+package org.example.coordination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.report.RunStatistics;
+import org.example.transactionlog.Transaction;
+import org.example.transactionlog.TransactionLog;
+import org.example.transactionlog.TransactionLogEvent;
+import org.example.writer.Configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Serves the transaction log and the coordination of a run to the {@link WorkerProcess}es, on a socket bound to the
+ * loopback address. Every connection is handled by its own thread and sends one request at a time, as a
+ * {@link CoordinatorOperation} followed by its arguments, using Java serialization.
+ */
+@Slf4j
+public class CoordinatorServer extends Thread implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final TransactionLog transactionLog;
+    private final Configuration configuration;
+    private final Map<String, String> sparkConfiguration;
+    private final Supplier<Transaction> transactionSupplier;
+    private final Consumer<Transaction> transactionCommittedConsumer;
+    private final Runnable verificationFailedCallback;
+    private final AtomicBoolean stopped;
+    private final RunStatistics runStatistics;
+
+    public CoordinatorServer(
+            TransactionLog transactionLog,
+            Configuration configuration,
+            Map<String, String> sparkConfiguration,
+            Supplier<Transaction> transactionSupplier,
+            Consumer<Transaction> transactionCommittedConsumer,
+            Runnable verificationFailedCallback,
+            AtomicBoolean stopped,
+            RunStatistics runStatistics
+    ) {
+        try {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the coordinator socket", e);
+        }
+        this.transactionLog = transactionLog;
+        this.configuration = configuration;
+        this.sparkConfiguration = new HashMap<>(sparkConfiguration);
+        this.transactionSupplier = transactionSupplier;
+        this.transactionCommittedConsumer = transactionCommittedConsumer;
+        this.verificationFailedCallback = verificationFailedCallback;
+        this.stopped = stopped;
+        this.runStatistics = runStatistics;
+        setName("acid-coordinator");
+        setDaemon(true);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void run() {
+        log.info("Coordinator listening on port {}.", getPort());
+        var connectionNumber = 0;
+        while (!serverSocket.isClosed()) {
+            try {
+                var socket = serverSocket.accept();
+                var connectionThread = new Thread(() -> serve(socket), "acid-coordinator-connection-" + connectionNumber++);
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (SocketException e) {
+                // Closed.
+            } catch (IOException e) {
+                log.error("Exception in coordinator.", e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             var output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            output.flush();
+            var input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (true) {
+                var operation = (CoordinatorOperation) input.readObject();
+                output.writeObject(handle(operation, input));
+                // Don't keep references to the objects that were sent, the log only grows.
+                output.reset();
+                output.flush();
+            }
+        } catch (EOFException e) {
+            // The worker disconnected.
+        } catch (IOException | ClassNotFoundException e) {
+            if (!serverSocket.isClosed()) {
+                log.error("Exception in coordinator connection.", e);
+            }
+        }
+    }
+
+    private Object handle(CoordinatorOperation operation, ObjectInputStream input) throws IOException, ClassNotFoundException {
+        switch (operation) {
+            case GET_CONFIGURATION:
+                return configuration;
+            case GET_SPARK_CONFIGURATION:
+                return sparkConfiguration;
+            case ADD_EVENT:
+                transactionLog.add((TransactionLogEvent) input.readObject());
+                return null;
+            case GET_EVENTS:
+                var from = input.readInt();
+                var to = input.readInt();
+                return new ArrayList<>(transactionLog.getFirstNEvents(to).subList(from, to));
+            case GET_EVENT_COUNT:
+                return transactionLog.getEventCount();
+            case NEXT_TRANSACTION:
+                return transactionSupplier.get();
+            case TRANSACTION_COMMITTED:
+                transactionCommittedConsumer.accept((Transaction) input.readObject());
+                return null;
+            case VERIFICATION_FAILED:
+                verificationFailedCallback.run();
+                return null;
+            case IS_STOPPED:
+                return stopped.get();
+            case RECORD_COMMIT:
+                var durationInMillis = input.readLong();
+                var attempts = input.readInt();
+                runStatistics.recordCommit(durationInMillis, attempts);
+                return null;
+            case RECORD_READ:
+                runStatistics.recordRead(input.readLong());
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close the coordinator socket", e);
+        }
+    }
+}
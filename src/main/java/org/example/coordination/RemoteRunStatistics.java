@@ -0,0 +1,24 @@
+package org.example.coordination;
+
+import org.example.report.RunStatistics;
+
+/**
+ * {@link RunStatistics} that are recorded by the {@link CoordinatorServer}, so the run report covers all workers.
+ */
+public class RemoteRunStatistics extends RunStatistics {
+    private final CoordinatorClient coordinatorClient;
+
+    public RemoteRunStatistics(CoordinatorClient coordinatorClient) {
+        this.coordinatorClient = coordinatorClient;
+    }
+
+    @Override
+    public void recordCommit(long durationInMillis, int attempts) {
+        coordinatorClient.recordCommit(durationInMillis, attempts);
+    }
+
+    @Override
+    public void recordRead(long durationInMillis) {
+        coordinatorClient.recordRead(durationInMillis);
+    }
+}
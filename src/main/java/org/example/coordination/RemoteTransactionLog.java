@@ -0,0 +1,38 @@
+package org.example.coordination;
+
+import org.example.transactionlog.TransactionLog;
+import org.example.transactionlog.TransactionLogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TransactionLog} of the {@link CoordinatorServer}. The log only grows, so the events that were fetched before
+ * are kept, and only the events that are new are fetched.
+ */
+public class RemoteTransactionLog implements TransactionLog {
+    private final CoordinatorClient coordinatorClient;
+    private final List<TransactionLogEvent> fetchedEvents = new ArrayList<>();
+
+    public RemoteTransactionLog(CoordinatorClient coordinatorClient) {
+        this.coordinatorClient = coordinatorClient;
+    }
+
+    @Override
+    public void add(TransactionLogEvent event) {
+        coordinatorClient.addEvent(event);
+    }
+
+    @Override
+    public synchronized List<TransactionLogEvent> getFirstNEvents(int n) {
+        if (fetchedEvents.size() < n) {
+            fetchedEvents.addAll(coordinatorClient.getEvents(fetchedEvents.size(), n));
+        }
+        return new ArrayList<>(fetchedEvents.subList(0, n));
+    }
+
+    @Override
+    public int getEventCount() {
+        return coordinatorClient.getEventCount();
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.coordination;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.spark.sql.SparkSession;
+import org.example.durability.FaultInjectingFileIO;
+import org.example.history.HistoryRecorder;
+import org.example.metrics.IcebergMetrics;
+import org.example.reader.ReaderThread;
+import org.example.reader.SessionGuarantees;
+import org.example.writer.Configuration;
+import org.example.writer.RunContext;
+import org.example.writer.TransactionWriter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entry point of a JVM forked by the {@link org.example.writer.TransactionManager}, running either the writers or the
+ * readers of a run with its own Spark driver and catalog clients. The transactions, the transaction log and the stop
+ * signal come from the {@link CoordinatorServer}.
+ * <p>
+ * Exits with 0 when all threads finished without an exception, 1 otherwise.
+ */
+@Slf4j
+public class WorkerProcess {
+    private static final long STOP_POLL_INTERVAL_IN_MILLIS = 100;
+
+    private final CoordinatorClient coordinatorClient;
+    private final WorkerRole workerRole;
+    private final int workerNumber;
+    private final String workerName;
+
+    public WorkerProcess(CoordinatorClient coordinatorClient, WorkerRole workerRole, int workerNumber) {
+        this.coordinatorClient = coordinatorClient;
+        this.workerRole = workerRole;
+        this.workerNumber = workerNumber;
+        this.workerName = "acid-" + workerRole.name().toLowerCase() + "-process-" + workerNumber;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 3) {
+            System.err.println("Usage: WorkerProcess <coordinator port> <WRITER|READER> <worker number>");
+            System.exit(2);
+        }
+        boolean succeeded;
+        try (var coordinatorClient = new CoordinatorClient(Integer.parseInt(args[0]))) {
+            succeeded = new WorkerProcess(coordinatorClient, WorkerRole.valueOf(args[1]), Integer.parseInt(args[2])).run();
+        }
+        System.exit(succeeded ? 0 : 1);
+    }
+
+    /**
+     * @return The file a worker process writes its part of the history to, next to the history file of the run
+     */
+    public static Path getHistoryFile(Configuration configuration, WorkerRole workerRole, int workerNumber) {
+        return Path.of(configuration.getHistoryFile() + "." + workerRole.name().toLowerCase() + "-" + workerNumber);
+    }
+
+    /**
+     * @return Whether all threads finished without an exception
+     */
+    public boolean run() throws InterruptedException {
+        var configuration = coordinatorClient.getConfiguration();
+        var session = createSparkSession(coordinatorClient.getSparkConfiguration());
+        var stop = new AtomicBoolean(false);
+        var stopPoller = startStopPoller(stop);
+        try (var historyRecorder = configuration.getHistoryFile() == null ? null
+                : new HistoryRecorder(getHistoryFile(configuration, workerRole, workerNumber))) {
+            switch (workerRole) {
+                case WRITER:
+                    // Without fault injection configured on the catalog, there are no faults to arm
+                    FaultInjectingFileIO.arm();
+                    return runWriters(configuration, session, stop, historyRecorder);
+                case READER:
+                    return runReaders(configuration, session, stop, historyRecorder);
+                default:
+                    throw new IllegalArgumentException("Unknown worker role: " + workerRole);
+            }
+        } finally {
+            stopPoller.interrupt();
+            session.stop();
+        }
+    }
+
+    /**
+     * The sessions of a worker process are only shared within that process.
+     */
+    private static SessionGuarantees createSessionGuarantees(Configuration configuration) {
+        return configuration.isVerifySessionGuarantees() ? new SessionGuarantees(configuration.isReadYourWritesProbesEnabled()) : null;
+    }
+
+    private boolean runWriters(Configuration configuration, SparkSession session, AtomicBoolean stop, HistoryRecorder historyRecorder) throws InterruptedException {
+        var transactionLog = new RemoteTransactionLog(coordinatorClient);
+        var runStatistics = new RemoteRunStatistics(coordinatorClient);
+        var icebergMetrics = new IcebergMetrics();
+        var sessionGuarantees = createSessionGuarantees(configuration);
+        var sessions = cloneSessions(session, configuration.getNumberOfSparkSessionsForWriters(), configuration.getCatalogName());
+        var runContext = RunContext.create(transactionLog, stop, coordinatorClient::verificationFailed, icebergMetrics, runStatistics)
+                .withSessionGuarantees(sessionGuarantees)
+                .withHistoryRecorder(historyRecorder);
+        var writerThreads = new ArrayList<TransactionWriter>();
+        for (var writerNumber = 0; writerNumber < configuration.getNumberOfWriterThreads(); writerNumber++) {
+            var writerThread = new TransactionWriter(
+                    configuration,
+                    runContext,
+                    sessions.get(writerNumber % sessions.size()),
+                    coordinatorClient::nextTransaction,
+                    coordinatorClient::transactionCommitted
+            );
+            writerThread.setName(workerName + "-writer-" + writerNumber);
+            writerThread.start();
+            writerThreads.add(writerThread);
+        }
+        var succeeded = true;
+        for (var writerThread : writerThreads) {
+            writerThread.join();
+            succeeded = succeeded && writerThread.getWriterException() == null;
+        }
+        log.info("{} finished. icebergMetrics={}", workerName, icebergMetrics);
+        return succeeded;
+    }
+
+    private boolean runReaders(Configuration configuration, SparkSession session, AtomicBoolean stop, HistoryRecorder historyRecorder) throws InterruptedException {
+        var transactionLog = new RemoteTransactionLog(coordinatorClient);
+        var runStatistics = new RemoteRunStatistics(coordinatorClient);
+        var icebergMetrics = new IcebergMetrics();
+        var sessionGuarantees = createSessionGuarantees(configuration);
+        var sessions = cloneSessions(session, configuration.getNumberOfSparkSessionsForReaders(), configuration.getCatalogName());
+        var runContext = RunContext.create(transactionLog, stop, coordinatorClient::verificationFailed, icebergMetrics, runStatistics)
+                .withSessionGuarantees(sessionGuarantees)
+                .withHistoryRecorder(historyRecorder);
+        // Reader processes verify their reads themselves, only the readers of the main process capture them
+        var readerConfiguration = configuration.withReadCaptureDirectory(null);
+        var readerThreads = new ArrayList<ReaderThread>();
+        for (var readerNumber = 0; readerNumber < configuration.getNumberOfReaderThreads(); readerNumber++) {
+            var readerThread = new ReaderThread(readerConfiguration, runContext, sessions.get(readerNumber % sessions.size()));
+            readerThread.setName(workerName + "-reader-" + readerNumber);
+            readerThread.start();
+            readerThreads.add(readerThread);
+        }
+        var succeeded = true;
+        for (var readerThread : readerThreads) {
+            readerThread.join();
+            succeeded = succeeded && readerThread.getReaderException() == null;
+        }
+        log.info("{} finished. icebergMetrics={}", workerName, icebergMetrics);
+        return succeeded;
+    }
+
+    private SparkSession createSparkSession(Map<String, String> sparkConfiguration) {
+        var builder = SparkSession.builder()
+                .appName(workerName)
+                .config("spark.ui.enabled", "false");
+        sparkConfiguration.forEach(builder::config);
+        return builder.getOrCreate();
+    }
+
+    private static List<SparkSession> cloneSessions(SparkSession session, int numberOfSparkSessions, String catalogName) {
+        var sessions = new ArrayList<SparkSession>();
+        for (var sessionNumber = 0; sessionNumber < numberOfSparkSessions; sessionNumber++) {
+            var childSession = session.cloneSession();
+            childSession.sessionState().catalogManager().catalog(catalogName);
+            sessions.add(childSession);
+        }
+        return sessions;
+    }
+
+    private Thread startStopPoller(AtomicBoolean stop) {
+        var stopPoller = new Thread(() -> {
+            try {
+                while (!stop.get()) {
+                    stop.set(coordinatorClient.isStopped());
+                    Thread.sleep(STOP_POLL_INTERVAL_IN_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, workerName + "-stop-poller");
+        stopPoller.setDaemon(true);
+        stopPoller.start();
+        return stopPoller;
+    }
+}
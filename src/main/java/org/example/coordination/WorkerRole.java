@@ -0,0 +1,5 @@
+package org.example.coordination;
+
+public enum WorkerRole {
+    WRITER, READER
+}
@@ -0,0 +1,43 @@
+package org.example.durability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.report.LatencySummary;
+
+import java.util.List;
+
+/**
+ * Outcome of the {@link DurabilityChecker}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class DurabilityCheckResult {
+    private final int injectedFaults;
+    /**
+     * Whether the current snapshot of the table contains all committed transactions.
+     */
+    private final boolean committedTransactionsSurvived;
+    /**
+     * Rows of transactions that never committed, which the files they left behind must not make visible.
+     */
+    private final int visibleUncommittedRows;
+    /**
+     * Files in the table location that no snapshot references, such as the files of failed commits.
+     */
+    private final int orphanedFiles;
+    /**
+     * Faults after which no transaction committed anymore.
+     */
+    private final int unrecoveredFaults;
+    /**
+     * Time from a fault until the next transaction committed.
+     */
+    private final LatencySummary recoveryTime;
+    private final List<String> failureExamples;
+
+    public boolean isSatisfied() {
+        return committedTransactionsSurvived && visibleUncommittedRows == 0;
+    }
+}
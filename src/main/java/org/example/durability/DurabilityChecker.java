@@ -0,0 +1,221 @@
+package org.example.durability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.iceberg.spark.actions.SparkActions;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.reader.ReaderBackend;
+import org.example.reader.TableReader;
+import org.example.report.LatencyRecorder;
+import org.example.resultexpectations.ResultSetExpectationProducer;
+import org.example.resultexpectations.ResultSetExpectations;
+import org.example.resultset.InconsistentResultSetException;
+import org.example.resultset.ResultSet;
+import org.example.table.PayloadSchema;
+import org.example.transactionlog.EventType;
+import org.example.transactionlog.ManipulationType;
+import org.example.transactionlog.TransactionLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the table after a run with storage faults of the {@link FaultInjectingFileIO}, once the faults are disarmed:
+ * <ul>
+ * <li>the current snapshot contains every committed transaction, as a read at the end of the transaction log</li>
+ * <li>no row of a transaction that never committed is visible, although its files may be left behind</li>
+ * <li>how many files no snapshot references, found by a dry run of the orphan file cleanup</li>
+ * <li>how long it took after each fault until a transaction committed again</li>
+ * </ul>
+ */
+@Slf4j
+public class DurabilityChecker {
+    private static final int MAXIMUM_NUMBER_OF_EXAMPLES = 10;
+
+    private final SparkSession session;
+    private final String fullyQualifiedTableName;
+    private final PayloadSchema payloadSchema;
+    private final TransactionLog transactionLog;
+    private final Path faultLogFile;
+    private final List<String> failureExamples = new ArrayList<>();
+
+    public DurabilityChecker(SparkSession session, String fullyQualifiedTableName, PayloadSchema payloadSchema, TransactionLog transactionLog, Path faultLogFile) {
+        this.session = session;
+        this.fullyQualifiedTableName = fullyQualifiedTableName;
+        this.payloadSchema = payloadSchema;
+        this.transactionLog = transactionLog;
+        this.faultLogFile = faultLogFile;
+    }
+
+    public DurabilityCheckResult check() throws IOException {
+        var faults = readFaults();
+        var table = loadTable();
+        var eventCount = transactionLog.getEventCount();
+        var resultSetExpectations = new ResultSetExpectationProducer(transactionLog).createResultSetExpectations(eventCount, eventCount);
+        var resultSet = readCurrentSnapshot(table, resultSetExpectations);
+        var committedTransactionsSurvived = verifyCommittedTransactions(resultSetExpectations, resultSet);
+        var visibleUncommittedRows = countVisibleUncommittedRows(resultSet);
+        var orphanedFiles = countOrphanedFiles(table);
+
+        var commitTimes = transactionLog.getFirstNEvents(transactionLog.getEventCount())
+                .stream()
+                .filter(event -> event.eventType == EventType.TRANSACTION_COMMITTED)
+                .mapToLong(event -> event.timestampInMillis)
+                .sorted()
+                .toArray();
+        var recoveryTime = new LatencyRecorder();
+        var unrecoveredFaults = 0;
+        for (var fault : faults) {
+            var nextCommitTime = findFirstAtOrAfter(commitTimes, fault.getTimestampInMillis());
+            if (nextCommitTime == null) {
+                unrecoveredFaults++;
+            } else {
+                recoveryTime.record(nextCommitTime - fault.getTimestampInMillis());
+            }
+        }
+        return DurabilityCheckResult.create(
+                faults.size(),
+                committedTransactionsSurvived,
+                visibleUncommittedRows,
+                orphanedFiles,
+                unrecoveredFaults,
+                recoveryTime.summarize(),
+                List.copyOf(failureExamples)
+        );
+    }
+
+    private List<InjectedFault> readFaults() throws IOException {
+        if (!Files.exists(faultLogFile)) {
+            return List.of();
+        }
+        try (var lines = Files.lines(faultLogFile)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(InjectedFault::parse)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return The records and aggregates of the current snapshot, which are empty when no transaction committed
+     */
+    private ResultSet readCurrentSnapshot(Table table, ResultSetExpectations resultSetExpectations) {
+        var currentSnapshot = table.currentSnapshot();
+        if (currentSnapshot == null) {
+            return new ResultSet(List.of());
+        }
+        var snapshotId = currentSnapshot.snapshotId();
+        var tableReader = TableReader.create(ReaderBackend.SPARK, session, fullyQualifiedTableName, payloadSchema);
+        var resultSet = tableReader.readRecords(snapshotId);
+        if (resultSetExpectations.areBulkInsertsExpected()) {
+            resultSet = resultSet.withBulkInsertAggregates(tableReader.readBulkInsertAggregates(snapshotId));
+        }
+        var baselineExpectation = resultSetExpectations.getBaselineExpectation();
+        if (baselineExpectation.isPresent()) {
+            resultSet = resultSet.withBaselineAggregate(tableReader.readBaselineAggregate(snapshotId, baselineExpectation.get().getUncertainPrimaryKeyValues()));
+        }
+        return resultSet;
+    }
+
+    private boolean verifyCommittedTransactions(ResultSetExpectations resultSetExpectations, ResultSet resultSet) {
+        try {
+            if (resultSetExpectations.isStatisfied(resultSet)) {
+                return true;
+            }
+            addFailureExample("The current snapshot misses committed transactions: " + resultSet);
+        } catch (InconsistentResultSetException e) {
+            addFailureExample("The current snapshot is inconsistent: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * The data values are random, so a row of an insert or update that never committed is recognized by its primary
+     * key and data value.
+     */
+    private int countVisibleUncommittedRows(ResultSet resultSet) {
+        var events = transactionLog.getFirstNEvents(transactionLog.getEventCount());
+        var committedTransactionIds = new HashSet<UUID>();
+        for (var event : events) {
+            if (event.eventType == EventType.TRANSACTION_COMMITTED) {
+                committedTransactionIds.add(event.transaction.transactionId);
+            }
+        }
+        var uncommittedRows = new HashSet<String>();
+        for (var event : events) {
+            var transaction = event.transaction;
+            if (event.eventType == EventType.TRANSACTION_INTENDED
+                    && !committedTransactionIds.contains(transaction.transactionId)
+                    && (transaction.manipulationType == ManipulationType.INSERT || transaction.manipulationType == ManipulationType.UPDATE)) {
+                for (var dataManipulation : transaction.dataManipulations) {
+                    uncommittedRows.add(dataManipulation.primaryKeyValue + '\u0000' + dataManipulation.dataValue);
+                }
+            }
+        }
+        var visibleUncommittedRows = 0;
+        for (var record : resultSet.getRecords()) {
+            if (uncommittedRows.contains(record.getPrimaryKeyValue() + '\u0000' + record.getDataValue())) {
+                visibleUncommittedRows++;
+                addFailureExample("Row " + record + " of a transaction that never committed is visible");
+            }
+        }
+        return visibleUncommittedRows;
+    }
+
+    /**
+     * Lists the orphaned files without deleting them, as they may be needed to analyze a failure.
+     */
+    private int countOrphanedFiles(Table table) {
+        var orphanedFiles = 0;
+        var result = SparkActions.get(session)
+                .deleteOrphanFiles(table)
+                .olderThan(System.currentTimeMillis())
+                .deleteWith(location -> {
+                })
+                .execute();
+        for (var location : result.orphanFileLocations()) {
+            log.info("Acid Verification durability check orphanedFile={}", location);
+            orphanedFiles++;
+        }
+        return orphanedFiles;
+    }
+
+    private static Long findFirstAtOrAfter(long[] sortedTimes, long time) {
+        var low = 0;
+        var high = sortedTimes.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (sortedTimes[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low == sortedTimes.length ? null : sortedTimes[low];
+    }
+
+    private void addFailureExample(String failure) {
+        log.error("Durability check failed. {}", failure);
+        if (failureExamples.size() < MAXIMUM_NUMBER_OF_EXAMPLES) {
+            failureExamples.add(failure);
+        }
+    }
+
+    private Table loadTable() {
+        try {
+            var table = Spark3Util.loadIcebergTable(session, fullyQualifiedTableName);
+            table.refresh();
+            return table;
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.example.durability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.CatalogProperties;
+import org.apache.iceberg.hadoop.HadoopFileIO;
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.io.OutputFile;
+import org.apache.iceberg.io.PositionOutputStream;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link HadoopFileIO} that injects storage faults into the writes of one {@link FaultPoint} of the commits, configured
+ * with the catalog properties of {@link #getCatalogProperties}.
+ * <p>
+ * A fault is injected when the file is closed, so the file is complete unless the fault type truncates it. Faults are
+ * only injected in JVMs that {@link #arm()} them, which are the JVMs of the writers, and at most a maximum number of
+ * times per JVM. Every fault is appended to the fault log before it takes effect, so even aborts are logged.
+ */
+@Slf4j
+public class FaultInjectingFileIO extends HadoopFileIO {
+    public static final String FAULT_POINT_PROPERTY = "fault-injection.point";
+    public static final String FAULT_TYPE_PROPERTY = "fault-injection.type";
+    public static final String PROBABILITY_PROPERTY = "fault-injection.probability";
+    public static final String LATENCY_PROPERTY = "fault-injection.latency-ms";
+    public static final String MAXIMUM_NUMBER_OF_FAULTS_PROPERTY = "fault-injection.max-faults";
+    public static final String FAULT_LOG_PROPERTY = "fault-injection.log-file";
+    public static final int ABORT_EXIT_CODE = 134;
+
+    private static final AtomicBoolean ARMED = new AtomicBoolean();
+    private static final AtomicInteger INJECTED_FAULTS = new AtomicInteger();
+
+    private FaultPoint faultPoint;
+    private FaultType faultType;
+    private double probability;
+    private long latencyInMillis;
+    private int maximumNumberOfFaults;
+    private String faultLogFile;
+
+    /**
+     * @return The catalog properties that make the catalog write through this file IO
+     */
+    public static Map<String, String> getCatalogProperties(FaultPoint faultPoint, FaultType faultType, double probability, long latencyInMillis, int maximumNumberOfFaults, Path faultLogFile) {
+        var properties = new HashMap<String, String>();
+        properties.put(CatalogProperties.FILE_IO_IMPL, FaultInjectingFileIO.class.getName());
+        properties.put(FAULT_POINT_PROPERTY, faultPoint.name());
+        properties.put(FAULT_TYPE_PROPERTY, faultType.name());
+        properties.put(PROBABILITY_PROPERTY, String.valueOf(probability));
+        properties.put(LATENCY_PROPERTY, String.valueOf(latencyInMillis));
+        properties.put(MAXIMUM_NUMBER_OF_FAULTS_PROPERTY, String.valueOf(maximumNumberOfFaults));
+        properties.put(FAULT_LOG_PROPERTY, faultLogFile.toString());
+        return properties;
+    }
+
+    /**
+     * Starts injecting faults in this JVM.
+     */
+    public static void arm() {
+        ARMED.set(true);
+    }
+
+    /**
+     * Stops injecting faults in this JVM, so the table can be checked.
+     */
+    public static void disarm() {
+        ARMED.set(false);
+    }
+
+    @Override
+    public void initialize(Map<String, String> properties) {
+        super.initialize(properties);
+        faultPoint = FaultPoint.valueOf(properties.get(FAULT_POINT_PROPERTY));
+        faultType = FaultType.valueOf(properties.get(FAULT_TYPE_PROPERTY));
+        probability = Double.parseDouble(properties.get(PROBABILITY_PROPERTY));
+        latencyInMillis = Long.parseLong(properties.get(LATENCY_PROPERTY));
+        maximumNumberOfFaults = Integer.parseInt(properties.get(MAXIMUM_NUMBER_OF_FAULTS_PROPERTY));
+        faultLogFile = properties.get(FAULT_LOG_PROPERTY);
+    }
+
+    @Override
+    public OutputFile newOutputFile(String path) {
+        var outputFile = super.newOutputFile(path);
+        return FaultPoint.of(path) == faultPoint ? new FaultInjectingOutputFile(outputFile) : outputFile;
+    }
+
+    /**
+     * Called when a file of the fault point is complete.
+     */
+    private void maybeInjectFault(String location) throws IOException {
+        if (!ARMED.get() || ThreadLocalRandom.current().nextDouble() >= probability || INJECTED_FAULTS.incrementAndGet() > maximumNumberOfFaults) {
+            return;
+        }
+        logFault(InjectedFault.create(System.currentTimeMillis(), faultPoint, faultType, location));
+        switch (faultType) {
+            case LATENCY:
+                try {
+                    Thread.sleep(latencyInMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted during injected latency", e);
+                }
+                break;
+            case FAILED_WRITE:
+                throw new IOException("Injected failed write of " + location);
+            case PARTIAL_FILE:
+                truncate(location);
+                throw new IOException("Injected partial write of " + location);
+            case ABORT:
+                Runtime.getRuntime().halt(ABORT_EXIT_CODE);
+                break;
+            default:
+                throw new IllegalStateException("Unknown faultType: " + faultType);
+        }
+    }
+
+    private void logFault(InjectedFault fault) throws IOException {
+        log.warn("Acid Verification threadType='faultInjection' {}", fault);
+        synchronized (FaultInjectingFileIO.class) {
+            Files.write(Path.of(faultLogFile), (fault.toLine() + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        }
+    }
+
+    private void truncate(String location) throws IOException {
+        byte[] content;
+        try (var input = super.newInputFile(location).newStream()) {
+            content = input.readAllBytes();
+        }
+        try (var output = super.newOutputFile(location).createOrOverwrite()) {
+            output.write(content, 0, content.length / 2);
+        }
+    }
+
+    private final class FaultInjectingOutputFile implements OutputFile {
+        private final OutputFile delegate;
+
+        private FaultInjectingOutputFile(OutputFile delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PositionOutputStream create() {
+            return new FaultInjectingOutputStream(delegate.create(), delegate.location());
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite() {
+            return new FaultInjectingOutputStream(delegate.createOrOverwrite(), delegate.location());
+        }
+
+        @Override
+        public String location() {
+            return delegate.location();
+        }
+
+        @Override
+        public InputFile toInputFile() {
+            return delegate.toInputFile();
+        }
+    }
+
+    private final class FaultInjectingOutputStream extends PositionOutputStream {
+        private final PositionOutputStream delegate;
+        private final String location;
+        private boolean closed;
+
+        private FaultInjectingOutputStream(PositionOutputStream delegate, String location) {
+            this.delegate = delegate;
+            this.location = location;
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return delegate.getPos();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            delegate.close();
+            maybeInjectFault(location);
+        }
+    }
+}
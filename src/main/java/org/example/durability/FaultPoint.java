@@ -0,0 +1,36 @@
+package org.example.durability;
+
+/**
+ * The step of a commit at which the {@link FaultInjectingFileIO} injects its faults. The faults are injected when the
+ * file of that step is complete, so all files of the steps before it are written.
+ */
+public enum FaultPoint {
+    /**
+     * After a data or delete file is written, before any manifest of the commit.
+     */
+    AFTER_DATA_FILES,
+    /**
+     * After a manifest or manifest list is written, before the new table metadata.
+     */
+    AFTER_MANIFESTS,
+    /**
+     * After the new table metadata file is written, before the catalog points the table to it.
+     */
+    BEFORE_METADATA_SWAP;
+
+    /**
+     * @return The fault point of the step that writes the file, or null for files that are not written by commits
+     */
+    public static FaultPoint of(String location) {
+        if (location.endsWith(".metadata.json")) {
+            return BEFORE_METADATA_SWAP;
+        }
+        if (location.contains("/metadata/") && location.endsWith(".avro")) {
+            return AFTER_MANIFESTS;
+        }
+        if (location.contains("/data/")) {
+            return AFTER_DATA_FILES;
+        }
+        return null;
+    }
+}
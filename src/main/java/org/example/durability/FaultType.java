@@ -0,0 +1,23 @@
+package org.example.durability;
+
+/**
+ * How the {@link FaultInjectingFileIO} fails a write at its {@link FaultPoint}.
+ */
+public enum FaultType {
+    /**
+     * The write is delayed, but succeeds.
+     */
+    LATENCY,
+    /**
+     * The file is written completely, but the write fails.
+     */
+    FAILED_WRITE,
+    /**
+     * Only the first half of the file is written, and the write fails.
+     */
+    PARTIAL_FILE,
+    /**
+     * The JVM of the writer halts, without running any shutdown hook or cleanup. Only for writer processes.
+     */
+    ABORT
+}
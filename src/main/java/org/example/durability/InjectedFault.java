@@ -0,0 +1,27 @@
+package org.example.durability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A fault the {@link FaultInjectingFileIO} injected, as a line of the fault log that all JVMs of a run append to.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class InjectedFault {
+    private final long timestampInMillis;
+    private final FaultPoint faultPoint;
+    private final FaultType faultType;
+    private final String location;
+
+    public static InjectedFault parse(String line) {
+        var fields = line.split(",", 4);
+        return create(Long.parseLong(fields[0]), FaultPoint.valueOf(fields[1]), FaultType.valueOf(fields[2]), fields[3]);
+    }
+
+    public String toLine() {
+        return timestampInMillis + "," + faultPoint + "," + faultType + "," + location;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link HistoryChecker} run.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class HistoryCheckResult {
+    private final int transactions;
+    private final int committedTransactions;
+    private final int reads;
+    private final int maintenanceCommits;
+    private final long writeWriteDependencies;
+    private final long writeReadDependencies;
+    private final long readWriteDependencies;
+    /**
+     * Snapshots that are the parent of more than one committed snapshot.
+     */
+    private final int forkedSnapshots;
+    /**
+     * Parts of the lineage that couldn't be connected to the first snapshot, because a parent snapshot is missing.
+     */
+    private final int disconnectedLineageSegments;
+    /**
+     * Transactions and reads of which the snapshot they read isn't part of the recorded lineage.
+     */
+    private final int unresolvedReadSnapshots;
+    /**
+     * Strongly connected components of the dependency graph with more than one transaction.
+     */
+    private final int cycles;
+    /**
+     * Cycles with a single anti-dependency, like lost updates, which snapshot isolation forbids.
+     */
+    private final int singleAntiDependencyCycles;
+    private final List<String> anomalyExamples;
+    private final long checkDurationInMillis;
+
+    public boolean hasValidLineage() {
+        return forkedSnapshots == 0 && disconnectedLineageSegments == 0 && unresolvedReadSnapshots == 0;
+    }
+
+    public boolean isSerializable() {
+        return hasValidLineage() && cycles == 0;
+    }
+
+    public boolean isSnapshotIsolation() {
+        return hasValidLineage() && singleAntiDependencyCycles == 0;
+    }
+}
@@ -0,0 +1,525 @@
+package org.example.history;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a recorded history for isolation anomalies, following Adya's dependency graphs.
+ * <p>
+ * The lineage of the committed snapshots gives the commit order. Every key is read from the snapshot a transaction or
+ * read started from, and every write installs a new version of its keys. That gives three kinds of dependencies:
+ * <ul>
+ *     <li>write-write: a transaction overwrites the version of a key installed by another transaction</li>
+ *     <li>write-read: a transaction reads the version of a key installed by another transaction</li>
+ *     <li>read-write: a transaction reads a version of a key that another transaction overwrites</li>
+ * </ul>
+ * A history is serializable when the graph has no cycles, which are found with Tarjan's algorithm for strongly
+ * connected components. Snapshot isolation allows cycles, but not with a single read-write dependency, like a lost
+ * update. The graph is kept in primitive arrays, so histories of millions of transactions can be checked.
+ * <p>
+ * Reads see a snapshot, so all their dependencies point forward in the commit order. A read can only be part of a
+ * cycle when a read-write dependency between two transactions points backward over the snapshot it read. Only the
+ * dependencies of those reads are added to the graph, instead of a dependency for every key of every read.
+ */
+@Slf4j
+public class HistoryChecker {
+    private static final long NO_SNAPSHOT = Long.MIN_VALUE;
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+    private static final int[] NO_KEYS = new int[0];
+    private static final int MAXIMUM_NUMBER_OF_EXAMPLES = 10;
+    private static final int MAXIMUM_NUMBER_OF_IDS_PER_EXAMPLE = 5;
+
+    private static final int WRITE_WRITE = 0;
+    private static final int WRITE_READ = 1;
+    private static final int READ_WRITE = 2;
+
+    private final List<String> ids = new ArrayList<>();
+    private final List<HistoryEntryType> types = new ArrayList<>();
+    private final List<int[]> readKeyIds = new ArrayList<>();
+    private final List<int[]> writeKeyIds = new ArrayList<>();
+    private final Map<String, Integer> keyIds = new HashMap<>();
+    private long[] readSnapshotIds = new long[1024];
+    private long[] snapshotIds = new long[1024];
+    private long[] parentSnapshotIds = new long[1024];
+
+    private final List<String> anomalyExamples = new ArrayList<>();
+
+    public static HistoryCheckResult check(Path historyFile) throws IOException {
+        return check(List.of(historyFile));
+    }
+
+    /**
+     * Checks the combined history of several files, e.g. those written by the worker processes of one run.
+     */
+    public static HistoryCheckResult check(List<Path> historyFiles) throws IOException {
+        var historyChecker = new HistoryChecker();
+        for (var historyFile : historyFiles) {
+            try (var lines = Files.lines(historyFile)) {
+                lines.filter(line -> !line.isEmpty())
+                        .map(HistoryEntry::fromLine)
+                        .forEach(historyChecker::add);
+            }
+        }
+        return historyChecker.check();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: HistoryChecker <history file>...");
+            System.exit(2);
+        }
+        var result = check(Arrays.stream(args).map(Path::of).collect(Collectors.toList()));
+        System.out.println(result);
+        System.exit(result.isSerializable() ? 0 : 1);
+    }
+
+    public void add(HistoryEntry historyEntry) {
+        var node = ids.size();
+        if (node == snapshotIds.length) {
+            readSnapshotIds = Arrays.copyOf(readSnapshotIds, node * 2);
+            snapshotIds = Arrays.copyOf(snapshotIds, node * 2);
+            parentSnapshotIds = Arrays.copyOf(parentSnapshotIds, node * 2);
+        }
+        ids.add(historyEntry.getId());
+        types.add(historyEntry.getType());
+        readSnapshotIds[node] = orNoSnapshot(historyEntry.getReadSnapshotId());
+        snapshotIds[node] = orNoSnapshot(historyEntry.getSnapshotId());
+        parentSnapshotIds[node] = orNoSnapshot(historyEntry.getParentSnapshotId());
+        readKeyIds.add(toKeyIds(historyEntry.getReadKeys()));
+        writeKeyIds.add(toKeyIds(historyEntry.getWriteKeys()));
+    }
+
+    public HistoryCheckResult check() {
+        var timeBeforeCheck = System.currentTimeMillis();
+        anomalyExamples.clear();
+        var nodeCount = ids.size();
+
+        // Commit order, from the lineage of the committed snapshots.
+        var nodeBySnapshotId = new HashMap<Long, Integer>();
+        var roots = new IntArrayList();
+        for (var node = 0; node < nodeCount; node++) {
+            if (snapshotIds[node] != NO_SNAPSHOT) {
+                nodeBySnapshotId.put(snapshotIds[node], node);
+            }
+        }
+        var childByParentSnapshotId = new HashMap<Long, Integer>();
+        var forkedSnapshots = 0;
+        for (var node = 0; node < nodeCount; node++) {
+            if (snapshotIds[node] == NO_SNAPSHOT) {
+                continue;
+            }
+            var parentSnapshotId = parentSnapshotIds[node];
+            if (parentSnapshotId == NO_SNAPSHOT || !nodeBySnapshotId.containsKey(parentSnapshotId)) {
+                roots.add(node);
+                continue;
+            }
+            var otherChild = childByParentSnapshotId.putIfAbsent(parentSnapshotId, node);
+            if (otherChild != null) {
+                forkedSnapshots++;
+                addExample("forked snapshot " + parentSnapshotId + ": " + ids.get(otherChild) + ", " + ids.get(node));
+            }
+        }
+        var positionByNode = new int[nodeCount];
+        Arrays.fill(positionByNode, UNRESOLVED);
+        var nodeByPosition = new IntArrayList(nodeBySnapshotId.size());
+        for (var rootIndex = 0; rootIndex < roots.size(); rootIndex++) {
+            Integer node = roots.get(rootIndex);
+            while (node != null) {
+                positionByNode[node] = nodeByPosition.size();
+                nodeByPosition.add(node);
+                node = childByParentSnapshotId.get(snapshotIds[node]);
+            }
+        }
+        var disconnectedLineageSegments = Math.max(roots.size() - 1, 0);
+        if (disconnectedLineageSegments > 0) {
+            addExample("lineage has " + roots.size() + " first snapshots");
+        }
+
+        // Writers of every key, in commit order.
+        var keyCount = keyIds.size();
+        var writerOffsets = new int[keyCount + 1];
+        for (var position = 0; position < nodeByPosition.size(); position++) {
+            for (var keyId : writeKeyIds.get(nodeByPosition.get(position))) {
+                writerOffsets[keyId + 1]++;
+            }
+        }
+        for (var keyId = 0; keyId < keyCount; keyId++) {
+            writerOffsets[keyId + 1] += writerOffsets[keyId];
+        }
+        var writerPositions = new int[writerOffsets[keyCount]];
+        var writerCursors = Arrays.copyOf(writerOffsets, keyCount);
+        for (var position = 0; position < nodeByPosition.size(); position++) {
+            for (var keyId : writeKeyIds.get(nodeByPosition.get(position))) {
+                writerPositions[writerCursors[keyId]++] = position;
+            }
+        }
+
+        // Dependencies. A write at position p is ordered at 2p + 1, a read from position r at 2r + 2, right after the
+        // write it read from. Write-write and write-read dependencies always point forward in that order.
+        var order = new int[nodeCount];
+        var edgeSources = new IntArrayList(nodeCount * 4);
+        var edgeTargets = new IntArrayList(nodeCount * 4);
+        var edgeTypes = new IntArrayList(nodeCount * 4);
+        var unresolvedReadSnapshots = 0;
+        var transactions = 0;
+        var committedTransactions = 0;
+        var reads = 0;
+        var maintenanceCommits = 0;
+        for (var node = 0; node < nodeCount; node++) {
+            var type = types.get(node);
+            switch (type) {
+                case MAINTENANCE:
+                    maintenanceCommits++;
+                    order[node] = positionByNode[node] == UNRESOLVED ? UNRESOLVED : 2 * positionByNode[node] + 1;
+                    break;
+                case READ:
+                    reads++;
+                    break;
+                case WRITE:
+                    transactions++;
+                    var position = positionByNode[node];
+                    if (position == UNRESOLVED) {
+                        order[node] = UNRESOLVED;
+                        break;
+                    }
+                    committedTransactions++;
+                    order[node] = 2 * position + 1;
+                    for (var keyId : writeKeyIds.get(node)) {
+                        var index = Arrays.binarySearch(writerPositions, writerOffsets[keyId], writerOffsets[keyId + 1], position);
+                        if (index > writerOffsets[keyId]) {
+                            addEdge(edgeSources, edgeTargets, edgeTypes, nodeByPosition.get(writerPositions[index - 1]), node, WRITE_WRITE);
+                        }
+                    }
+                    var readPosition = resolveReadPosition(node, nodeBySnapshotId, positionByNode);
+                    if (readPosition == UNRESOLVED || readPosition >= position) {
+                        unresolvedReadSnapshots++;
+                        addExample("unresolved read snapshot " + readSnapshotIds[node] + " of " + ids.get(node));
+                        break;
+                    }
+                    for (var keyId : readKeyIds.get(node)) {
+                        addReadDependencies(edgeSources, edgeTargets, edgeTypes, node, keyId, readPosition, writerOffsets, writerPositions, nodeByPosition);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown history entry type: " + type);
+            }
+        }
+
+        // Snapshots spanned by a read-write dependency that points backward, from position u to position v. A read
+        // from position r is ordered in between when v <= r < u.
+        var spanningDependencies = new int[nodeByPosition.size() + 2];
+        for (var edge = 0; edge < edgeSources.size(); edge++) {
+            var source = edgeSources.get(edge);
+            var target = edgeTargets.get(edge);
+            if (edgeTypes.get(edge) == READ_WRITE && order[target] < order[source]) {
+                spanningDependencies[positionByNode[target] + 1]++;
+                spanningDependencies[positionByNode[source] + 1]--;
+            }
+        }
+        for (var index = 1; index < spanningDependencies.length; index++) {
+            spanningDependencies[index] += spanningDependencies[index - 1];
+        }
+        for (var node = 0; node < nodeCount; node++) {
+            if (types.get(node) != HistoryEntryType.READ) {
+                continue;
+            }
+            var readPosition = resolveReadPosition(node, nodeBySnapshotId, positionByNode);
+            if (readPosition == UNRESOLVED) {
+                unresolvedReadSnapshots++;
+                addExample("unresolved read snapshot " + readSnapshotIds[node] + " of " + ids.get(node));
+                order[node] = UNRESOLVED;
+                continue;
+            }
+            order[node] = 2 * readPosition + 2;
+            if (spanningDependencies[readPosition + 1] == 0) {
+                continue;
+            }
+            for (var keyId = 0; keyId < keyCount; keyId++) {
+                addReadDependencies(edgeSources, edgeTargets, edgeTypes, node, keyId, readPosition, writerOffsets, writerPositions, nodeByPosition);
+            }
+        }
+
+        // Adjacency lists in compressed sparse row format.
+        var edgeCount = edgeSources.size();
+        var outOffsets = new int[nodeCount + 1];
+        var dependencyCounts = new long[3];
+        for (var edge = 0; edge < edgeCount; edge++) {
+            outOffsets[edgeSources.get(edge) + 1]++;
+            dependencyCounts[edgeTypes.get(edge)]++;
+        }
+        for (var node = 0; node < nodeCount; node++) {
+            outOffsets[node + 1] += outOffsets[node];
+        }
+        var outTargets = new int[edgeCount];
+        var outTypes = new byte[edgeCount];
+        var outCursors = Arrays.copyOf(outOffsets, nodeCount);
+        for (var edge = 0; edge < edgeCount; edge++) {
+            var cursor = outCursors[edgeSources.get(edge)]++;
+            outTargets[cursor] = edgeTargets.get(edge);
+            outTypes[cursor] = (byte) edgeTypes.get(edge);
+        }
+
+        var components = new int[nodeCount];
+        var componentSizes = findStronglyConnectedComponents(nodeCount, outOffsets, outTargets, components);
+        var cycles = 0;
+        for (var component = 0; component < componentSizes.size(); component++) {
+            if (componentSizes.get(component) > 1) {
+                cycles++;
+            }
+        }
+        if (cycles > 0) {
+            addCycleExamples(nodeCount, components, componentSizes);
+        }
+        var singleAntiDependencyCycles = cycles == 0 ? 0
+                : countSingleAntiDependencyCycles(nodeCount, outOffsets, outTargets, outTypes, components, componentSizes, order);
+
+        var result = HistoryCheckResult.create(
+                transactions,
+                committedTransactions,
+                reads,
+                maintenanceCommits,
+                dependencyCounts[WRITE_WRITE],
+                dependencyCounts[WRITE_READ],
+                dependencyCounts[READ_WRITE],
+                forkedSnapshots,
+                disconnectedLineageSegments,
+                unresolvedReadSnapshots,
+                cycles,
+                singleAntiDependencyCycles,
+                List.copyOf(anomalyExamples),
+                System.currentTimeMillis() - timeBeforeCheck
+        );
+        log.info("Acid Verification history check serializable='{}' snapshotIsolation='{}' {}", result.isSerializable(), result.isSnapshotIsolation(), result);
+        return result;
+    }
+
+    private int resolveReadPosition(int node, Map<Long, Integer> nodeBySnapshotId, int[] positionByNode) {
+        var readSnapshotId = readSnapshotIds[node];
+        if (readSnapshotId == NO_SNAPSHOT) {
+            // Read the empty table, before the first commit.
+            return -1;
+        }
+        var readNode = nodeBySnapshotId.get(readSnapshotId);
+        return readNode == null ? UNRESOLVED : positionByNode[readNode];
+    }
+
+    /**
+     * Adds a write-read dependency on the writer that installed the version of the key that was read, and a read-write
+     * dependency to the writer that installed the next version.
+     */
+    private static void addReadDependencies(
+            IntArrayList edgeSources,
+            IntArrayList edgeTargets,
+            IntArrayList edgeTypes,
+            int node,
+            int keyId,
+            int readPosition,
+            int[] writerOffsets,
+            int[] writerPositions,
+            IntArrayList nodeByPosition
+    ) {
+        var from = writerOffsets[keyId];
+        var to = writerOffsets[keyId + 1];
+        var nextWriter = upperBound(writerPositions, from, to, readPosition);
+        if (nextWriter > from) {
+            var installer = nodeByPosition.get(writerPositions[nextWriter - 1]);
+            if (installer != node) {
+                addEdge(edgeSources, edgeTargets, edgeTypes, installer, node, WRITE_READ);
+            }
+        }
+        if (nextWriter < to) {
+            var overwriter = nodeByPosition.get(writerPositions[nextWriter]);
+            if (overwriter != node) {
+                addEdge(edgeSources, edgeTargets, edgeTypes, node, overwriter, READ_WRITE);
+            }
+        }
+    }
+
+    private static void addEdge(IntArrayList edgeSources, IntArrayList edgeTargets, IntArrayList edgeTypes, int source, int target, int type) {
+        edgeSources.add(source);
+        edgeTargets.add(target);
+        edgeTypes.add(type);
+    }
+
+    /**
+     * @return The index of the first value in the sorted range that is greater than the given value
+     */
+    private static int upperBound(int[] sortedValues, int from, int to, int value) {
+        var low = from;
+        var high = to;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (sortedValues[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Iterative version of Tarjan's algorithm, as the recursive version overflows the stack on long chains of
+     * dependencies.
+     *
+     * @return The size of every component, indexed by the component numbers stored in the given components array
+     */
+    static IntArrayList findStronglyConnectedComponents(int nodeCount, int[] outOffsets, int[] outTargets, int[] components) {
+        var indexes = new int[nodeCount];
+        Arrays.fill(indexes, -1);
+        var lowLinks = new int[nodeCount];
+        var onStack = new boolean[nodeCount];
+        var stack = new int[nodeCount];
+        var stackSize = 0;
+        var callStack = new int[nodeCount];
+        var edgeCursors = new int[nodeCount];
+        var componentSizes = new IntArrayList();
+        var nextIndex = 0;
+        for (var start = 0; start < nodeCount; start++) {
+            if (indexes[start] != -1) {
+                continue;
+            }
+            var callStackSize = 0;
+            callStack[callStackSize++] = start;
+            indexes[start] = lowLinks[start] = nextIndex++;
+            edgeCursors[start] = outOffsets[start];
+            stack[stackSize++] = start;
+            onStack[start] = true;
+            while (callStackSize > 0) {
+                var node = callStack[callStackSize - 1];
+                if (edgeCursors[node] < outOffsets[node + 1]) {
+                    var target = outTargets[edgeCursors[node]++];
+                    if (indexes[target] == -1) {
+                        indexes[target] = lowLinks[target] = nextIndex++;
+                        edgeCursors[target] = outOffsets[target];
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callStack[callStackSize++] = target;
+                    } else if (onStack[target]) {
+                        lowLinks[node] = Math.min(lowLinks[node], indexes[target]);
+                    }
+                    continue;
+                }
+                callStackSize--;
+                if (lowLinks[node] == indexes[node]) {
+                    var component = componentSizes.size();
+                    var componentSize = 0;
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = component;
+                        componentSize++;
+                    } while (member != node);
+                    componentSizes.add(componentSize);
+                }
+                if (callStackSize > 0) {
+                    var caller = callStack[callStackSize - 1];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[node]);
+                }
+            }
+        }
+        return componentSizes;
+    }
+
+    /**
+     * Counts the read-write dependencies u -> v of which v reaches u back through write-write and write-read
+     * dependencies only. Those dependencies point forward in the commit order, so the search from v doesn't need to go
+     * beyond the order of u, which keeps it within the window of concurrent transactions.
+     */
+    private int countSingleAntiDependencyCycles(
+            int nodeCount,
+            int[] outOffsets,
+            int[] outTargets,
+            byte[] outTypes,
+            int[] components,
+            IntArrayList componentSizes,
+            int[] order
+    ) {
+        var visitStamps = new int[nodeCount];
+        var stamp = 0;
+        var queue = new IntArrayList();
+        var singleAntiDependencyCycles = 0;
+        for (var source = 0; source < nodeCount; source++) {
+            if (componentSizes.get(components[source]) <= 1) {
+                continue;
+            }
+            for (var edge = outOffsets[source]; edge < outOffsets[source + 1]; edge++) {
+                var target = outTargets[edge];
+                if (outTypes[edge] != READ_WRITE || components[target] != components[source] || order[target] > order[source]) {
+                    continue;
+                }
+                stamp++;
+                queue.clear();
+                queue.add(target);
+                visitStamps[target] = stamp;
+                var closesCycle = false;
+                for (var head = 0; head < queue.size() && !closesCycle; head++) {
+                    var node = queue.get(head);
+                    for (var nextEdge = outOffsets[node]; nextEdge < outOffsets[node + 1]; nextEdge++) {
+                        var next = outTargets[nextEdge];
+                        if (outTypes[nextEdge] == READ_WRITE || visitStamps[next] == stamp || order[next] > order[source]) {
+                            continue;
+                        }
+                        if (next == source) {
+                            closesCycle = true;
+                            break;
+                        }
+                        visitStamps[next] = stamp;
+                        queue.add(next);
+                    }
+                }
+                if (closesCycle) {
+                    singleAntiDependencyCycles++;
+                    addExample("single anti-dependency cycle: " + ids.get(source) + " read a version overwritten by " + ids.get(target));
+                }
+            }
+        }
+        return singleAntiDependencyCycles;
+    }
+
+    private void addCycleExamples(int nodeCount, int[] components, IntArrayList componentSizes) {
+        var membersByComponent = new HashMap<Integer, List<String>>();
+        for (var node = 0; node < nodeCount && anomalyExamples.size() + membersByComponent.size() < MAXIMUM_NUMBER_OF_EXAMPLES; node++) {
+            var component = components[node];
+            if (componentSizes.get(component) > 1) {
+                var members = membersByComponent.computeIfAbsent(component, c -> new ArrayList<>());
+                if (members.size() < MAXIMUM_NUMBER_OF_IDS_PER_EXAMPLE) {
+                    members.add(ids.get(node));
+                }
+            }
+        }
+        membersByComponent.forEach((component, members) ->
+                addExample("cycle of " + componentSizes.get(component) + " transactions: " + members));
+    }
+
+    private void addExample(String example) {
+        if (anomalyExamples.size() < MAXIMUM_NUMBER_OF_EXAMPLES) {
+            anomalyExamples.add(example);
+        }
+    }
+
+    private int[] toKeyIds(List<String> keys) {
+        if (keys.isEmpty()) {
+            return NO_KEYS;
+        }
+        var result = new int[keys.size()];
+        for (var index = 0; index < result.length; index++) {
+            result[index] = keyIds.computeIfAbsent(keys.get(index), key -> keyIds.size());
+        }
+        return result;
+    }
+
+    private static long orNoSnapshot(Long snapshotId) {
+        return snapshotId == null ? NO_SNAPSHOT : snapshotId;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.history;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What a single transaction, read or maintenance commit did, in terms of Iceberg snapshots: the snapshot it read from,
+ * the snapshot it committed and the parent of that snapshot. Snapshot ids are null when they don't apply, like the
+ * committed snapshot of a read.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "create")
+public class HistoryEntry {
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String KEY_SEPARATOR = ",";
+    private static final String NULL_VALUE = "-";
+
+    private final HistoryEntryType type;
+    private final String id;
+    private final Long readSnapshotId;
+    private final Long snapshotId;
+    private final Long parentSnapshotId;
+    private final List<String> readKeys;
+    private final List<String> writeKeys;
+
+    String toLine() {
+        return String.join(FIELD_SEPARATOR,
+                type.name(),
+                id,
+                formatSnapshotId(readSnapshotId),
+                formatSnapshotId(snapshotId),
+                formatSnapshotId(parentSnapshotId),
+                String.join(KEY_SEPARATOR, readKeys),
+                String.join(KEY_SEPARATOR, writeKeys));
+    }
+
+    static HistoryEntry fromLine(String line) {
+        var fields = line.split(FIELD_SEPARATOR, -1);
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("Invalid history entry: " + line);
+        }
+        return create(
+                HistoryEntryType.valueOf(fields[0]),
+                fields[1],
+                parseSnapshotId(fields[2]),
+                parseSnapshotId(fields[3]),
+                parseSnapshotId(fields[4]),
+                parseKeys(fields[5]),
+                parseKeys(fields[6]));
+    }
+
+    private static String formatSnapshotId(Long snapshotId) {
+        return snapshotId == null ? NULL_VALUE : snapshotId.toString();
+    }
+
+    private static Long parseSnapshotId(String field) {
+        return NULL_VALUE.equals(field) ? null : Long.valueOf(field);
+    }
+
+    private static List<String> parseKeys(String field) {
+        return field.isEmpty() ? List.of() : Arrays.asList(field.split(KEY_SEPARATOR));
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.history;
+
+public enum HistoryEntryType {
+    /**
+     * A transaction of a writer, reading and writing the keys of its data manipulations.
+     */
+    WRITE,
+    /**
+     * An iteration of a reader, reading all keys of the table.
+     */
+    READ,
+    /**
+     * A commit of a maintenance action, which doesn't change the contents of the table.
+     */
+    MAINTENANCE
+}
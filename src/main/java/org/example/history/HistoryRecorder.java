@@ -0,0 +1,113 @@
+package org.example.history;
+
+import org.apache.iceberg.DataOperations;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.metrics.CommitReport;
+import org.example.metrics.MetricsScope;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes the {@link HistoryEntry}s of a run to a file, one line per entry, so the history can be checked by the
+ * {@link HistoryChecker} after the run.
+ * <p>
+ * The snapshot ids are taken from the Iceberg metrics reports collected in the {@link MetricsScope} of the operation.
+ * The parent of a committed snapshot isn't part of the commit report, so it is looked up in the table metadata.
+ * Maintenance actions don't report all of their commits, so those are found in the lineage of the table instead.
+ */
+public class HistoryRecorder implements AutoCloseable {
+    private final BufferedWriter writer;
+    private final Set<Long> recordedMaintenanceSnapshotIds = new HashSet<>();
+
+    public HistoryRecorder(Path historyFile) {
+        try {
+            this.writer = Files.newBufferedWriter(historyFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create history file " + historyFile, e);
+        }
+    }
+
+    /**
+     * Records a transaction of a writer. The last scan of the scope is the scan of the attempt that succeeded. Without a
+     * scan, like for a metadata-only delete, the transaction read the parent of its snapshot while committing.
+     */
+    public void recordWrite(String transactionId, MetricsScope metricsScope, Table table, List<String> readKeys, List<String> writeKeys) {
+        var commitReport = lastCommitReport(metricsScope);
+        var snapshotId = commitReport == null ? null : commitReport.snapshotId();
+        var parentSnapshotId = parentSnapshotId(table, snapshotId);
+        var readSnapshotId = metricsScope.getLastScannedSnapshotId();
+        if (readSnapshotId == null && !readKeys.isEmpty()) {
+            readSnapshotId = parentSnapshotId;
+        }
+        record(HistoryEntry.create(HistoryEntryType.WRITE, transactionId, readSnapshotId, snapshotId, parentSnapshotId, readKeys, writeKeys));
+    }
+
+    /**
+     * Records an iteration of a reader, which read all keys of the table.
+     */
+    public void recordRead(MetricsScope metricsScope) {
+        record(HistoryEntry.create(HistoryEntryType.READ, metricsScope.getLabel(), metricsScope.getLastScannedSnapshotId(), null, null, List.of(), List.of()));
+    }
+
+    /**
+     * Records the commits of maintenance actions since the given snapshot, to keep the lineage of the snapshots
+     * complete. Maintenance commits are the only ones that replace files without changing the contents of the table.
+     */
+    public void recordMaintenance(String label, Table table, Long snapshotIdBefore) {
+        table.refresh();
+        var snapshot = table.currentSnapshot();
+        while (snapshot != null && !Objects.equals(snapshot.snapshotId(), snapshotIdBefore)) {
+            if (DataOperations.REPLACE.equals(snapshot.operation()) && markMaintenanceSnapshotRecorded(snapshot.snapshotId())) {
+                record(HistoryEntry.create(HistoryEntryType.MAINTENANCE, label, null, snapshot.snapshotId(), snapshot.parentId(), List.of(), List.of()));
+            }
+            snapshot = snapshot.parentId() == null ? null : table.snapshot(snapshot.parentId());
+        }
+    }
+
+    private synchronized boolean markMaintenanceSnapshotRecorded(long snapshotId) {
+        return recordedMaintenanceSnapshotIds.add(snapshotId);
+    }
+
+    public synchronized void record(HistoryEntry historyEntry) {
+        try {
+            writer.write(historyEntry.toLine());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to record history entry " + historyEntry, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close history file", e);
+        }
+    }
+
+    private static CommitReport lastCommitReport(MetricsScope metricsScope) {
+        var commitReports = metricsScope.getCommitReports();
+        return commitReports.isEmpty() ? null : commitReports.get(commitReports.size() - 1);
+    }
+
+    private static Long parentSnapshotId(Table table, Long snapshotId) {
+        if (snapshotId == null) {
+            return null;
+        }
+        var snapshot = table.snapshot(snapshotId);
+        if (snapshot == null) {
+            table.refresh();
+            snapshot = table.snapshot(snapshotId);
+        }
+        return snapshot == null ? null : snapshot.parentId();
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.maintenance;
+
+/**
+ * Iceberg table maintenance actions that can run concurrently with the writers and readers.
+ */
+public enum MaintenanceAction {
+    REWRITE_DATA_FILES, REWRITE_POSITION_DELETES, EXPIRE_SNAPSHOTS, REWRITE_MANIFESTS
+}
@@ -0,0 +1,192 @@
+package org.example.maintenance;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.SnapshotSummary;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.iceberg.spark.actions.SparkActions;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.history.HistoryRecorder;
+import org.example.metrics.IcebergMetrics;
+import org.example.metrics.MaintenanceActionEvent;
+import org.example.metrics.MetricsScope;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs Iceberg table maintenance actions concurrently with the writers and readers, either on a fixed interval or as
+ * soon as the number of data files in the table reaches a threshold. Compaction can't always bring the number of data
+ * files back below the threshold, so it only starts a round early when the data files grew since the last round.
+ * <p>
+ * Maintenance actions can fail because of conflicting commits of the writers. That is expected under load, so failed
+ * actions are counted and retried on the next round instead of failing the run.
+ */
+@Slf4j
+public class MaintenanceThread extends Thread {
+    private static final long POLL_INTERVAL_IN_MILLIS = 500;
+
+    private final SparkSession session;
+    private final String fullyQualifiedTableName;
+    private final AtomicBoolean stopMaintenance;
+    private final Set<MaintenanceAction> maintenanceActions;
+    private final long maintenanceIntervalInMillis;
+    private final int dataFileThreshold;
+    private final long snapshotRetentionInMillis;
+    private final IcebergMetrics icebergMetrics;
+    private final HistoryRecorder historyRecorder;
+
+    @Getter
+    private int performedActions;
+
+    @Getter
+    private int failedActions;
+
+    @Getter
+    private Exception maintenanceException;
+
+    /**
+     * @param maintenanceIntervalInMillis   Time between two maintenance rounds
+     * @param dataFileThreshold             Number of data files in the table that triggers a maintenance round before
+     *                                      the interval elapsed, or 0 to only run on the interval
+     * @param snapshotRetentionInMillis     Minimum age of the snapshots that are expired
+     */
+    public MaintenanceThread(
+            SparkSession session,
+            String fullyQualifiedTableName,
+            AtomicBoolean stopMaintenance,
+            Set<MaintenanceAction> maintenanceActions,
+            long maintenanceIntervalInMillis,
+            int dataFileThreshold,
+            long snapshotRetentionInMillis,
+            IcebergMetrics icebergMetrics,
+            HistoryRecorder historyRecorder
+    ) {
+        this.session = session;
+        this.fullyQualifiedTableName = fullyQualifiedTableName;
+        this.stopMaintenance = stopMaintenance;
+        this.maintenanceActions = maintenanceActions;
+        this.maintenanceIntervalInMillis = maintenanceIntervalInMillis;
+        this.dataFileThreshold = dataFileThreshold;
+        this.snapshotRetentionInMillis = snapshotRetentionInMillis;
+        this.icebergMetrics = icebergMetrics;
+        this.historyRecorder = historyRecorder;
+    }
+
+    @Override
+    public void run() {
+        log.info("{} started.", getName());
+        try {
+            var timeOfLastRound = System.currentTimeMillis();
+            var dataFilesAfterLastRound = 0;
+            while (!stopMaintenance.get()) {
+                Thread.sleep(POLL_INTERVAL_IN_MILLIS);
+                var table = loadTable();
+                if (isMaintenanceDue(table, timeOfLastRound, dataFilesAfterLastRound)) {
+                    performMaintenance(table);
+                    timeOfLastRound = System.currentTimeMillis();
+                    dataFilesAfterLastRound = getTotalDataFiles(loadTable());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Exception in maintenance.", e);
+            maintenanceException = e;
+        }
+        log.info("{} finished.", getName());
+    }
+
+    private Table loadTable() throws ParseException, NoSuchTableException {
+        return Spark3Util.loadIcebergTable(session, fullyQualifiedTableName);
+    }
+
+    private boolean isMaintenanceDue(Table table, long timeOfLastRound, int dataFilesAfterLastRound) {
+        if (System.currentTimeMillis() - timeOfLastRound >= maintenanceIntervalInMillis) {
+            return true;
+        }
+        if (dataFileThreshold <= 0) {
+            return false;
+        }
+        var totalDataFiles = getTotalDataFiles(table);
+        return totalDataFiles >= dataFileThreshold && totalDataFiles > dataFilesAfterLastRound;
+    }
+
+    private static int getTotalDataFiles(Table table) {
+        var currentSnapshot = table.currentSnapshot();
+        if (currentSnapshot == null) {
+            return 0;
+        }
+        return Integer.parseInt(currentSnapshot.summary().getOrDefault(SnapshotSummary.TOTAL_DATA_FILES_PROP, "0"));
+    }
+
+    private void performMaintenance(Table table) {
+        for (var maintenanceAction : maintenanceActions) {
+            if (stopMaintenance.get()) {
+                return;
+            }
+            var event = new MaintenanceActionEvent();
+            event.begin();
+            var timeBeforeAction = System.currentTimeMillis();
+            var succeeded = false;
+            var snapshotBefore = table.currentSnapshot();
+            try (var metricsScope = MetricsScope.open("maintenance=" + maintenanceAction, icebergMetrics)) {
+                try {
+                    performMaintenanceAction(maintenanceAction, table);
+                } finally {
+                    // Also record the commits of an action that failed halfway, to keep the lineage complete.
+                    if (historyRecorder != null) {
+                        historyRecorder.recordMaintenance(metricsScope.getLabel(), table, snapshotBefore == null ? null : snapshotBefore.snapshotId());
+                    }
+                }
+                succeeded = true;
+                performedActions++;
+            } catch (RuntimeException e) {
+                log.warn("Maintenance action {} failed.", maintenanceAction, e);
+                failedActions++;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.action = maintenanceAction.name();
+                event.succeeded = succeeded;
+                event.commit();
+            }
+            log.info(
+                    "Acid Verification threadType='maintenance' action={} succeeded='{}' duration={}",
+                    maintenanceAction,
+                    succeeded,
+                    System.currentTimeMillis() - timeBeforeAction
+            );
+            table.refresh();
+        }
+    }
+
+    private void performMaintenanceAction(MaintenanceAction maintenanceAction, Table table) {
+        var actions = SparkActions.get(session);
+        switch (maintenanceAction) {
+            case REWRITE_DATA_FILES:
+                actions.rewriteDataFiles(table)
+                        .option("min-input-files", "2")
+                        .execute();
+                break;
+            case REWRITE_POSITION_DELETES:
+                actions.rewritePositionDeletes(table)
+                        .option("min-input-files", "2")
+                        .execute();
+                break;
+            case EXPIRE_SNAPSHOTS:
+                actions.expireSnapshots(table)
+                        .expireOlderThan(System.currentTimeMillis() - snapshotRetentionInMillis)
+                        .retainLast(1)
+                        .execute();
+                break;
+            case REWRITE_MANIFESTS:
+                actions.rewriteManifests(table)
+                        .execute();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown maintenance action: " + maintenanceAction);
+        }
+    }
+}
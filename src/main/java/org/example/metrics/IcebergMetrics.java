@@ -0,0 +1,158 @@
+package org.example.metrics;
+
+import lombok.ToString;
+import org.apache.iceberg.metrics.CommitReport;
+import org.apache.iceberg.metrics.CounterResult;
+import org.apache.iceberg.metrics.ScanReport;
+import org.apache.iceberg.metrics.TimerResult;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregation of the Iceberg scan and commit reports of a run.
+ */
+@ToString
+public class IcebergMetrics implements Serializable {
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder scanPlanningDurationInMillis = new LongAdder();
+    private final LongAdder scannedDataManifests = new LongAdder();
+    private final LongAdder skippedDataManifests = new LongAdder();
+    private final LongAdder scannedDataFiles = new LongAdder();
+    private final LongAdder scannedDeleteFiles = new LongAdder();
+    private final LongAdder scannedFileSizeInBytes = new LongAdder();
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder commitAttempts = new LongAdder();
+    private final LongAdder commitDurationInMillis = new LongAdder();
+    private final LongAdder addedDataFiles = new LongAdder();
+    private final LongAdder removedDataFiles = new LongAdder();
+    private final LongAdder addedDeleteFiles = new LongAdder();
+    private final LongAdder removedDeleteFiles = new LongAdder();
+    private final LongAdder addedFileSizeInBytes = new LongAdder();
+    private final LongAdder removedFileSizeInBytes = new LongAdder();
+
+    void add(ScanReport scanReport) {
+        var scanMetrics = scanReport.scanMetrics();
+        scans.increment();
+        scanPlanningDurationInMillis.add(durationInMillis(scanMetrics.totalPlanningDuration()));
+        scannedDataManifests.add(valueOf(scanMetrics.scannedDataManifests()));
+        skippedDataManifests.add(valueOf(scanMetrics.skippedDataManifests()));
+        scannedDataFiles.add(valueOf(scanMetrics.resultDataFiles()));
+        scannedDeleteFiles.add(valueOf(scanMetrics.resultDeleteFiles()));
+        scannedFileSizeInBytes.add(valueOf(scanMetrics.totalFileSizeInBytes()) + valueOf(scanMetrics.totalDeleteFileSizeInBytes()));
+    }
+
+    void add(CommitReport commitReport) {
+        var commitMetrics = commitReport.commitMetrics();
+        commits.increment();
+        commitAttempts.add(valueOf(commitMetrics.attempts()));
+        commitDurationInMillis.add(durationInMillis(commitMetrics.totalDuration()));
+        addedDataFiles.add(valueOf(commitMetrics.addedDataFiles()));
+        removedDataFiles.add(valueOf(commitMetrics.removedDataFiles()));
+        addedDeleteFiles.add(valueOf(commitMetrics.addedDeleteFiles()));
+        removedDeleteFiles.add(valueOf(commitMetrics.removedDeleteFiles()));
+        addedFileSizeInBytes.add(valueOf(commitMetrics.addedFilesSizeInBytes()));
+        removedFileSizeInBytes.add(valueOf(commitMetrics.removedFilesSizeInBytes()));
+    }
+
+    public long getScans() {
+        return scans.sum();
+    }
+
+    public long getScanPlanningDurationInMillis() {
+        return scanPlanningDurationInMillis.sum();
+    }
+
+    public long getScannedDataManifests() {
+        return scannedDataManifests.sum();
+    }
+
+    public long getSkippedDataManifests() {
+        return skippedDataManifests.sum();
+    }
+
+    public long getScannedDataFiles() {
+        return scannedDataFiles.sum();
+    }
+
+    public long getScannedDeleteFiles() {
+        return scannedDeleteFiles.sum();
+    }
+
+    /**
+     * @return The size of the data and delete files planned by the scans
+     */
+    public long getScannedFileSizeInBytes() {
+        return scannedFileSizeInBytes.sum();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getCommitAttempts() {
+        return commitAttempts.sum();
+    }
+
+    public long getCommitDurationInMillis() {
+        return commitDurationInMillis.sum();
+    }
+
+    public long getAddedDataFiles() {
+        return addedDataFiles.sum();
+    }
+
+    public long getRemovedDataFiles() {
+        return removedDataFiles.sum();
+    }
+
+    public long getAddedDeleteFiles() {
+        return addedDeleteFiles.sum();
+    }
+
+    public long getRemovedDeleteFiles() {
+        return removedDeleteFiles.sum();
+    }
+
+    /**
+     * @return The size of the data and delete files added by the commits
+     */
+    public long getAddedFileSizeInBytes() {
+        return addedFileSizeInBytes.sum();
+    }
+
+    /**
+     * @return The size of the data and delete files removed by the commits
+     */
+    public long getRemovedFileSizeInBytes() {
+        return removedFileSizeInBytes.sum();
+    }
+
+    /**
+     * @return The average number of data and delete files added per commit
+     */
+    public double getAddedFilesPerCommit() {
+        var commitCount = getCommits();
+        return commitCount == 0 ? 0 : (double) (getAddedDataFiles() + getAddedDeleteFiles()) / commitCount;
+    }
+
+    /**
+     * @return The average number of data and delete files planned per scan, which the file layout of the commits drives
+     */
+    public double getScannedFilesPerScan() {
+        var scanCount = getScans();
+        return scanCount == 0 ? 0 : (double) (getScannedDataFiles() + getScannedDeleteFiles()) / scanCount;
+    }
+
+    /**
+     * Iceberg leaves counters and timers out of a report when nothing was counted or timed.
+     */
+    static long valueOf(CounterResult counterResult) {
+        return counterResult == null ? 0 : counterResult.value();
+    }
+
+    static long durationInMillis(TimerResult timerResult) {
+        return timerResult == null ? 0 : timerResult.totalDuration().toMillis();
+    }
+}
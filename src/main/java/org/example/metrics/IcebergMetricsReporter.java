@@ -0,0 +1,17 @@
+package org.example.metrics;
+
+import org.apache.iceberg.metrics.MetricsReport;
+import org.apache.iceberg.metrics.MetricsReporter;
+
+/**
+ * {@link MetricsReporter} to be registered on the Iceberg catalog with the {@code metrics-reporter-impl} catalog
+ * property. Iceberg reports synchronously on the thread that plans the scan or performs the commit, so every report is
+ * handed to the {@link MetricsScope} that is open on the current thread. Reports outside a scope are ignored.
+ */
+public class IcebergMetricsReporter implements MetricsReporter {
+
+    @Override
+    public void report(MetricsReport report) {
+        MetricsScope.current().ifPresent(scope -> scope.record(report));
+    }
+}
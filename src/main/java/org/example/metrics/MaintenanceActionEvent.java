@@ -0,0 +1,20 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning a table maintenance action.
+ */
+@Name("org.example.MaintenanceAction")
+@Label("Maintenance Action")
+@Category("ACID Verification")
+public class MaintenanceActionEvent extends Event {
+    @Label("Action")
+    public String action;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,115 @@
+package org.example.metrics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.metrics.CommitReport;
+import org.apache.iceberg.metrics.MetricsReport;
+import org.apache.iceberg.metrics.ScanReport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Ties the Iceberg metrics reports created on the current thread to an operation of the verification, like a
+ * transaction of a writer or an iteration of a reader. The reports are collected in the scope and aggregated in the
+ * {@link IcebergMetrics} of the run.
+ */
+@Slf4j
+public class MetricsScope implements AutoCloseable {
+    private static final ThreadLocal<MetricsScope> CURRENT_SCOPE = new ThreadLocal<>();
+
+    @Getter
+    private final String label;
+    private final IcebergMetrics icebergMetrics;
+    private final MetricsScope previousScope;
+    @Getter
+    private final List<ScanReport> scanReports = new ArrayList<>();
+    @Getter
+    private final List<CommitReport> commitReports = new ArrayList<>();
+
+    private MetricsScope(String label, IcebergMetrics icebergMetrics, MetricsScope previousScope) {
+        this.label = label;
+        this.icebergMetrics = icebergMetrics;
+        this.previousScope = previousScope;
+    }
+
+    public static MetricsScope open(String label, IcebergMetrics icebergMetrics) {
+        var scope = new MetricsScope(label, icebergMetrics, CURRENT_SCOPE.get());
+        CURRENT_SCOPE.set(scope);
+        return scope;
+    }
+
+    /**
+     * Runs an operation in a scope of its own, for operations whose reports are only aggregated.
+     *
+     * @return The result of the operation
+     */
+    public static <T> T run(String label, IcebergMetrics icebergMetrics, Supplier<T> operation) {
+        var scope = open(label, icebergMetrics);
+        try {
+            return operation.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * @return The snapshot of the last scan in this scope, or null without scans
+     */
+    public Long getLastScannedSnapshotId() {
+        return scanReports.isEmpty() ? null : scanReports.get(scanReports.size() - 1).snapshotId();
+    }
+
+    static Optional<MetricsScope> current() {
+        return Optional.ofNullable(CURRENT_SCOPE.get());
+    }
+
+    void record(MetricsReport report) {
+        if (report instanceof ScanReport) {
+            var scanReport = (ScanReport) report;
+            scanReports.add(scanReport);
+            icebergMetrics.add(scanReport);
+            var scanMetrics = scanReport.scanMetrics();
+            log.info(
+                    "Acid Verification metricsType='scan' context='{}' snapshotId={} planningDuration={} scannedDataManifests={} skippedDataManifests={} resultDataFiles={} resultDeleteFiles={}",
+                    label,
+                    scanReport.snapshotId(),
+                    IcebergMetrics.durationInMillis(scanMetrics.totalPlanningDuration()),
+                    IcebergMetrics.valueOf(scanMetrics.scannedDataManifests()),
+                    IcebergMetrics.valueOf(scanMetrics.skippedDataManifests()),
+                    IcebergMetrics.valueOf(scanMetrics.resultDataFiles()),
+                    IcebergMetrics.valueOf(scanMetrics.resultDeleteFiles())
+            );
+        } else if (report instanceof CommitReport) {
+            var commitReport = (CommitReport) report;
+            commitReports.add(commitReport);
+            icebergMetrics.add(commitReport);
+            var commitMetrics = commitReport.commitMetrics();
+            log.info(
+                    "Acid Verification metricsType='commit' context='{}' snapshotId={} operation={} duration={} attempts={} addedDataFiles={} removedDataFiles={} addedDeleteFiles={} removedDeleteFiles={} addedFileSize={} removedFileSize={}",
+                    label,
+                    commitReport.snapshotId(),
+                    commitReport.operation(),
+                    IcebergMetrics.durationInMillis(commitMetrics.totalDuration()),
+                    IcebergMetrics.valueOf(commitMetrics.attempts()),
+                    IcebergMetrics.valueOf(commitMetrics.addedDataFiles()),
+                    IcebergMetrics.valueOf(commitMetrics.removedDataFiles()),
+                    IcebergMetrics.valueOf(commitMetrics.addedDeleteFiles()),
+                    IcebergMetrics.valueOf(commitMetrics.removedDeleteFiles()),
+                    IcebergMetrics.valueOf(commitMetrics.addedFilesSizeInBytes()),
+                    IcebergMetrics.valueOf(commitMetrics.removedFilesSizeInBytes())
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        if (previousScope == null) {
+            CURRENT_SCOPE.remove();
+        } else {
+            CURRENT_SCOPE.set(previousScope);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event spanning the verification of a read result set: building the expectations from the transaction
+ * log and checking them against the result set. The span also covers the reads of the aggregates and linked tables in
+ * between, which the {@link TableScanEvent} reports, so the durations of both steps are reported separately.
+ */
+@Name("org.example.ResultSetVerification")
+@Label("Result Set Verification")
+@Category("ACID Verification")
+public class ResultSetVerificationEvent extends Event {
+    @Label("Iteration")
+    public int iteration;
+
+    @Label("Window Size")
+    @Description("Number of transaction log events added while the table was read")
+    public int windowSize;
+
+    @Label("Result Set Size")
+    public int resultSetSize;
+
+    @Label("Expectation Build Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long expectationBuildDuration;
+
+    @Label("Verify Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long verifyDuration;
+
+    @Label("Satisfied")
+    public boolean satisfied;
+}
@@ -0,0 +1,28 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event spanning the read of the table by a reader. The aggregates and linked tables the verification
+ * needs are read after the expectations are built, so their reads are part of the scan by duration only.
+ */
+@Name("org.example.TableScan")
+@Label("Table Scan")
+@Category("ACID Verification")
+public class TableScanEvent extends Event {
+    @Label("Iteration")
+    public int iteration;
+
+    @Label("Result Set Size")
+    public int resultSetSize;
+
+    @Label("Aggregate Read Duration")
+    @Description("Time spent reading the bulk insert and baseline aggregates and the linked tables")
+    @Timespan(Timespan.NANOSECONDS)
+    public long aggregateReadDuration;
+}
@@ -0,0 +1,63 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.apache.iceberg.metrics.CommitMetricsResult;
+
+/**
+ * Flight recorder event spanning the commit of a transaction by a writer, including its retries.
+ */
+@Name("org.example.TransactionCommit")
+@Label("Transaction Commit")
+@Category("ACID Verification")
+public class TransactionCommitEvent extends Event {
+    @Label("Transaction Id")
+    public String transactionId;
+
+    @Label("Manipulation Type")
+    public String manipulationType;
+
+    @Label("Key Count")
+    @Description("Number of records manipulated by the transaction")
+    public long keyCount;
+
+    @Label("Attempts")
+    @Description("Number of times the transaction was executed before it was committed")
+    public int attempts;
+
+    @Label("Added Data Files")
+    public long addedDataFiles;
+
+    @Label("Removed Data Files")
+    public long removedDataFiles;
+
+    @Label("Added Delete Files")
+    public long addedDeleteFiles;
+
+    @Label("Removed Delete Files")
+    public long removedDeleteFiles;
+
+    @Label("Added File Size")
+    @DataAmount
+    public long addedFileSizeInBytes;
+
+    @Label("Removed File Size")
+    @DataAmount
+    public long removedFileSizeInBytes;
+
+    /**
+     * Copies the file counts and sizes of the snapshot summary of the commit.
+     */
+    public void setCommitMetrics(CommitMetricsResult commitMetrics) {
+        addedDataFiles = IcebergMetrics.valueOf(commitMetrics.addedDataFiles());
+        removedDataFiles = IcebergMetrics.valueOf(commitMetrics.removedDataFiles());
+        addedDeleteFiles = IcebergMetrics.valueOf(commitMetrics.addedDeleteFiles());
+        removedDeleteFiles = IcebergMetrics.valueOf(commitMetrics.removedDeleteFiles());
+        addedFileSizeInBytes = IcebergMetrics.valueOf(commitMetrics.addedFilesSizeInBytes());
+        removedFileSizeInBytes = IcebergMetrics.valueOf(commitMetrics.removedFilesSizeInBytes());
+    }
+}
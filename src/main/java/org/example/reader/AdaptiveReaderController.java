@@ -0,0 +1,145 @@
+package org.example.reader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Paces the reader threads of a run, so that the window of a read, the transactions logged while it scanned the table,
+ * stays around a target size. A larger window makes the expectations of a read weaker and more expensive to build.
+ * <p>
+ * The window of a read grows with its scan duration, and concurrent scans slow each other down. So the controller
+ * tunes how many scans overlap, with two knobs: the minimum time between the starts of two reads of any reader, and
+ * the number of readers that are active. Over the target, it first spaces the reads further apart, and once they no
+ * longer overlap, it deactivates a reader. Under the target, it does the opposite, to get the most reads out of the
+ * cluster. A reader is only activated while the verification of a read takes less time than its scan, as more
+ * readers don't give more reads when the verification is the bottleneck.
+ * <p>
+ * The smoothed window size, scan duration and verification duration are reevaluated after every round of reads of
+ * the active readers.
+ */
+@Slf4j
+public class AdaptiveReaderController {
+    private static final double SMOOTHING = 0.3;
+    private static final long READ_SPACING_STEP_IN_MILLIS = 100;
+    private static final long MAXIMUM_READ_SPACING_IN_MILLIS = 10_000;
+    private static final long POLL_INTERVAL_IN_MILLIS = 500;
+
+    private final int targetWindowSize;
+    private final int maximumNumberOfReaders;
+    private final long startTime;
+    private int registeredReaders;
+    private int activeReaders;
+    private long readSpacingInMillis;
+    private long nextReadStartTime;
+    private double smoothedWindowSize = -1;
+    private double smoothedScanDuration;
+    private double smoothedVerificationDuration;
+    private int readsSinceAdjustment;
+    private long reads;
+    private long totalWindowSize;
+    private long readsOverTarget;
+    private int adjustments;
+
+    public AdaptiveReaderController(int targetWindowSize, int maximumNumberOfReaders) {
+        this.targetWindowSize = targetWindowSize;
+        this.maximumNumberOfReaders = maximumNumberOfReaders;
+        this.activeReaders = maximumNumberOfReaders;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return The slot of the reader, readers with a slot from the number of active readers on wait
+     */
+    public synchronized int register() {
+        return registeredReaders++;
+    }
+
+    /**
+     * Blocks while the reader is inactive, and until the spacing after the start of the previous read passed.
+     *
+     * @return Whether the reader may read, false when it was stopped while it waited
+     */
+    public boolean awaitTurn(int slot, AtomicBoolean stopReader) throws InterruptedException {
+        long readStartTime;
+        synchronized (this) {
+            while (slot >= activeReaders) {
+                if (stopReader.get()) {
+                    return false;
+                }
+                wait(POLL_INTERVAL_IN_MILLIS);
+            }
+            readStartTime = Math.max(System.currentTimeMillis(), nextReadStartTime);
+            nextReadStartTime = readStartTime + readSpacingInMillis;
+        }
+        var delay = readStartTime - System.currentTimeMillis();
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+        return !stopReader.get();
+    }
+
+    public synchronized void recordRead(int windowSize, long scanDurationInMillis, long verificationDurationInMillis) {
+        reads++;
+        totalWindowSize += windowSize;
+        if (windowSize > targetWindowSize) {
+            readsOverTarget++;
+        }
+        if (smoothedWindowSize < 0) {
+            smoothedWindowSize = windowSize;
+            smoothedScanDuration = scanDurationInMillis;
+            smoothedVerificationDuration = verificationDurationInMillis;
+        } else {
+            smoothedWindowSize += SMOOTHING * (windowSize - smoothedWindowSize);
+            smoothedScanDuration += SMOOTHING * (scanDurationInMillis - smoothedScanDuration);
+            smoothedVerificationDuration += SMOOTHING * (verificationDurationInMillis - smoothedVerificationDuration);
+        }
+        if (++readsSinceAdjustment >= activeReaders) {
+            readsSinceAdjustment = 0;
+            adjust();
+        }
+    }
+
+    public synchronized AdaptiveReaderReport createReport() {
+        var durationInSeconds = Math.max(1, System.currentTimeMillis() - startTime) / 1000.0;
+        return AdaptiveReaderReport.create(
+                targetWindowSize,
+                reads,
+                reads / durationInSeconds,
+                reads == 0 ? 0 : (double) totalWindowSize / reads,
+                readsOverTarget,
+                activeReaders,
+                readSpacingInMillis,
+                adjustments
+        );
+    }
+
+    private void adjust() {
+        if (smoothedWindowSize > targetWindowSize) {
+            if (readSpacingInMillis < smoothedScanDuration && readSpacingInMillis < MAXIMUM_READ_SPACING_IN_MILLIS) {
+                readSpacingInMillis = Math.min(MAXIMUM_READ_SPACING_IN_MILLIS, Math.max(READ_SPACING_STEP_IN_MILLIS, readSpacingInMillis * 2));
+            } else if (activeReaders > 1) {
+                activeReaders--;
+            } else {
+                // A single read at a time already exceeds the target, only faster scans can help
+                return;
+            }
+        } else if (readSpacingInMillis > 0) {
+            readSpacingInMillis = Math.max(0, readSpacingInMillis - READ_SPACING_STEP_IN_MILLIS);
+        } else if (activeReaders < maximumNumberOfReaders && smoothedVerificationDuration < smoothedScanDuration) {
+            activeReaders++;
+            notifyAll();
+        } else {
+            return;
+        }
+        adjustments++;
+        log.info(
+                "Acid Verification threadType='readerController' activeReaders={} readSpacing={} windowSize={} scanDuration={} verificationDuration={}",
+                activeReaders,
+                readSpacingInMillis,
+                Math.round(smoothedWindowSize),
+                Math.round(smoothedScanDuration),
+                Math.round(smoothedVerificationDuration)
+        );
+    }
+}
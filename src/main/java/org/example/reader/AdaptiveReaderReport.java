@@ -0,0 +1,25 @@
+package org.example.reader;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of the {@link AdaptiveReaderController} for a run.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class AdaptiveReaderReport {
+    private final int targetWindowSize;
+    private final long reads;
+    private final double readsPerSecond;
+    private final double meanWindowSize;
+    /**
+     * Reads of which the window was larger than the target.
+     */
+    private final long readsOverTarget;
+    private final int activeReaders;
+    private final long readSpacingInMillis;
+    private final int adjustments;
+}
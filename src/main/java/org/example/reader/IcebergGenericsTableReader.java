@@ -0,0 +1,132 @@
+package org.example.reader;
+
+import org.apache.iceberg.Table;
+import org.apache.iceberg.data.IcebergGenerics;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.resultset.Record;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.BulkInsertSpec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads the table with Iceberg's generic readers, which plan the scan, read the data files and apply the delete files
+ * on the driver, without scheduling Spark jobs. The table is loaded from the Spark catalog once and refreshed before
+ * every read. The aggregates are computed on the driver as well.
+ */
+public class IcebergGenericsTableReader implements TableReader {
+    private static final String PRIMARY_KEY_VALUE = "primaryKeyValue";
+
+    private final SparkSession session;
+    private final String fullyQualifiedTableName;
+    private Table table;
+
+    public IcebergGenericsTableReader(SparkSession session, String fullyQualifiedTableName) {
+        this.session = session;
+        this.fullyQualifiedTableName = fullyQualifiedTableName;
+    }
+
+    @Override
+    public ResultSet readRecords() {
+        var currentTable = loadTable();
+        currentTable.refresh();
+        var snapshot = currentTable.currentSnapshot();
+        return snapshot == null ? new ResultSet(new ArrayList<>()) : readRecords(snapshot.snapshotId());
+    }
+
+    @Override
+    public ResultSet readRecords(long snapshotId) {
+        var records = new ArrayList<Record>();
+        forEachRecord(snapshotId, Expressions.notStartsWith(PRIMARY_KEY_VALUE, BulkInsertSpec.KEY_PREFIX), record -> {
+            if (!BulkInsertSpec.isBulkInsertKey(record.getPrimaryKeyValue()) && !BaselineSpec.hasBaselineValue(record.getPrimaryKeyValue(), record.getDataValue())) {
+                records.add(record);
+            }
+        });
+        return new ResultSet(records);
+    }
+
+    @Override
+    public Map<String, BulkInsertAggregate> readBulkInsertAggregates(long snapshotId) {
+        var numberOfRecordsByBulkInsertKey = new HashMap<String, Long>();
+        var checksumByBulkInsertKey = new HashMap<String, Long>();
+        forEachRecord(snapshotId, Expressions.startsWith(PRIMARY_KEY_VALUE, BulkInsertSpec.KEY_PREFIX), record -> {
+            if (BulkInsertSpec.isBulkInsertKey(record.getPrimaryKeyValue())) {
+                var bulkInsertKey = BulkInsertSpec.getBulkInsertKey(record.getPrimaryKeyValue());
+                numberOfRecordsByBulkInsertKey.merge(bulkInsertKey, 1L, Long::sum);
+                checksumByBulkInsertKey.merge(bulkInsertKey, checksumOf(record), Long::sum);
+            }
+        });
+        var aggregates = new HashMap<String, BulkInsertAggregate>();
+        for (var entry : numberOfRecordsByBulkInsertKey.entrySet()) {
+            aggregates.put(entry.getKey(), BulkInsertAggregate.create(entry.getValue(), checksumByBulkInsertKey.get(entry.getKey()), 0));
+        }
+        return aggregates;
+    }
+
+    @Override
+    public BaselineAggregate readBaselineAggregate(long snapshotId, Collection<String> uncertainPrimaryKeyValues) {
+        var uncertain = new HashSet<>(uncertainPrimaryKeyValues);
+        var numberOfRecords = new long[1];
+        var checksum = new long[1];
+        var uncertainRecords = new ArrayList<Record>();
+        forEachRecord(snapshotId, Expressions.startsWith(PRIMARY_KEY_VALUE, BaselineSpec.KEY_PREFIX), record -> {
+            if (!BaselineSpec.hasBaselineValue(record.getPrimaryKeyValue(), record.getDataValue())) {
+                return;
+            }
+            if (uncertain.contains(record.getPrimaryKeyValue())) {
+                uncertainRecords.add(record);
+            } else {
+                numberOfRecords[0]++;
+                checksum[0] += checksumOf(record);
+            }
+        });
+        return BaselineAggregate.create(numberOfRecords[0], checksum[0], 0, uncertainRecords);
+    }
+
+    /**
+     * The filter only prunes data files by their column statistics; the rows are checked by the caller.
+     */
+    private void forEachRecord(long snapshotId, Expression filter, Consumer<Record> consumer) {
+        try (var rows = IcebergGenerics.read(loadTable()).useSnapshot(snapshotId).where(filter).select(Record.SCHEMA.fieldNames()).build()) {
+            for (var row : rows) {
+                consumer.accept(new Record(
+                        (String) row.getField(PRIMARY_KEY_VALUE),
+                        (String) row.getField("partitionKeyValue"),
+                        (String) row.getField("dataValue")
+                ));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long checksumOf(Record record) {
+        return BulkInsertSpec.checksumOf(record.getPrimaryKeyValue(), record.getPartitionKeyValue(), record.getDataValue());
+    }
+
+    private Table loadTable() {
+        if (table == null) {
+            try {
+                table = Spark3Util.loadIcebergTable(session, fullyQualifiedTableName);
+            } catch (ParseException | NoSuchTableException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return table;
+    }
+}
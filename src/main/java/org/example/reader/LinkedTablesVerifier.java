@@ -0,0 +1,97 @@
+package org.example.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.Record;
+import org.example.table.LinkedTables;
+import org.example.table.PayloadSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the invariant of the multi-table transactions of a {@link ReaderThread}: the linked tables, read at the
+ * snapshots that the snapshot of the table which was read records, hold the same rows as the table. A transaction
+ * that is visible in one table of the set, but not in another, breaks it.
+ */
+@Slf4j
+class LinkedTablesVerifier {
+    private final SparkSession session;
+    private final LinkedTables linkedTables;
+    private final TableReader tableReader;
+    private final Map<String, TableReader> linkedTableReaders;
+
+    LinkedTablesVerifier(SparkSession session, LinkedTables linkedTables, PayloadSchema payloadSchema, ReaderBackend readerBackend, TableReader tableReader) {
+        this.session = session;
+        this.linkedTables = linkedTables;
+        this.tableReader = tableReader;
+        this.linkedTableReaders = linkedTables.getLinkedTableNames()
+                .stream()
+                .collect(Collectors.toMap(linkedTableName -> linkedTableName, linkedTableName -> TableReader.create(readerBackend, session, linkedTableName, payloadSchema)));
+    }
+
+    /**
+     * Reads the records and the aggregates of the bulk inserts and the baseline records of all tables again, as the
+     * result set of the reader already has the expected records of the baseline merged in.
+     *
+     * @return Whether the linked tables match, or the snapshot can't be tied to snapshots of the linked tables
+     */
+    boolean verify(long snapshotId) {
+        var table = loadTable(linkedTables.getFullyQualifiedTableName());
+        if (table.snapshot(snapshotId) == null) {
+            table.refresh();
+        }
+        var linkedSnapshotIds = linkedTables.getLinkedSnapshotIds(table, snapshotId);
+        if (linkedSnapshotIds.isEmpty()) {
+            return true;
+        }
+        var rows = toSortedRows(tableReader.readRecords(snapshotId).getRecords());
+        var bulkInsertAggregates = tableReader.readBulkInsertAggregates(snapshotId);
+        var baselineAggregate = tableReader.readBaselineAggregate(snapshotId, List.of());
+        for (var entry : linkedSnapshotIds.get().entrySet()) {
+            var linkedTableName = entry.getKey();
+            var linkedSnapshotId = entry.getValue();
+            var linkedTableReader = linkedTableReaders.get(linkedTableName);
+            var matches = linkedSnapshotId == LinkedTables.NO_SNAPSHOT
+                    ? rows.isEmpty() && bulkInsertAggregates.isEmpty() && baselineAggregate.getNumberOfRecords() == 0
+                    : rows.equals(toSortedRows(linkedTableReader.readRecords(linkedSnapshotId).getRecords()))
+                    && bulkInsertAggregates.equals(linkedTableReader.readBulkInsertAggregates(linkedSnapshotId))
+                    && matchesBaseline(baselineAggregate, linkedTableReader.readBaselineAggregate(linkedSnapshotId, List.of()));
+            if (!matches) {
+                log.error("Multi-table invariant violated. Snapshot {} of {} doesn't match snapshot {} of {}.", snapshotId, linkedTables.getFullyQualifiedTableName(), linkedSnapshotId, linkedTableName);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesBaseline(BaselineAggregate baselineAggregate, BaselineAggregate linkedBaselineAggregate) {
+        return baselineAggregate.matches(linkedBaselineAggregate.getNumberOfRecords(), linkedBaselineAggregate.getChecksum())
+                && linkedBaselineAggregate.getRecordsWithMismatchingPayload() == 0;
+    }
+
+    private static List<String> toSortedRows(List<Record> records) {
+        var rows = new ArrayList<String>(records.size());
+        for (var record : records) {
+            rows.add(record.getPrimaryKeyValue() + "|" + record.getPartitionKeyValue() + "|" + Objects.toString(record.getDataValue()));
+        }
+        rows.sort(null);
+        return rows;
+    }
+
+    private Table loadTable(String tableName) {
+        try {
+            return Spark3Util.loadIcebergTable(session, tableName);
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
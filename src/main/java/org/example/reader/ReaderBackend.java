@@ -0,0 +1,16 @@
+package org.example.reader;
+
+/**
+ * How the readers read the table.
+ */
+public enum ReaderBackend {
+    /**
+     * Spark SQL queries, with the aggregates of bulk inserts and baseline records computed on the executors.
+     */
+    SPARK,
+    /**
+     * Iceberg's own generic readers on the driver, without Spark jobs. Meant for small and medium tables, and to check
+     * the read path of Spark against the one of Iceberg core. Payload columns are not verified.
+     */
+    ICEBERG_GENERICS
+}
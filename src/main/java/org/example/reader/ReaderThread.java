@@ -2,12 +2,28 @@ package org.example.reader;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.spark.Spark3Util;
 import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.capture.ReadCapture;
+import org.example.history.HistoryRecorder;
+import org.example.metrics.IcebergMetrics;
+import org.example.metrics.MetricsScope;
+import org.example.metrics.ResultSetVerificationEvent;
+import org.example.metrics.TableScanEvent;
+import org.example.report.RunStatistics;
 import org.example.resultexpectations.ResultSetExpectationProducer;
-import org.example.resultset.Record;
+import org.example.resultexpectations.ResultSetExpectations;
 import org.example.resultset.ResultSet;
+import org.example.schedule.ScheduleRecorder;
+import org.example.schedule.ScheduledRead;
 import org.example.transactionlog.TransactionLog;
+import org.example.writer.Configuration;
+import org.example.writer.RunContext;
 
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
@@ -15,48 +31,171 @@ public class ReaderThread extends Thread {
     private final TransactionLog transactionLog;
     private final SparkSession session;
     private final String fullyQualifiedTableName;
+    private final TableReader tableReader;
+    private final LinkedTablesVerifier linkedTablesVerifier;
     private final AtomicBoolean stopReader;
     private final ResultSetExpectationProducer resultSetExpectationProducer;
     private final Runnable verificationFailedCallback;
+    private final IcebergMetrics icebergMetrics;
+    private final RunStatistics runStatistics;
+    private final long stalenessBoundInMillis;
+    private final long tableRefreshIntervalInMillis;
+    private final SessionGuarantees sessionGuarantees;
+    private final HistoryRecorder historyRecorder;
+    private final ScheduleRecorder scheduleRecorder;
+    private final Path readCaptureDirectory;
+    private final AdaptiveReaderController adaptiveReaderController;
+    private ReadCapture readCapture;
+    private int iteration;
+    private long lastTableRefreshTime;
+    private long lastReadSequenceNumber = -1;
 
     @Getter
     private Exception readerException;
 
-    public ReaderThread(
-            TransactionLog transactionLog,
-            SparkSession session,
-            String fullyQualifiedTableName,
-            AtomicBoolean stopReader,
-            Runnable verificationFailedCallback
-    ) {
-        this.transactionLog = transactionLog;
+    public ReaderThread(Configuration configuration, RunContext runContext, SparkSession session) {
+        var payloadSchema = configuration.getPayloadSchema();
+        var readerBackend = configuration.getReaderBackend();
+        var multiTableCommitCoordinator = runContext.getMultiTableCommitCoordinator();
+        this.transactionLog = runContext.getTransactionLog();
         this.session = session;
-        this.fullyQualifiedTableName = fullyQualifiedTableName;
-        this.stopReader = stopReader;
+        this.fullyQualifiedTableName = configuration.getFullyQualifiedTableName();
+        this.tableReader = TableReader.create(readerBackend, session, fullyQualifiedTableName, payloadSchema);
+        this.linkedTablesVerifier = multiTableCommitCoordinator == null ? null
+                : new LinkedTablesVerifier(session, multiTableCommitCoordinator.getLinkedTables(), payloadSchema, readerBackend, tableReader);
+        this.stopReader = runContext.getStop();
         this.resultSetExpectationProducer = new ResultSetExpectationProducer(transactionLog);
-        this.verificationFailedCallback = verificationFailedCallback;
+        this.verificationFailedCallback = runContext.getVerificationFailedCallback();
+        this.icebergMetrics = runContext.getIcebergMetrics();
+        this.runStatistics = runContext.getRunStatistics();
+        this.stalenessBoundInMillis = configuration.getReaderStalenessBoundInMillis();
+        this.tableRefreshIntervalInMillis = configuration.getReaderTableRefreshIntervalInMillis();
+        this.sessionGuarantees = runContext.getSessionGuarantees();
+        this.historyRecorder = runContext.getHistoryRecorder();
+        this.scheduleRecorder = runContext.getScheduleRecorder();
+        this.readCaptureDirectory = configuration.getReadCaptureDirectory() == null ? null : Path.of(configuration.getReadCaptureDirectory());
+        this.adaptiveReaderController = runContext.getAdaptiveReaderController();
     }
 
     @Override
     public void run() {
         try {
+            if (readCaptureDirectory != null) {
+                // The spill file is named after the reader, which is only known once the thread is named
+                readCapture = ReadCapture.open(readCaptureDirectory, getName(), transactionLog, tableReader);
+            }
+            var slot = adaptiveReaderController == null ? 0 : adaptiveReaderController.register();
             while (!stopReader.get()) {
+                if (adaptiveReaderController != null && !adaptiveReaderController.awaitTurn(slot, stopReader)) {
+                    break;
+                }
                 performVerification();
             }
         } catch (Exception e) {
             log.error("Exception in reader.", e);
             readerException = e;
+        } finally {
+            if (readCapture != null) {
+                readCapture.close();
+            }
         }
     }
 
     private void performVerification() {
+        final var currentIteration = iteration++;
+        refreshTableIfDue();
+        final var sessionSequenceNumberBeforeRead = sessionGuarantees == null ? -1 : sessionGuarantees.getObservedSequenceNumber(session);
         final var eventCountBeforeRead = transactionLog.getEventCount();
         final var timeBeforeRead = System.currentTimeMillis();
-        final var resultSet = readData();
-        final var readDuration = System.currentTimeMillis() - timeBeforeRead;
+        final var scanEvent = new TableScanEvent();
+        scanEvent.begin();
+        ResultSet resultSet;
+        final Long readSnapshotId;
+        try (var metricsScope = MetricsScope.open("reader=" + getName() + " iteration=" + currentIteration, icebergMetrics)) {
+            resultSet = readData();
+            readSnapshotId = metricsScope.getLastScannedSnapshotId();
+            if (historyRecorder != null) {
+                historyRecorder.recordRead(metricsScope);
+            }
+        }
+        scanEvent.end();
+        final var scanDuration = System.currentTimeMillis() - timeBeforeRead;
+        runStatistics.recordRead(scanDuration);
         final var eventCountAfterRead = transactionLog.getEventCount();
-        final var resultSetExpectations = resultSetExpectationProducer.createResultSetExpectations(eventCountBeforeRead, eventCountAfterRead);
-        final var satisfied = resultSetExpectations.isStatisfied(resultSet);
+        if (readCapture != null) {
+            captureRead(currentIteration, eventCountBeforeRead, eventCountAfterRead, timeBeforeRead, readSnapshotId, resultSet, scanDuration);
+            if (adaptiveReaderController != null) {
+                adaptiveReaderController.recordRead(eventCountAfterRead - eventCountBeforeRead, scanDuration, 0);
+            }
+            return;
+        }
+        final var verificationEvent = new ResultSetVerificationEvent();
+        verificationEvent.begin();
+        final var requiredCommitTime = stalenessBoundInMillis > 0 ? timeBeforeRead - stalenessBoundInMillis : Long.MAX_VALUE;
+        final var timeBeforeExpectationBuild = System.nanoTime();
+        final var resultSetExpectations = resultSetExpectationProducer.createResultSetExpectations(eventCountBeforeRead, eventCountAfterRead, requiredCommitTime);
+        final var expectationBuildDuration = System.nanoTime() - timeBeforeExpectationBuild;
+        if (readSnapshotId == null && (resultSetExpectations.areBulkInsertsExpected() || resultSetExpectations.getBaselineExpectation().isPresent())) {
+            // Without a scan report the snapshot that was read is unknown, and a result set without the aggregates
+            // fails committed bulk inserts and passes uncertain ones
+            log.warn("Acid Verification threadType='reader' skipped iteration={}, the snapshot it read is unknown, so its aggregates can't be read.", currentIteration);
+            return;
+        }
+        if (readSnapshotId == null && linkedTablesVerifier != null) {
+            log.warn("Acid Verification threadType='reader' skipped iteration={}, the snapshot it read is unknown, so its linked tables can't be read.", currentIteration);
+            return;
+        }
+        // Looked up once, as every lookup loads the table from the catalog
+        final var isSequenceNumberVerified = stalenessBoundInMillis > 0 || sessionGuarantees != null;
+        final var readSequenceNumber = isSequenceNumberVerified || scheduleRecorder != null ? getSequenceNumber(readSnapshotId) : null;
+        if (isSequenceNumberVerified && readSequenceNumber == null) {
+            log.warn("Acid Verification threadType='reader' skipped iteration={}, the sequence number of snapshot {} is unknown, so monotonic reads and session guarantees can't be verified.", currentIteration, readSnapshotId);
+            return;
+        }
+        final boolean linkedTablesMatch;
+        final var timeBeforeAggregateRead = System.nanoTime();
+        try {
+            resultSet = withAggregates(resultSet, resultSetExpectations, readSnapshotId, currentIteration);
+            linkedTablesMatch = linkedTablesVerifier == null || linkedTablesVerifier.verify(readSnapshotId);
+        } catch (RuntimeException e) {
+            if (!isExpired(readSnapshotId)) {
+                throw e;
+            }
+            // Maintenance expired the snapshot between the reads, so this read can't be verified
+            log.warn("Acid Verification threadType='reader' skipped iteration={}, snapshot {} was expired before its aggregates or linked tables were read.", currentIteration, readSnapshotId);
+            return;
+        }
+        final var aggregateReadDuration = System.nanoTime() - timeBeforeAggregateRead;
+        final var readDuration = scanDuration + aggregateReadDuration / 1_000_000;
+        final var timeBeforeVerify = System.nanoTime();
+        final var satisfied = resultSetExpectations.isStatisfied(resultSet)
+                && isMonotonicRead(readSnapshotId, readSequenceNumber)
+                && satisfiesSessionGuarantees(sessionSequenceNumberBeforeRead, readSequenceNumber)
+                && linkedTablesMatch;
+        final var verifyDuration = System.nanoTime() - timeBeforeVerify;
+        verificationEvent.end();
+        if (adaptiveReaderController != null) {
+            // The controller weighs reading against verifying, so the aggregate reads count as reading
+            adaptiveReaderController.recordRead(eventCountAfterRead - eventCountBeforeRead, readDuration, (expectationBuildDuration + verifyDuration) / 1_000_000);
+        }
+        if (scheduleRecorder != null) {
+            scheduleRecorder.recordRead(ScheduledRead.create(getName(), currentIteration, eventCountBeforeRead, eventCountAfterRead, requiredCommitTime, readSnapshotId, readSequenceNumber, satisfied));
+        }
+        if (scanEvent.shouldCommit()) {
+            scanEvent.iteration = currentIteration;
+            scanEvent.resultSetSize = resultSet.getRecords().size();
+            scanEvent.aggregateReadDuration = aggregateReadDuration;
+            scanEvent.commit();
+        }
+        if (verificationEvent.shouldCommit()) {
+            verificationEvent.iteration = currentIteration;
+            verificationEvent.windowSize = eventCountAfterRead - eventCountBeforeRead;
+            verificationEvent.resultSetSize = resultSet.getRecords().size();
+            verificationEvent.expectationBuildDuration = expectationBuildDuration;
+            verificationEvent.verifyDuration = verifyDuration;
+            verificationEvent.satisfied = satisfied;
+            verificationEvent.commit();
+        }
         if (!satisfied) {
             log.error("Verification Failed. ResultSet:\n{}", resultSet);
             verificationFailedCallback.run();
@@ -71,12 +210,119 @@ public class ReaderThread extends Thread {
         );
     }
 
-    public ResultSet readData() {
-        var recordDataSet = session
-                .sql("SELECT * FROM " + fullyQualifiedTableName)
-                .as(Record.getEncoder())
-                .collectAsList();
+    /**
+     * Spills the read with its aggregates instead of verifying it, which the {@link org.example.capture.CapturedReadVerifier}
+     * does after the run. Monotonic reads, session guarantees and linked tables are not verified in capture mode.
+     */
+    private void captureRead(int currentIteration, int eventCountBeforeRead, int eventCountAfterRead, long timeBeforeRead, Long readSnapshotId, ResultSet resultSet, long readDuration) {
+        final var requiredCommitTime = stalenessBoundInMillis > 0 ? timeBeforeRead - stalenessBoundInMillis : Long.MAX_VALUE;
+        try {
+            var captured = MetricsScope.run("reader=" + getName() + " iteration=" + currentIteration + " capture", icebergMetrics,
+                    () -> readCapture.capture(getName(), currentIteration, eventCountBeforeRead, eventCountAfterRead, requiredCommitTime, readSnapshotId, resultSet));
+            if (!captured) {
+                log.warn("Acid Verification threadType='reader' skipped iteration={}, the snapshot it read is unknown, so its aggregates can't be read.", currentIteration);
+                return;
+            }
+        } catch (RuntimeException e) {
+            if (!isExpired(readSnapshotId)) {
+                throw e;
+            }
+            log.warn("Acid Verification threadType='reader' skipped iteration={}, snapshot {} was expired before its aggregates were read.", currentIteration, readSnapshotId);
+            return;
+        }
+        log.info(
+                "Acid Verification threadType='reader' captured='true' duration={} eventCountBeforeRead={} eventCountAfterRead={} resultSetSize={}",
+                readDuration,
+                eventCountBeforeRead,
+                eventCountAfterRead,
+                resultSet.getRecords().size()
+        );
+    }
+
+    /**
+     * Adds the aggregates of the bulk inserts and the baseline records, read from the same snapshot as the records.
+     */
+    private ResultSet withAggregates(ResultSet resultSet, ResultSetExpectations resultSetExpectations, Long readSnapshotId, int currentIteration) {
+        if (readSnapshotId == null) {
+            // Nothing to aggregate, checked by the caller
+            return resultSet;
+        }
+        if (resultSetExpectations.areBulkInsertsExpected()) {
+            var bulkInsertAggregates = MetricsScope.run("reader=" + getName() + " iteration=" + currentIteration + " bulkInserts", icebergMetrics,
+                    () -> tableReader.readBulkInsertAggregates(readSnapshotId));
+            resultSet = resultSet.withBulkInsertAggregates(bulkInsertAggregates);
+        }
+        final var baselineExpectation = resultSetExpectations.getBaselineExpectation();
+        if (baselineExpectation.isPresent()) {
+            // Only the touched baseline records are read as records, the others are aggregated
+            var baselineAggregate = MetricsScope.run("reader=" + getName() + " iteration=" + currentIteration + " baseline", icebergMetrics,
+                    () -> tableReader.readBaselineAggregate(readSnapshotId, baselineExpectation.get().getUncertainPrimaryKeyValues()));
+            resultSet = resultSet.withBaselineAggregate(baselineAggregate);
+        }
+        return resultSet;
+    }
+
+    private void refreshTableIfDue() {
+        if (tableRefreshIntervalInMillis <= 0) {
+            return;
+        }
+        var now = System.currentTimeMillis();
+        if (now - lastTableRefreshTime >= tableRefreshIntervalInMillis) {
+            session.sql("REFRESH TABLE " + fullyQualifiedTableName);
+            lastTableRefreshTime = now;
+        }
+    }
+
+    /**
+     * A reader that may see stale data must still never go back in time: the sequence number of the snapshot it read
+     * may not be lower than that of the previous read. Without a staleness bound, the expectations already rule this
+     * out. Reads of snapshots that are no longer in the table metadata are skipped before.
+     */
+    private boolean isMonotonicRead(Long readSnapshotId, Long sequenceNumber) {
+        if (stalenessBoundInMillis <= 0) {
+            return true;
+        }
+        if (sequenceNumber < lastReadSequenceNumber) {
+            log.error("Monotonic read violated. Read snapshot {} with sequence number {} after sequence number {}.", readSnapshotId, sequenceNumber, lastReadSequenceNumber);
+            return false;
+        }
+        lastReadSequenceNumber = sequenceNumber;
+        return true;
+    }
+
+    /**
+     * The reader may not see an older snapshot than its session observed before the read, in reads of other readers
+     * or commits of writers that share the session.
+     */
+    private boolean satisfiesSessionGuarantees(long sessionSequenceNumberBeforeRead, Long readSequenceNumber) {
+        if (sessionGuarantees == null) {
+            return true;
+        }
+        return sessionGuarantees.verifyRead(session, "Reader " + getName(), sessionSequenceNumberBeforeRead, readSequenceNumber);
+    }
+
+    /**
+     * Only when reading the aggregates or linked tables failed, so the snapshot is looked up again, as it may have
+     * expired after the sequence number was looked up.
+     */
+    private boolean isExpired(Long snapshotId) {
+        return snapshotId != null && getSequenceNumber(snapshotId) == null;
+    }
 
-        return new ResultSet(recordDataSet);
+    private Long getSequenceNumber(Long snapshotId) {
+        if (snapshotId == null) {
+            return null;
+        }
+        final Snapshot snapshot;
+        try {
+            snapshot = Spark3Util.loadIcebergTable(session, fullyQualifiedTableName).snapshot(snapshotId);
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+        return snapshot == null ? null : snapshot.sequenceNumber();
+    }
+
+    public ResultSet readData() {
+        return tableReader.readRecords();
     }
 }
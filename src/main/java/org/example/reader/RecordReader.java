@@ -20,12 +20,11 @@ public class RecordReader {
     }
 
     public ResultSet readData() {
-        var recordDataSet = session
-                .sql("SELECT * FROM record;")
-                .as(Record.getEncoder())
+        var rows = session
+                .sql("SELECT " + Record.COLUMNS + " FROM record;")
                 .collectAsList();
 
-        return new ResultSet(recordDataSet);
+        return ResultSet.fromRows(rows);
     }
 
     public boolean verifyResultSet(ResultSet resultSet) {
@@ -0,0 +1,58 @@
+package org.example.reader;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.spark.sql.SparkSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the newest snapshot each Spark session is known to have observed, to verify the guarantees of a
+ * session: a read never sees an older snapshot than a read or commit of the same session that finished before it
+ * started (monotonic reads), and that includes the own commits of the session (read your writes).
+ * <p>
+ * Snapshots are compared by their sequence numbers, so this needs format version 2. Sessions that are cloned from the
+ * same session have their own catalogs, so they are tracked separately.
+ */
+@Slf4j
+public class SessionGuarantees {
+    private final Map<SparkSession, Long> sequenceNumberBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Whether writers read the table in their session right after each commit, to check that they see their commit.
+     */
+    @Getter
+    private final boolean readYourWritesProbesEnabled;
+
+    public SessionGuarantees(boolean readYourWritesProbesEnabled) {
+        this.readYourWritesProbesEnabled = readYourWritesProbesEnabled;
+    }
+
+    /**
+     * @return The sequence number of the newest snapshot the session observed so far, or -1 if it observed none
+     */
+    public long getObservedSequenceNumber(SparkSession session) {
+        return sequenceNumberBySession.getOrDefault(session, -1L);
+    }
+
+    public void observed(SparkSession session, long sequenceNumber) {
+        sequenceNumberBySession.merge(session, sequenceNumber, Math::max);
+    }
+
+    /**
+     * Checks a read against the observations of its session from before the read started, and records it.
+     *
+     * @param observedSequenceNumberBeforeRead {@link #getObservedSequenceNumber(SparkSession)} before the read started
+     * @param readSequenceNumber               The sequence number of the snapshot that was read, or -1 for none
+     * @return Whether the read didn't go back in time
+     */
+    public boolean verifyRead(SparkSession session, String label, long observedSequenceNumberBeforeRead, long readSequenceNumber) {
+        if (readSequenceNumber < observedSequenceNumberBeforeRead) {
+            log.error("Session guarantee violated. {} read sequence number {} after its session observed sequence number {}.", label, readSequenceNumber, observedSequenceNumberBeforeRead);
+            return false;
+        }
+        observed(session, readSequenceNumber);
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.reader;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of the {@link SnapshotVerifier}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class SnapshotVerificationResult {
+    /**
+     * Why the verification was skipped, or null if it wasn't.
+     */
+    private final String skipReason;
+    private final int verifiedSnapshots;
+    private final int failedSnapshots;
+    /**
+     * Committed transactions of which the snapshot isn't known, so their position in the table history is unknown.
+     */
+    private final int unmappedTransactions;
+    private final List<String> failureExamples;
+    private final long durationInMillis;
+
+    static SnapshotVerificationResult skipped(String skipReason) {
+        return create(skipReason, 0, 0, 0, List.of(), 0);
+    }
+
+    public boolean isSatisfied() {
+        return skipReason == null && failedSnapshots == 0 && unmappedTransactions == 0;
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.HasTableOperations;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.resultset.Record;
+import org.example.resultset.ResultSet;
+import org.example.table.PayloadSchema;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.BulkInsertSpec;
+import org.example.transactionlog.EventType;
+import org.example.transactionlog.TransactionLogEvent;
+import org.example.writer.TransactionCommitProperties;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the full contents of every snapshot of the table after the run, using time travel.
+ * <p>
+ * The sequence numbers of the snapshots give their position in the history of the table. The expected contents of a
+ * snapshot are the result of the committed transactions with a sequence number up to the one of the snapshot, applied
+ * in order. The snapshot of a transaction is taken from the transaction id in its summary, so it doesn't depend on
+ * the commit reports. Snapshots are independent of each other, so they are read by concurrent Spark jobs.
+ * <p>
+ * Format version 1 tables don't have sequence numbers, so they are skipped.
+ */
+@Slf4j
+public class SnapshotVerifier {
+    private static final int MAXIMUM_NUMBER_OF_EXAMPLES = 10;
+
+    private final SparkSession session;
+    private final String fullyQualifiedTableName;
+    private final PayloadSchema payloadSchema;
+    private final int numberOfThreads;
+
+    public SnapshotVerifier(SparkSession session, String fullyQualifiedTableName, PayloadSchema payloadSchema, int numberOfThreads) {
+        this.session = session;
+        this.fullyQualifiedTableName = fullyQualifiedTableName;
+        this.payloadSchema = payloadSchema;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public SnapshotVerificationResult verify(List<TransactionLogEvent> transactionLogEvents) throws InterruptedException {
+        var timeBeforeVerification = System.currentTimeMillis();
+        var table = loadTable();
+        var formatVersion = ((HasTableOperations) table).operations().current().formatVersion();
+        if (formatVersion < 2) {
+            log.warn("Snapshot verification skipped, format version {} has no sequence numbers.", formatVersion);
+            return SnapshotVerificationResult.skipped("format version " + formatVersion + " has no sequence numbers");
+        }
+
+        var snapshots = session.sql("SELECT snapshot_id FROM " + fullyQualifiedTableName + ".snapshots")
+                .collectAsList()
+                .stream()
+                .map(row -> table.snapshot(row.getLong(0)))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingLong(Snapshot::sequenceNumber))
+                .collect(Collectors.toList());
+        var committedEvents = transactionLogEvents
+                .stream()
+                .filter(event -> event.eventType == EventType.TRANSACTION_COMMITTED)
+                .collect(Collectors.toList());
+        // The snapshot summaries record the transactions of the snapshots that didn't expire, the commit reports of the
+        // log the ones of the expired snapshots as well
+        var committedSequenceNumbers = TransactionCommitProperties.getSequenceNumbersByTransactionId(table.snapshots());
+        for (var event : committedEvents) {
+            if (event.sequenceNumber != null) {
+                committedSequenceNumbers.putIfAbsent(event.transaction.transactionId, event.sequenceNumber);
+            }
+        }
+        var unmappedTransactions = (int) committedEvents.stream().filter(event -> !committedSequenceNumbers.containsKey(event.transaction.transactionId)).count();
+        var hasBulkInserts = committedEvents.stream().anyMatch(event -> event.transaction.bulkInsertSpec != null);
+        var mappedEvents = committedEvents
+                .stream()
+                .filter(event -> committedSequenceNumbers.containsKey(event.transaction.transactionId))
+                .sorted(Comparator.comparingLong(event -> committedSequenceNumbers.get(event.transaction.transactionId)))
+                .collect(Collectors.toList());
+
+        var executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            var verifications = new ArrayList<Future<String>>(snapshots.size());
+            var expectedState = new HashMap<String, Record>();
+            var expectedBulkInserts = new HashMap<String, BulkInsertSpec>();
+            var expectedBaseline = new ExpectedBaseline();
+            var eventIndex = 0;
+            for (var snapshot : snapshots) {
+                while (eventIndex < mappedEvents.size() && committedSequenceNumbers.get(mappedEvents.get(eventIndex).transaction.transactionId) <= snapshot.sequenceNumber()) {
+                    apply(expectedState, expectedBulkInserts, expectedBaseline, mappedEvents.get(eventIndex++));
+                }
+                var expectedBaselineAggregate = expectedBaseline.baselineSpec == null ? null : expectedBaseline.toAggregate();
+                verifications.add(executor.submit(verification(snapshot, Map.copyOf(expectedState), Map.copyOf(expectedBulkInserts), hasBulkInserts, expectedBaselineAggregate)));
+            }
+            var failedSnapshots = 0;
+            var failureExamples = new ArrayList<String>();
+            for (var verification : verifications) {
+                var failure = verification.get();
+                if (failure != null) {
+                    failedSnapshots++;
+                    if (failureExamples.size() < MAXIMUM_NUMBER_OF_EXAMPLES) {
+                        failureExamples.add(failure);
+                    }
+                }
+            }
+            return SnapshotVerificationResult.create(
+                    null,
+                    snapshots.size() - failedSnapshots,
+                    failedSnapshots,
+                    unmappedTransactions,
+                    failureExamples,
+                    System.currentTimeMillis() - timeBeforeVerification
+            );
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to verify snapshot", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<String> verification(Snapshot snapshot, Map<String, Record> expectedState, Map<String, BulkInsertSpec> expectedBulkInserts, boolean hasBulkInserts, BaselineAggregate expectedBaselineAggregate) {
+        return () -> {
+            var timeBeforeRead = System.currentTimeMillis();
+            var rows = session
+                    .sql("SELECT " + payloadSchema.getSelectColumns(Record.COLUMNS) + " FROM " + fullyQualifiedTableName + " VERSION AS OF " + snapshot.snapshotId()
+                            + " WHERE " + BulkInsertAggregate.NOT_BULK_INSERT_PREDICATE + " AND " + BaselineAggregate.NOT_UNCHANGED_BASELINE_PREDICATE)
+                    .collectAsList();
+            var failure = compare(expectedState, ResultSet.fromRows(rows));
+            if (failure == null && hasBulkInserts) {
+                failure = compareBulkInserts(expectedBulkInserts, BulkInsertAggregate.readAll(session, fullyQualifiedTableName, payloadSchema, snapshot.snapshotId()));
+            }
+            if (failure == null && expectedBaselineAggregate != null) {
+                // Touched baseline records never have their baseline value in the exact state, so none are uncertain
+                var baselineAggregate = BaselineAggregate.read(session, fullyQualifiedTableName, payloadSchema, snapshot.snapshotId(), Set.of());
+                if (!baselineAggregate.matches(expectedBaselineAggregate.getNumberOfRecords(), expectedBaselineAggregate.getChecksum())) {
+                    failure = "expected unchanged baseline records " + expectedBaselineAggregate + " but found " + baselineAggregate;
+                }
+            }
+            log.info(
+                    "Acid Verification threadType='snapshotVerifier' snapshotId={} sequenceNumber={} satisfied='{}' duration={} resultSetSize={}",
+                    snapshot.snapshotId(),
+                    snapshot.sequenceNumber(),
+                    failure == null,
+                    System.currentTimeMillis() - timeBeforeRead,
+                    rows.size()
+            );
+            return failure == null ? null : "snapshot " + snapshot.snapshotId() + " (sequence number " + snapshot.sequenceNumber() + "): " + failure;
+        };
+    }
+
+    /**
+     * @return A description of the first difference, or null if the result set matches the expected state exactly
+     */
+    static String compare(Map<String, Record> expectedState, ResultSet resultSet) {
+        var primaryKeyValuesWithMismatchingPayload = resultSet.getPrimaryKeyValuesWithMismatchingPayload();
+        if (!primaryKeyValuesWithMismatchingPayload.isEmpty()) {
+            return "payload doesn't match the record for " + primaryKeyValuesWithMismatchingPayload;
+        }
+        var records = resultSet.getRecords();
+        for (var record : records) {
+            var expectedRecord = expectedState.get(record.getPrimaryKeyValue());
+            if (!record.equals(expectedRecord)) {
+                return "expected " + expectedRecord + " but found " + record;
+            }
+        }
+        if (records.size() != expectedState.size()) {
+            return "expected " + expectedState.size() + " records but found " + records.size();
+        }
+        return null;
+    }
+
+    /**
+     * @return A description of the first difference, or null if exactly the expected bulk inserts were found
+     */
+    static String compareBulkInserts(Map<String, BulkInsertSpec> expectedBulkInserts, Map<String, BulkInsertAggregate> bulkInsertAggregates) {
+        for (var entry : bulkInsertAggregates.entrySet()) {
+            var expectedBulkInsert = expectedBulkInserts.get(entry.getKey());
+            if (expectedBulkInsert == null || !entry.getValue().matches(expectedBulkInsert)) {
+                return "expected " + expectedBulkInsert + " but found " + entry.getKey() + " " + entry.getValue();
+            }
+        }
+        if (bulkInsertAggregates.size() != expectedBulkInserts.size()) {
+            return "expected " + expectedBulkInserts.size() + " bulk inserts but found " + bulkInsertAggregates.size();
+        }
+        return null;
+    }
+
+    private static void apply(Map<String, Record> state, Map<String, BulkInsertSpec> bulkInserts, ExpectedBaseline baseline, TransactionLogEvent event) {
+        if (event.transaction.bulkInsertSpec != null) {
+            bulkInserts.put(event.transaction.bulkInsertSpec.getBulkInsertKey(), event.transaction.bulkInsertSpec);
+            return;
+        }
+        if (event.transaction.baselineSpec != null) {
+            baseline.baselineSpec = event.transaction.baselineSpec;
+            return;
+        }
+        for (var dataManipulation : event.transaction.dataManipulations) {
+            baseline.touch(dataManipulation.primaryKeyValue);
+            switch (event.transaction.manipulationType) {
+                case INSERT:
+                case UPDATE:
+                    state.put(dataManipulation.primaryKeyValue, new Record(dataManipulation.primaryKeyValue, dataManipulation.partitionKeyValue, dataManipulation.dataValue));
+                    break;
+                case DELETE:
+                    state.remove(dataManipulation.primaryKeyValue);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown manipulationType: " + event.transaction.manipulationType);
+            }
+        }
+    }
+
+    /**
+     * The baseline records that are expected to be unchanged. Touched baseline records are part of the expected state.
+     */
+    private static final class ExpectedBaseline {
+        private final Set<String> touchedPrimaryKeyValues = new HashSet<>();
+        private BaselineSpec baselineSpec;
+        private long checksumOfTouchedRecords;
+
+        private void touch(String primaryKeyValue) {
+            if (baselineSpec != null && baselineSpec.isBaselineKey(primaryKeyValue) && touchedPrimaryKeyValues.add(primaryKeyValue)) {
+                checksumOfTouchedRecords += baselineSpec.getChecksum(primaryKeyValue);
+            }
+        }
+
+        private BaselineAggregate toAggregate() {
+            return BaselineAggregate.create(
+                    baselineSpec.numberOfRecords - touchedPrimaryKeyValues.size(),
+                    baselineSpec.getChecksum() - checksumOfTouchedRecords,
+                    0,
+                    List.of()
+            );
+        }
+    }
+
+    private Table loadTable() {
+        try {
+            return Spark3Util.loadIcebergTable(session, fullyQualifiedTableName);
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.reader;
+
+import lombok.AllArgsConstructor;
+import org.apache.spark.sql.SparkSession;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.resultset.Record;
+import org.example.resultset.ResultSet;
+import org.example.table.PayloadSchema;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads the table with Spark SQL.
+ */
+@AllArgsConstructor
+public class SparkTableReader implements TableReader {
+    private final SparkSession session;
+    private final String fullyQualifiedTableName;
+    private final PayloadSchema payloadSchema;
+
+    @Override
+    public ResultSet readRecords() {
+        return readRecords("");
+    }
+
+    @Override
+    public ResultSet readRecords(long snapshotId) {
+        return readRecords(" VERSION AS OF " + snapshotId);
+    }
+
+    private ResultSet readRecords(String timeTravelClause) {
+        var rows = session
+                .sql("SELECT " + payloadSchema.getSelectColumns(Record.COLUMNS) + " FROM " + fullyQualifiedTableName + timeTravelClause +
+                        " WHERE " + BulkInsertAggregate.NOT_BULK_INSERT_PREDICATE + " AND " + BaselineAggregate.NOT_UNCHANGED_BASELINE_PREDICATE)
+                .collectAsList();
+
+        return ResultSet.fromRows(rows);
+    }
+
+    @Override
+    public Map<String, BulkInsertAggregate> readBulkInsertAggregates(long snapshotId) {
+        return BulkInsertAggregate.readAll(session, fullyQualifiedTableName, payloadSchema, snapshotId);
+    }
+
+    @Override
+    public BaselineAggregate readBaselineAggregate(long snapshotId, Collection<String> uncertainPrimaryKeyValues) {
+        return BaselineAggregate.read(session, fullyQualifiedTableName, payloadSchema, snapshotId, uncertainPrimaryKeyValues);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.reader;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.report.LatencySummary;
+
+import java.util.List;
+
+/**
+ * Outcome of the {@link StreamingVerifier}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class StreamingVerificationResult {
+    /**
+     * Why the streaming query failed, or null if it didn't.
+     */
+    private final String queryFailure;
+    private final long microBatches;
+    /**
+     * Committed insert transactions that arrived exactly once and whole.
+     */
+    private final int verifiedTransactions;
+    /**
+     * Committed insert transactions that never arrived.
+     */
+    private final int missingTransactions;
+    /**
+     * Insert transactions that arrived in more than one micro-batch, or with more rows than they wrote.
+     */
+    private final int duplicatedTransactions;
+    /**
+     * Insert transactions that arrived with fewer rows than they wrote.
+     */
+    private final int partialTransactions;
+    /**
+     * Insert transactions that arrived, but never committed.
+     */
+    private final int uncommittedTransactions;
+    /**
+     * Rows that arrived, but were not written by any transaction.
+     */
+    private final long unknownRows;
+    private final List<String> failureExamples;
+    /**
+     * Time from the commit of an insert transaction to the moment the micro-batch it arrived in was handed to the
+     * consumer.
+     */
+    private final LatencySummary commitToVisibilityLatency;
+
+    public boolean isSatisfied() {
+        return queryFailure == null
+                && missingTransactions == 0
+                && duplicatedTransactions == 0
+                && partialTransactions == 0
+                && uncommittedTransactions == 0
+                && unknownRows == 0;
+    }
+}
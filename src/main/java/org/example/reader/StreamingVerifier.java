@@ -0,0 +1,259 @@
+package org.example.reader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.spark.api.java.function.VoidFunction2;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.Trigger;
+import org.example.report.LatencyRecorder;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.transactionlog.EventType;
+import org.example.transactionlog.ManipulationType;
+import org.example.transactionlog.Transaction;
+import org.example.transactionlog.TransactionLog;
+import org.example.transactionlog.TransactionLogEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Verifies the table the way a Spark Structured Streaming consumer sees it, with {@code readStream} on the table.
+ * <p>
+ * Iceberg only streams the rows of append snapshots, and the overwrite and delete snapshots of updates and deletes
+ * are skipped, so the verification is about the insert transactions: every committed insert transaction has to
+ * arrive exactly once, in one micro-batch, with all its rows, and no rows of uncommitted transactions may arrive.
+ * Updates that only insert rows commit append snapshots as well, so their rows are tolerated. The records of bulk
+ * inserts and the baseline records are not verified.
+ * <p>
+ * A transaction is logged as intended before it commits, so the transaction of every row that arrives is known. It is
+ * only logged as committed after its commit, so whether it committed is checked when the stream finished.
+ */
+@Slf4j
+public class StreamingVerifier {
+    private static final int MAXIMUM_NUMBER_OF_EXAMPLES = 10;
+
+    private final SparkSession session;
+    private final String fullyQualifiedTableName;
+    private final TransactionLog transactionLog;
+    private final long triggerIntervalInMillis;
+    private final Map<String, Transaction> transactionsByRow = new HashMap<>();
+    private final Map<UUID, StreamedTransaction> streamedTransactions = new HashMap<>();
+    private final Set<UUID> failedTransactionIds = new HashSet<>();
+    private final List<String> failureExamples = new ArrayList<>();
+    private int indexedEventCount;
+    private long microBatches;
+    private int duplicatedTransactions;
+    private int partialTransactions;
+    private long unknownRows;
+    private StreamingQuery query;
+
+    public StreamingVerifier(SparkSession session, String fullyQualifiedTableName, TransactionLog transactionLog, long triggerIntervalInMillis) {
+        this.session = session;
+        this.fullyQualifiedTableName = fullyQualifiedTableName;
+        this.transactionLog = transactionLog;
+        this.triggerIntervalInMillis = triggerIntervalInMillis;
+    }
+
+    /**
+     * Starts the streaming query from the first snapshot of the table.
+     */
+    public void start() {
+        try {
+            var checkpointLocation = Files.createTempDirectory("acid-verification-streaming-checkpoint");
+            var rows = session.readStream()
+                    .format("iceberg")
+                    .option("streaming-skip-overwrite-snapshots", "true")
+                    .option("streaming-skip-delete-snapshots", "true")
+                    .load(fullyQualifiedTableName)
+                    .where(BulkInsertAggregate.NOT_BULK_INSERT_PREDICATE + " AND " + BaselineAggregate.NOT_UNCHANGED_BASELINE_PREDICATE)
+                    .select("primaryKeyValue", "dataValue");
+            query = rows.writeStream()
+                    .queryName("acid-verification-streaming")
+                    .option("checkpointLocation", checkpointLocation.toString())
+                    .trigger(Trigger.ProcessingTime(triggerIntervalInMillis, TimeUnit.MILLISECONDS))
+                    .foreachBatch((VoidFunction2<Dataset<Row>, Long>) (microBatch, batchId) -> verifyMicroBatch(microBatch.collectAsList(), batchId))
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create the checkpoint location of the streaming query", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Unable to start the streaming query", e);
+        }
+        log.info("Streaming verification started on {} with a trigger interval of {} ms.", fullyQualifiedTableName, triggerIntervalInMillis);
+    }
+
+    /**
+     * Lets the streaming query process everything that was committed, stops it and checks the committed transactions.
+     * Call this once the writers finished.
+     */
+    public StreamingVerificationResult finish() {
+        String queryFailure = null;
+        try {
+            query.processAllAvailable();
+        } catch (Exception e) {
+            // A StreamingQueryException, which Scala doesn't declare
+            log.error("Streaming query failed.", e);
+            queryFailure = e.getMessage();
+        }
+        try {
+            query.stop();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Unable to stop the streaming query", e);
+        }
+        return createResult(queryFailure);
+    }
+
+    private synchronized void verifyMicroBatch(List<Row> rows, long batchId) {
+        var arrivalTime = System.currentTimeMillis();
+        microBatches++;
+        indexNewEvents();
+        var rowsByTransaction = new HashMap<Transaction, Integer>();
+        for (var row : rows) {
+            var transaction = transactionsByRow.get(toRowKey(row.getString(0), row.getString(1)));
+            if (transaction == null) {
+                unknownRows++;
+                addFailureExample("Row " + row + " of no transaction arrived in micro-batch " + batchId);
+            } else if (transaction.manipulationType == ManipulationType.INSERT) {
+                rowsByTransaction.merge(transaction, 1, Integer::sum);
+            }
+        }
+        for (var entry : rowsByTransaction.entrySet()) {
+            var transaction = entry.getKey();
+            var numberOfRows = entry.getValue();
+            var previous = streamedTransactions.putIfAbsent(transaction.transactionId, new StreamedTransaction(batchId, arrivalTime));
+            if (previous != null) {
+                duplicatedTransactions++;
+                failedTransactionIds.add(transaction.transactionId);
+                addFailureExample("Transaction " + transaction.transactionId + " arrived in micro-batch " + previous.batchId + " and again in " + batchId);
+            } else if (numberOfRows > transaction.dataManipulations.size()) {
+                duplicatedTransactions++;
+                failedTransactionIds.add(transaction.transactionId);
+                addFailureExample("Transaction " + transaction.transactionId + " arrived with " + numberOfRows + " rows instead of " + transaction.dataManipulations.size() + " in micro-batch " + batchId);
+            } else if (numberOfRows < transaction.dataManipulations.size()) {
+                partialTransactions++;
+                failedTransactionIds.add(transaction.transactionId);
+                addFailureExample("Transaction " + transaction.transactionId + " arrived with " + numberOfRows + " rows instead of " + transaction.dataManipulations.size() + " in micro-batch " + batchId);
+            }
+        }
+        log.info("Acid Verification threadType='streaming' batchId={} rows={} transactions={}", batchId, rows.size(), rowsByTransaction.size());
+    }
+
+    /**
+     * Indexes the rows the intended inserts and updates write, by primary key and data value, which is random.
+     */
+    private void indexNewEvents() {
+        var eventCount = transactionLog.getEventCount();
+        var events = transactionLog.getFirstNEvents(eventCount);
+        for (var event : events.subList(indexedEventCount, eventCount)) {
+            var transaction = event.transaction;
+            if (event.eventType == EventType.TRANSACTION_INTENDED
+                    && (transaction.manipulationType == ManipulationType.INSERT || transaction.manipulationType == ManipulationType.UPDATE)) {
+                for (var dataManipulation : transaction.dataManipulations) {
+                    transactionsByRow.put(toRowKey(dataManipulation.primaryKeyValue, dataManipulation.dataValue), transaction);
+                }
+            }
+        }
+        indexedEventCount = eventCount;
+    }
+
+    private synchronized StreamingVerificationResult createResult(String queryFailure) {
+        var table = loadTable();
+        var commitToVisibilityLatency = new LatencyRecorder();
+        var committedTransactionIds = new HashSet<UUID>();
+        var verifiedTransactions = 0;
+        var missingTransactions = 0;
+        for (var event : transactionLog.getFirstNEvents(transactionLog.getEventCount())) {
+            if (event.eventType != EventType.TRANSACTION_COMMITTED || event.transaction.manipulationType != ManipulationType.INSERT) {
+                continue;
+            }
+            committedTransactionIds.add(event.transaction.transactionId);
+            var streamedTransaction = streamedTransactions.get(event.transaction.transactionId);
+            if (streamedTransaction == null) {
+                missingTransactions++;
+                addFailureExample("Committed transaction " + event.transaction.transactionId + " never arrived");
+                continue;
+            }
+            if (!failedTransactionIds.contains(event.transaction.transactionId)) {
+                verifiedTransactions++;
+            }
+            var latency = Math.max(0, streamedTransaction.arrivalTime - getCommitTime(table, event));
+            commitToVisibilityLatency.record(latency);
+            log.info("Acid Verification threadType='streaming' transactionId={} batchId={} commitToVisibilityLatency={}", event.transaction.transactionId, streamedTransaction.batchId, latency);
+        }
+        var uncommittedTransactions = 0;
+        for (var transactionId : streamedTransactions.keySet()) {
+            if (!committedTransactionIds.contains(transactionId)) {
+                uncommittedTransactions++;
+                addFailureExample("Transaction " + transactionId + " arrived, but never committed");
+            }
+        }
+        return StreamingVerificationResult.create(
+                queryFailure,
+                microBatches,
+                verifiedTransactions,
+                missingTransactions,
+                duplicatedTransactions,
+                partialTransactions,
+                uncommittedTransactions,
+                unknownRows,
+                List.copyOf(failureExamples),
+                commitToVisibilityLatency.summarize()
+        );
+    }
+
+    /**
+     * @return The time of the snapshot the transaction committed, or the time of its commit event when the snapshot is
+     * not known, as the commit event is logged slightly after the commit
+     */
+    private static long getCommitTime(Table table, TransactionLogEvent commitEvent) {
+        var snapshot = commitEvent.snapshotId == null ? null : table.snapshot(commitEvent.snapshotId);
+        return snapshot == null ? commitEvent.timestampInMillis : snapshot.timestampMillis();
+    }
+
+    private void addFailureExample(String failure) {
+        log.error("Streaming verification failed. {}", failure);
+        if (failureExamples.size() < MAXIMUM_NUMBER_OF_EXAMPLES) {
+            failureExamples.add(failure);
+        }
+    }
+
+    private static String toRowKey(String primaryKeyValue, String dataValue) {
+        return primaryKeyValue + '\u0000' + dataValue;
+    }
+
+    private Table loadTable() {
+        try {
+            var table = Spark3Util.loadIcebergTable(session, fullyQualifiedTableName);
+            table.refresh();
+            return table;
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class StreamedTransaction {
+        private final long batchId;
+        private final long arrivalTime;
+
+        private StreamedTransaction(long batchId, long arrivalTime) {
+            this.batchId = batchId;
+            this.arrivalTime = arrivalTime;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.reader;
+
+import org.apache.spark.sql.SparkSession;
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.resultset.ResultSet;
+import org.example.table.PayloadSchema;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads the table for a {@link ReaderThread}. The snapshot that was read is taken from the Iceberg scan report in the
+ * {@link org.example.metrics.MetricsScope} of the read, and the aggregates are read from that same snapshot.
+ */
+public interface TableReader {
+
+    /**
+     * @return The current records of the table, without the records of bulk inserts and the unchanged baseline records
+     */
+    ResultSet readRecords();
+
+    /**
+     * @return The same records as {@link #readRecords()}, of the given snapshot
+     */
+    ResultSet readRecords(long snapshotId);
+
+    Map<String, BulkInsertAggregate> readBulkInsertAggregates(long snapshotId);
+
+    BaselineAggregate readBaselineAggregate(long snapshotId, Collection<String> uncertainPrimaryKeyValues);
+
+    static TableReader create(ReaderBackend readerBackend, SparkSession session, String fullyQualifiedTableName, PayloadSchema payloadSchema) {
+        switch (readerBackend) {
+            case SPARK:
+                return new SparkTableReader(session, fullyQualifiedTableName, payloadSchema);
+            case ICEBERG_GENERICS:
+                return new IcebergGenericsTableReader(session, fullyQualifiedTableName);
+            default:
+                throw new IllegalArgumentException("Unknown readerBackend: " + readerBackend);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.report;
+
+import java.util.Arrays;
+
+/**
+ * Thread safe recorder of latencies, in milliseconds.
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+
+    public synchronized void record(long latencyInMillis) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyInMillis;
+    }
+
+    public synchronized LatencySummary summarize() {
+        var sortedLatencies = Arrays.copyOf(latencies, count);
+        Arrays.sort(sortedLatencies);
+        return LatencySummary.of(sortedLatencies);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.report;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Count, mean and percentiles of a set of latencies, in milliseconds.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "create")
+public class LatencySummary implements Serializable {
+    private final int count;
+    private final double mean;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+    private final long max;
+
+    static LatencySummary of(long[] sortedLatencies) {
+        var count = sortedLatencies.length;
+        if (count == 0) {
+            return create(0, 0, 0, 0, 0, 0);
+        }
+        var sum = 0L;
+        for (var latency : sortedLatencies) {
+            sum += latency;
+        }
+        return create(
+                count,
+                (double) sum / count,
+                percentile(sortedLatencies, 50),
+                percentile(sortedLatencies, 95),
+                percentile(sortedLatencies, 99),
+                sortedLatencies[count - 1]
+        );
+    }
+
+    /**
+     * Nearest-rank percentile.
+     */
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        var rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+        return sortedLatencies[Math.max(rank, 1) - 1];
+    }
+}
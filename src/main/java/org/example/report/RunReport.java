@@ -0,0 +1,77 @@
+package org.example.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.metrics.IcebergMetrics;
+
+import java.io.Serializable;
+
+/**
+ * Summary of a single run of the {@link org.example.writer.TransactionManager}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class RunReport implements Serializable {
+    private final long durationInMillis;
+    private final int committedTransactions;
+    private final long transactionAttempts;
+    private final LatencySummary commitLatency;
+    private final LatencySummary readLatency;
+    /**
+     * Time the multi-table transactions waited for the commit lock, all zero without linked tables.
+     */
+    private final LatencySummary multiTableCommitLockWait;
+    private final int failedVerifications;
+    private final boolean failedThreads;
+    private final int performedMaintenanceActions;
+    private final int failedMaintenanceActions;
+    private final IcebergMetrics icebergMetrics;
+
+    /**
+     * @return The number of committed transactions per second
+     */
+    public double getCommitThroughput() {
+        return durationInMillis == 0 ? 0 : committedTransactions * 1000.0 / durationInMillis;
+    }
+
+    /**
+     * @return The number of verified reads of the readers per second
+     */
+    public double getReadThroughput() {
+        return durationInMillis == 0 ? 0 : readLatency.getCount() * 1000.0 / durationInMillis;
+    }
+
+    /**
+     * @return The size of the files added by the commits in megabytes per second, which includes maintenance commits
+     */
+    public double getCommittedMegabytesPerSecond() {
+        return megabytesPerSecond(icebergMetrics.getAddedFileSizeInBytes());
+    }
+
+    /**
+     * @return The size of the files planned by the scans of the readers and writers in megabytes per second
+     */
+    public double getScannedMegabytesPerSecond() {
+        return megabytesPerSecond(icebergMetrics.getScannedFileSizeInBytes());
+    }
+
+    private double megabytesPerSecond(long bytes) {
+        return durationInMillis == 0 ? 0 : bytes / 1_000_000.0 * 1000.0 / durationInMillis;
+    }
+
+    /**
+     * @return The fraction of transaction attempts that failed and had to be retried
+     */
+    public double getRetryRate() {
+        return transactionAttempts == 0 ? 0 : (double) (transactionAttempts - committedTransactions) / transactionAttempts;
+    }
+
+    /**
+     * @return Whether the run finished without failed verifications and without failing writers or readers
+     */
+    public boolean isAcidVerified() {
+        return failedVerifications == 0 && !failedThreads;
+    }
+}
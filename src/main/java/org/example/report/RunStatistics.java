@@ -0,0 +1,32 @@
+package org.example.report;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics the writers and readers record during a run.
+ */
+@Getter
+public class RunStatistics {
+    private final LatencyRecorder commitLatencies = new LatencyRecorder();
+    private final LatencyRecorder readLatencies = new LatencyRecorder();
+    private final LongAdder transactionAttempts = new LongAdder();
+    /**
+     * How long multi-table transactions waited for the commit lock, the latency cost of their atomicity.
+     */
+    private final LatencyRecorder multiTableCommitLockWaits = new LatencyRecorder();
+
+    public void recordCommit(long durationInMillis, int attempts) {
+        commitLatencies.record(durationInMillis);
+        transactionAttempts.add(attempts);
+    }
+
+    public void recordRead(long durationInMillis) {
+        readLatencies.record(durationInMillis);
+    }
+
+    public void recordMultiTableCommitLockWait(long durationInMillis) {
+        multiTableCommitLockWaits.record(durationInMillis);
+    }
+}
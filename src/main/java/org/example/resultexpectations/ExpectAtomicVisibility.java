@@ -0,0 +1,50 @@
+package org.example.resultexpectations;
+
+import lombok.ToString;
+import org.example.resultset.ResultSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expectation that a transaction which may or may not be visible in the {@link ResultSet} is visible for all of its
+ * records or for none of them. Every record has an expectation for the transaction being applied and one for it not
+ * being applied yet. Records for which both or neither are satisfied don't tell whether the transaction is visible.
+ */
+@ToString
+public class ExpectAtomicVisibility implements Expectation {
+    private final UUID transactionId;
+    private final List<Expectation> appliedExpectations = new ArrayList<>();
+    private final List<Expectation> notAppliedExpectations = new ArrayList<>();
+
+    private ExpectAtomicVisibility(UUID transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public static ExpectAtomicVisibility create(UUID transactionId) {
+        return new ExpectAtomicVisibility(transactionId);
+    }
+
+    public void addRecord(Expectation appliedExpectation, Expectation notAppliedExpectation) {
+        appliedExpectations.add(appliedExpectation);
+        notAppliedExpectations.add(notAppliedExpectation);
+    }
+
+    public int getRecordCount() {
+        return appliedExpectations.size();
+    }
+
+    @Override
+    public boolean isSatisfied(ResultSet resultSet) {
+        var seenApplied = false;
+        var seenNotApplied = false;
+        for (var recordNumber = 0; recordNumber < appliedExpectations.size(); recordNumber++) {
+            var applied = appliedExpectations.get(recordNumber).isSatisfied(resultSet);
+            var notApplied = notAppliedExpectations.get(recordNumber).isSatisfied(resultSet);
+            seenApplied = seenApplied || (applied && !notApplied);
+            seenNotApplied = seenNotApplied || (notApplied && !applied);
+        }
+        return !(seenApplied && seenNotApplied);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.resultexpectations;
+
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.BulkInsertSpec;
+
+/**
+ * Expectation that no record of the bulk insert is present in the {@link ResultSet}
+ */
+@AllArgsConstructor(staticName = "create")
+@ToString
+public class ExpectBulkInsertAbsence implements Expectation {
+    private final BulkInsertSpec bulkInsertSpecExpectedToBeAbsent;
+
+    @Override
+    public boolean isSatisfied(ResultSet resultSet) {
+        return resultSet.getBulkInsertAggregate(bulkInsertSpecExpectedToBeAbsent.getBulkInsertKey()).isEmpty();
+    }
+}
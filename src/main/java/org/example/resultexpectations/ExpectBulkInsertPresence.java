@@ -0,0 +1,23 @@
+package org.example.resultexpectations;
+
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.BulkInsertSpec;
+
+/**
+ * Expectation that all records of the bulk insert are present in the {@link ResultSet} exactly once, with the values
+ * of the {@link BulkInsertSpec}
+ */
+@AllArgsConstructor(staticName = "create")
+@ToString
+public class ExpectBulkInsertPresence implements Expectation {
+    private final BulkInsertSpec bulkInsertSpecExpectedToBePresent;
+
+    @Override
+    public boolean isSatisfied(ResultSet resultSet) {
+        return resultSet.getBulkInsertAggregate(bulkInsertSpecExpectedToBePresent.getBulkInsertKey())
+                .map(bulkInsertAggregate -> bulkInsertAggregate.matches(bulkInsertSpecExpectedToBePresent))
+                .orElse(false);
+    }
+}
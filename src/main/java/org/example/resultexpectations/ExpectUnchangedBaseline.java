@@ -0,0 +1,57 @@
+package org.example.resultexpectations;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.BaselineSpec;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Expectation that the baseline records no transaction touched are present in the {@link ResultSet} exactly once,
+ * with their baseline values. The touched baseline records have expectations of their own.
+ */
+@ToString
+public class ExpectUnchangedBaseline implements Expectation {
+    private final BaselineSpec baselineSpec;
+    private final long expectedNumberOfRecords;
+    private final long expectedChecksum;
+    /**
+     * Touched baseline records that may still have their baseline value, which the result set should hold as records.
+     */
+    @Getter
+    @ToString.Exclude
+    private final Set<String> uncertainPrimaryKeyValues;
+
+    private ExpectUnchangedBaseline(BaselineSpec baselineSpec, long expectedNumberOfRecords, long expectedChecksum, Set<String> uncertainPrimaryKeyValues) {
+        this.baselineSpec = baselineSpec;
+        this.expectedNumberOfRecords = expectedNumberOfRecords;
+        this.expectedChecksum = expectedChecksum;
+        this.uncertainPrimaryKeyValues = uncertainPrimaryKeyValues;
+    }
+
+    /**
+     * @param touchedPrimaryKeyValues   The baseline records manipulated by a transaction, committed or not
+     * @param uncertainPrimaryKeyValues The touched baseline records of which a transaction may or may not be visible
+     */
+    public static ExpectUnchangedBaseline create(BaselineSpec baselineSpec, Collection<String> touchedPrimaryKeyValues, Set<String> uncertainPrimaryKeyValues) {
+        var checksumOfTouchedRecords = 0L;
+        for (var primaryKeyValue : touchedPrimaryKeyValues) {
+            checksumOfTouchedRecords += baselineSpec.getChecksum(primaryKeyValue);
+        }
+        return new ExpectUnchangedBaseline(
+                baselineSpec,
+                baselineSpec.numberOfRecords - touchedPrimaryKeyValues.size(),
+                baselineSpec.getChecksum() - checksumOfTouchedRecords,
+                uncertainPrimaryKeyValues
+        );
+    }
+
+    @Override
+    public boolean isSatisfied(ResultSet resultSet) {
+        return resultSet.getBaselineAggregate()
+                .map(baselineAggregate -> baselineAggregate.matches(expectedNumberOfRecords, expectedChecksum))
+                .orElse(false);
+    }
+}
@@ -1,10 +1,12 @@
 package org.example.resultexpectations;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.ToString;
 import org.example.resultset.ResultSet;
 
 @AllArgsConstructor(staticName = "create")
+@Getter
 @ToString
 public class Or implements Expectation {
 
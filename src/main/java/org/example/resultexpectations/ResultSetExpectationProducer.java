@@ -2,12 +2,17 @@ package org.example.resultexpectations;
 
 import lombok.Getter;
 import org.example.resultset.Record;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.BulkInsertSpec;
 import org.example.transactionlog.DataManipulation;
 import org.example.transactionlog.EventType;
 import org.example.transactionlog.TransactionLog;
 import org.example.transactionlog.TransactionLogEvent;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -20,11 +25,42 @@ public class ResultSetExpectationProducer {
     }
 
     public ResultSetExpectations createResultSetExpectations(int eventCountBeforeRead, int eventCountAfterRead) {
+        return createResultSetExpectations(eventCountBeforeRead, eventCountAfterRead, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates the expectations of a read that may be stale. Only the transactions that were logged as committed before
+     * {@code requiredCommitTimeInMillis} must be visible, later ones may or may not be. Either way, a transaction must
+     * be visible for all of its records or for none of them.
+     */
+    public ResultSetExpectations createResultSetExpectations(int eventCountBeforeRead, int eventCountAfterRead, long requiredCommitTimeInMillis) {
         var expectations = new ResultSetExpectations();
-        var eventFilter = new EventFilter(eventCountBeforeRead, eventCountAfterRead);
+        var eventFilter = new EventFilter(eventCountBeforeRead, eventCountAfterRead, requiredCommitTimeInMillis);
+        BaselineSpec baselineSpec = null;
+        var touchedBaselinePrimaryKeyValues = new HashSet<String>();
+        var uncertainBaselinePrimaryKeyValues = new HashSet<String>();
         for (var event : eventFilter.getIntendedEvents()) {
             var isCommittedBeforeRead = eventFilter.isCommittedBeforeRead(event);
+            if (event.transaction.baselineSpec != null) {
+                // Logged as committed before the readers and writers start
+                baselineSpec = event.transaction.baselineSpec;
+                continue;
+            }
+            if (event.transaction.bulkInsertSpec != null) {
+                var bulkInsertSpec = event.transaction.bulkInsertSpec;
+                expectations.setBulkInsertExpectation(bulkInsertSpec.getBulkInsertKey(), createBulkInsertExpectation(bulkInsertSpec, isCommittedBeforeRead));
+                continue;
+            }
+            var atomicVisibility = ExpectAtomicVisibility.create(event.transaction.transactionId);
             for (var dataManipulation : event.transaction.dataManipulations) {
+                if (baselineSpec != null && baselineSpec.isBaselineKey(dataManipulation.primaryKeyValue)) {
+                    if (touchedBaselinePrimaryKeyValues.add(dataManipulation.primaryKeyValue)) {
+                        expectations.setRecordExpectation(dataManipulation.primaryKeyValue, createBaselineExpectation(baselineSpec, dataManipulation.primaryKeyValue));
+                    }
+                    if (!isCommittedBeforeRead) {
+                        uncertainBaselinePrimaryKeyValues.add(dataManipulation.primaryKeyValue);
+                    }
+                }
                 Expectation expectation = null;
                 switch (event.transaction.manipulationType) {
                     case INSERT:
@@ -40,11 +76,30 @@ public class ResultSetExpectationProducer {
                         throw new IllegalStateException("Kaput!");
                 }
                 expectations.setRecordExpectation(dataManipulation.primaryKeyValue, expectation);
+                if (!isCommittedBeforeRead && eventFilter.isOnlyUncertainManipulation(event, dataManipulation)) {
+                    // Created by the or() of one of the create methods: the state before the transaction, or after it
+                    var uncertainExpectation = (Or) expectation;
+                    atomicVisibility.addRecord(uncertainExpectation.getRight(), uncertainExpectation.getLeft());
+                }
+            }
+            if (atomicVisibility.getRecordCount() > 1) {
+                expectations.addTransactionExpectation(atomicVisibility);
             }
         }
+        if (baselineSpec != null) {
+            expectations.setBaselineExpectation(ExpectUnchangedBaseline.create(baselineSpec, touchedBaselinePrimaryKeyValues, uncertainBaselinePrimaryKeyValues));
+        }
         return expectations;
     }
 
+    /**
+     * The state of a baseline record before the first transaction that touches it.
+     */
+    private static Expectation createBaselineExpectation(final BaselineSpec baselineSpec, final String primaryKeyValue) {
+        var recordNumber = baselineSpec.getRecordNumber(primaryKeyValue);
+        return ExpectRecordPresence.create(new Record(primaryKeyValue, baselineSpec.getPartitionKeyValue(recordNumber), baselineSpec.getDataValue(recordNumber)));
+    }
+
     private static Expectation createInsertExpectation(final ResultSetExpectations expectations, final DataManipulation dataManipulation, final boolean isCommittedBeforeRead) {
         var insertedRecord = new Record(dataManipulation.primaryKeyValue, dataManipulation.partitionKeyValue, dataManipulation.dataValue);
         var insertSucceededExpectation = ExpectRecordPresence.create(insertedRecord);
@@ -57,6 +112,18 @@ public class ResultSetExpectationProducer {
         }
     }
 
+    /**
+     * A bulk insert is verified as a whole: all of its records are present, or none of them.
+     */
+    private static Expectation createBulkInsertExpectation(final BulkInsertSpec bulkInsertSpec, final boolean isCommittedBeforeRead) {
+        var bulkInsertSucceededExpectation = ExpectBulkInsertPresence.create(bulkInsertSpec);
+        if (isCommittedBeforeRead) {
+            return bulkInsertSucceededExpectation;
+        } else {
+            return ExpectBulkInsertAbsence.create(bulkInsertSpec).or(bulkInsertSucceededExpectation);
+        }
+    }
+
     private static Expectation createUpdateExpectation(final ResultSetExpectations expectations, final DataManipulation dataManipulation, final boolean isCommittedBeforeRead) {
         var updatedRecord = new Record(dataManipulation.primaryKeyValue, dataManipulation.partitionKeyValue, dataManipulation.dataValue);
         var updateSucceededExpectation = ExpectRecordPresence.create(updatedRecord);
@@ -85,8 +152,10 @@ public class ResultSetExpectationProducer {
         @Getter
         private final List<TransactionLogEvent> intendedEvents;
         private final Set<UUID> committedTransactionsBeforeRead;
+        private final Map<String, UUID> lastTransactionByPrimaryKeyValue = new HashMap<>();
+        private final Map<String, Integer> uncertainManipulationCountByPrimaryKeyValue = new HashMap<>();
 
-        EventFilter(int eventCountBeforeRead, int eventCountAfterRead) {
+        EventFilter(int eventCountBeforeRead, int eventCountAfterRead, long requiredCommitTimeInMillis) {
             var events = transactionLog.getFirstNEvents(eventCountAfterRead);
             this.intendedEvents = events.stream()
                     .filter(event -> event.eventType == EventType.TRANSACTION_INTENDED)
@@ -94,13 +163,33 @@ public class ResultSetExpectationProducer {
             this.committedTransactionsBeforeRead = events.stream()
                     .limit(eventCountBeforeRead)
                     .filter(event -> event.eventType == EventType.TRANSACTION_COMMITTED)
+                    .filter(event -> event.timestampInMillis < requiredCommitTimeInMillis)
                     .map(event -> event.transaction.transactionId)
                     .collect(Collectors.toSet());
+            for (var event : intendedEvents) {
+                var isCommittedBeforeRead = isCommittedBeforeRead(event);
+                for (var dataManipulation : event.transaction.dataManipulations) {
+                    lastTransactionByPrimaryKeyValue.put(dataManipulation.primaryKeyValue, event.transaction.transactionId);
+                    if (!isCommittedBeforeRead) {
+                        uncertainManipulationCountByPrimaryKeyValue.merge(dataManipulation.primaryKeyValue, 1, Integer::sum);
+                    }
+                }
+            }
         }
 
         boolean isCommittedBeforeRead(TransactionLogEvent event) {
             return committedTransactionsBeforeRead.contains(event.transaction.transactionId);
         }
+
+        /**
+         * @return Whether the record is manipulated by no other transaction that may or may not be visible, and by
+         * no transaction after this one. Only then the record tells exactly whether this transaction is visible.
+         */
+        boolean isOnlyUncertainManipulation(TransactionLogEvent event, DataManipulation dataManipulation) {
+            var primaryKeyValue = dataManipulation.primaryKeyValue;
+            return uncertainManipulationCountByPrimaryKeyValue.getOrDefault(primaryKeyValue, 0) == 1
+                    && event.transaction.transactionId.equals(lastTransactionByPrimaryKeyValue.get(primaryKeyValue));
+        }
     }
 
 }
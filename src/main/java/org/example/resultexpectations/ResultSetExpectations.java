@@ -2,21 +2,65 @@ package org.example.resultexpectations;
 
 import org.example.resultset.ResultSet;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class ResultSetExpectations {
     private final Map<String, Expectation> expectationPerPrimaryKeyValue = new HashMap<>();
+    private final List<Expectation> transactionExpectations = new ArrayList<>();
+    private boolean bulkInsertsExpected;
+    private ExpectUnchangedBaseline baselineExpectation;
 
     public void setRecordExpectation(String primaryKeyValue, Expectation expectation) {
         expectationPerPrimaryKeyValue.put(primaryKeyValue, expectation);
     }
 
+    /**
+     * Sets the expectation on the records of a bulk insert, which are verified by the aggregates of the
+     * {@link ResultSet} instead of record by record.
+     */
+    public void setBulkInsertExpectation(String bulkInsertKey, Expectation expectation) {
+        expectationPerPrimaryKeyValue.put(bulkInsertKey, expectation);
+        bulkInsertsExpected = true;
+    }
+
+    /**
+     * @return Whether bulk inserts may be visible, so the result set needs the aggregates of the bulk inserts
+     */
+    public boolean areBulkInsertsExpected() {
+        return bulkInsertsExpected;
+    }
+
+    /**
+     * Sets the expectation on the baseline records no transaction touched, which are verified by the aggregate of the
+     * {@link ResultSet} instead of record by record.
+     */
+    public void setBaselineExpectation(ExpectUnchangedBaseline baselineExpectation) {
+        this.baselineExpectation = baselineExpectation;
+    }
+
+    /**
+     * @return The expectation on the unchanged baseline records, when the table was pre-populated, so the result set
+     * needs the aggregate of the baseline records
+     */
+    public Optional<ExpectUnchangedBaseline> getBaselineExpectation() {
+        return Optional.ofNullable(baselineExpectation);
+    }
+
     public Optional<Expectation> getRecordExpectation(String primaryKeyValue) {
         return Optional.ofNullable(expectationPerPrimaryKeyValue.get(primaryKeyValue));
     }
 
+    /**
+     * Adds an expectation that spans the records of a whole transaction, like {@link ExpectAtomicVisibility}.
+     */
+    public void addTransactionExpectation(Expectation expectation) {
+        transactionExpectations.add(expectation);
+    }
+
     public boolean isStatisfied(ResultSet resultSet) {
         var satisfied = true;
 
@@ -28,6 +72,18 @@ public class ResultSetExpectations {
             }
         }
 
+        for (Expectation expectation : transactionExpectations) {
+            if (!expectation.isSatisfied(resultSet)) {
+                System.err.println("Transaction expectation not satisfied: " + expectation);
+                satisfied = false;
+            }
+        }
+
+        if (baselineExpectation != null && !baselineExpectation.isSatisfied(resultSet)) {
+            System.err.println("Baseline expectation not satisfied: " + baselineExpectation + ", found " + resultSet.getBaselineAggregate().orElse(null));
+            satisfied = false;
+        }
+
         // Check no other primary key value
         var primaryKeyValuesWithExpectations = expectationPerPrimaryKeyValue.keySet();
         for (var r : resultSet.getRecords()) {
@@ -36,6 +92,16 @@ public class ResultSetExpectations {
                 satisfied = false;
             }
         }
+        for (var primaryKeyValue : resultSet.getPrimaryKeyValuesWithMismatchingPayload()) {
+            System.err.println("Payload doesn't match the record in the result set: " + primaryKeyValue);
+            satisfied = false;
+        }
+        for (var bulkInsertKey : resultSet.getBulkInsertAggregates().keySet()) {
+            if (!primaryKeyValuesWithExpectations.contains(bulkInsertKey)) {
+                System.err.println("Unexpected bulk insert in the result set: " + bulkInsertKey);
+                satisfied = false;
+            }
+        }
 
         return satisfied;
     }
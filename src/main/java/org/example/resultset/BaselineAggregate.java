@@ -0,0 +1,69 @@
+package org.example.resultset;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.example.table.PayloadSchema;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.BulkInsertSpec;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Number of records and checksum of the rows of a table that still have their baseline value, see
+ * {@link BaselineSpec}. The rows of the baseline records that a transaction may or may not have changed yet are not
+ * aggregated, but read as records.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "create")
+public class BaselineAggregate implements Serializable {
+    /**
+     * Predicate on the rows that don't have their baseline value, which are read as records.
+     */
+    public static final String NOT_UNCHANGED_BASELINE_PREDICATE = "NOT (" + BaselineSpec.UNCHANGED_PREDICATE + ")";
+
+    private final long numberOfRecords;
+    private final long checksum;
+    private final long recordsWithMismatchingPayload;
+    @ToString.Exclude
+    private final List<Record> uncertainRecords;
+
+    public boolean matches(long expectedNumberOfRecords, long expectedChecksum) {
+        return numberOfRecords == expectedNumberOfRecords && checksum == expectedChecksum && recordsWithMismatchingPayload == 0;
+    }
+
+    /**
+     * Aggregates the unchanged baseline rows of a snapshot of the table on the executors, in a single scan.
+     *
+     * @param uncertainPrimaryKeyValues The baseline records that may or may not have been changed, which are returned as
+     *                                  {@link #uncertainRecords} instead of being aggregated
+     */
+    public static BaselineAggregate read(SparkSession session, String fullyQualifiedTableName, PayloadSchema payloadSchema, long snapshotId, Collection<String> uncertainPrimaryKeyValues) {
+        var uncertain = uncertainPrimaryKeyValues.isEmpty()
+                ? "false"
+                : uncertainPrimaryKeyValues.stream().collect(Collectors.joining("', '", "primaryKeyValue IN ('", "')"));
+        var payloadMismatches = payloadSchema.isEmpty() ? "0L" : "count_if(NOT (" + payloadSchema.getPayloadMatchesExpression() + "))";
+        var row = session.sql(
+                "SELECT count_if(NOT uncertain), coalesce(sum(IF(uncertain, 0L, " + BulkInsertSpec.CHECKSUM_EXPRESSION + ")), 0L), " + payloadMismatches + ", " +
+                        "collect_list(IF(uncertain, struct(" + Record.COLUMNS + "), NULL))" +
+                        " FROM (SELECT *, " + uncertain + " AS uncertain" +
+                        " FROM " + fullyQualifiedTableName + " VERSION AS OF " + snapshotId +
+                        " WHERE " + BaselineSpec.UNCHANGED_PREDICATE + ")"
+        ).collectAsList().get(0);
+        var uncertainRows = row.<Row>getList(3);
+        var uncertainRecords = new ArrayList<Record>(uncertainRows.size());
+        for (var uncertainRow : uncertainRows) {
+            uncertainRecords.add(Record.fromRow(uncertainRow));
+        }
+        return create(row.getLong(0), row.getLong(1), row.getLong(2), uncertainRecords);
+    }
+}
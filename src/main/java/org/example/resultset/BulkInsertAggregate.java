@@ -0,0 +1,55 @@
+package org.example.resultset;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.spark.sql.SparkSession;
+import org.example.table.PayloadSchema;
+import org.example.transactionlog.BulkInsertSpec;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of records and checksum of the rows of one bulk insert found in a table, see {@link BulkInsertSpec}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "create")
+public class BulkInsertAggregate implements Serializable {
+    /**
+     * Predicate on the rows that are not part of a bulk insert.
+     */
+    public static final String NOT_BULK_INSERT_PREDICATE = "primaryKeyValue NOT LIKE '" + BulkInsertSpec.KEY_PREFIX + "%'";
+
+    private final long numberOfRecords;
+    private final long checksum;
+    private final long recordsWithMismatchingPayload;
+
+    public boolean matches(BulkInsertSpec bulkInsertSpec) {
+        return numberOfRecords == bulkInsertSpec.numberOfRecords && checksum == bulkInsertSpec.getChecksum() && recordsWithMismatchingPayload == 0;
+    }
+
+    /**
+     * Aggregates the rows of the bulk inserts in a snapshot of the table on the executors.
+     *
+     * @return The aggregates by {@link BulkInsertSpec#getBulkInsertKey()}
+     */
+    public static Map<String, BulkInsertAggregate> readAll(SparkSession session, String fullyQualifiedTableName, PayloadSchema payloadSchema, long snapshotId) {
+        var payloadMismatches = payloadSchema.isEmpty() ? "0L" : "count_if(NOT (" + payloadSchema.getPayloadMatchesExpression() + "))";
+        var rows = session.sql(
+                "SELECT " + BulkInsertSpec.BULK_INSERT_KEY_EXPRESSION + ", count(*), sum(" + BulkInsertSpec.CHECKSUM_EXPRESSION + "), " + payloadMismatches +
+                        " FROM " + fullyQualifiedTableName + " VERSION AS OF " + snapshotId +
+                        " WHERE NOT (" + NOT_BULK_INSERT_PREDICATE + ")" +
+                        " GROUP BY 1"
+        ).collectAsList();
+        var aggregates = new HashMap<String, BulkInsertAggregate>();
+        for (var row : rows) {
+            aggregates.put(row.getString(0), create(row.getLong(1), row.getLong(2), row.getLong(3)));
+        }
+        return aggregates;
+    }
+}
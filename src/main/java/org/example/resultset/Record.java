@@ -3,6 +3,10 @@ package org.example.resultset;
 import lombok.*;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
 
 import java.io.Serializable;
 
@@ -13,6 +17,24 @@ import java.io.Serializable;
 @Getter
 @Setter
 public class Record implements Serializable {
+    public static final int PRIMARY_KEY_VALUE_ORDINAL = 0;
+    public static final int PARTITION_KEY_VALUE_ORDINAL = 1;
+    public static final int DATA_VALUE_ORDINAL = 2;
+
+    /**
+     * Schema of the record columns, in ordinal order. Used to convert between {@link Row}s and {@link Record}s by
+     * ordinal, which avoids the reflection of the bean encoder.
+     */
+    public static final StructType SCHEMA = new StructType()
+            .add("primaryKeyValue", DataTypes.StringType, false)
+            .add("partitionKeyValue", DataTypes.StringType, false)
+            .add("dataValue", DataTypes.StringType, true);
+
+    /**
+     * Column list matching the ordinals of {@link #SCHEMA}, to be used in SELECT statements.
+     */
+    public static final String COLUMNS = String.join(", ", SCHEMA.fieldNames());
+
     @NonNull
     @EqualsAndHashCode.Include
     private String primaryKeyValue;
@@ -28,4 +50,19 @@ public class Record implements Serializable {
         return Encoders.bean(Record.class);
     }
 
+    /**
+     * Creates a record from a row of which the first columns match {@link #SCHEMA}.
+     */
+    public static Record fromRow(Row row) {
+        return new Record(
+                row.getString(PRIMARY_KEY_VALUE_ORDINAL),
+                row.getString(PARTITION_KEY_VALUE_ORDINAL),
+                row.getString(DATA_VALUE_ORDINAL)
+        );
+    }
+
+    public Row toRow() {
+        return RowFactory.create(primaryKeyValue, partitionKeyValue, dataValue);
+    }
+
 }
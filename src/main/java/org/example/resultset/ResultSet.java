@@ -3,36 +3,123 @@ package org.example.resultset;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import org.apache.spark.sql.Row;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @EqualsAndHashCode
 @ToString(onlyExplicitlyIncluded = true)
 public class ResultSet {
+    private static final int PAYLOAD_MATCHES_ORDINAL = Record.SCHEMA.size();
 
     @Getter
     @ToString.Include
     private final List<Record> records;
-    private final Map<String, List<Record>> recordByPrimaryKey;
+    private final Map<String, Record> recordByPrimaryKey;
+    private final Map<String, List<Record>> duplicateRecordsByPrimaryKey;
+    /**
+     * The bulk inserts found, by bulk insert key. Their records are not part of {@link #records}.
+     */
+    @Getter
+    @ToString.Include
+    private final Map<String, BulkInsertAggregate> bulkInsertAggregates;
+    /**
+     * Primary key values of the rows of which the payload columns don't match the record.
+     */
+    @Getter
+    @ToString.Include
+    private final List<String> primaryKeyValuesWithMismatchingPayload;
+    /**
+     * The unchanged baseline records found, which are not part of {@link #records}. Null when not read.
+     */
+    @ToString.Include
+    private final BaselineAggregate baselineAggregate;
 
     public ResultSet(final List<Record> records) {
+        this(records, Map.of());
+    }
+
+    public ResultSet(final List<Record> records, final Map<String, BulkInsertAggregate> bulkInsertAggregates) {
+        this(records, bulkInsertAggregates, List.of());
+    }
+
+    public ResultSet(final List<Record> records, final Map<String, BulkInsertAggregate> bulkInsertAggregates, final List<String> primaryKeyValuesWithMismatchingPayload) {
+        this(records, bulkInsertAggregates, primaryKeyValuesWithMismatchingPayload, null);
+    }
+
+    public ResultSet(final List<Record> records, final Map<String, BulkInsertAggregate> bulkInsertAggregates, final List<String> primaryKeyValuesWithMismatchingPayload, final BaselineAggregate baselineAggregate) {
         this.records = records;
-        this.recordByPrimaryKey = records.stream().collect(Collectors.groupingBy(Record::getPrimaryKeyValue));
+        this.bulkInsertAggregates = bulkInsertAggregates;
+        this.primaryKeyValuesWithMismatchingPayload = primaryKeyValuesWithMismatchingPayload;
+        this.baselineAggregate = baselineAggregate;
+        this.recordByPrimaryKey = new HashMap<>(records.size() * 2);
+        this.duplicateRecordsByPrimaryKey = new HashMap<>();
+        for (var record : records) {
+            indexRecord(record);
+        }
+    }
+
+    /**
+     * Creates a result set from rows of which the first columns match {@link Record#SCHEMA}, reading the columns by
+     * ordinal instead of going through the bean encoder. When the rows have a column after those, it tells whether
+     * the payload of the row matches the record.
+     */
+    public static ResultSet fromRows(final List<Row> rows) {
+        var records = new ArrayList<Record>(rows.size());
+        var primaryKeyValuesWithMismatchingPayload = new ArrayList<String>();
+        for (var row : rows) {
+            var record = Record.fromRow(row);
+            records.add(record);
+            if (row.length() > PAYLOAD_MATCHES_ORDINAL && !row.getBoolean(PAYLOAD_MATCHES_ORDINAL)) {
+                primaryKeyValuesWithMismatchingPayload.add(record.getPrimaryKeyValue());
+            }
+        }
+        return new ResultSet(records, Map.of(), primaryKeyValuesWithMismatchingPayload);
+    }
+
+    private void indexRecord(Record record) {
+        var primaryKeyValue = record.getPrimaryKeyValue();
+        var existingRecord = recordByPrimaryKey.putIfAbsent(primaryKeyValue, record);
+        if (existingRecord != null) {
+            duplicateRecordsByPrimaryKey
+                    .computeIfAbsent(primaryKeyValue, key -> new ArrayList<>(List.of(existingRecord)))
+                    .add(record);
+        }
+    }
+
+    public ResultSet withBulkInsertAggregates(final Map<String, BulkInsertAggregate> bulkInsertAggregates) {
+        return new ResultSet(records, bulkInsertAggregates, primaryKeyValuesWithMismatchingPayload, baselineAggregate);
+    }
+
+    /**
+     * @return This result set with the aggregate of the unchanged baseline records, and with the uncertain records of
+     * the aggregate added to the records
+     */
+    public ResultSet withBaselineAggregate(final BaselineAggregate baselineAggregate) {
+        var allRecords = new ArrayList<Record>(records.size() + baselineAggregate.getUncertainRecords().size());
+        allRecords.addAll(records);
+        allRecords.addAll(baselineAggregate.getUncertainRecords());
+        return new ResultSet(allRecords, bulkInsertAggregates, primaryKeyValuesWithMismatchingPayload, baselineAggregate);
+    }
+
+    public Optional<BaselineAggregate> getBaselineAggregate() {
+        return Optional.ofNullable(baselineAggregate);
+    }
+
+    public Optional<BulkInsertAggregate> getBulkInsertAggregate(String bulkInsertKey) {
+        return Optional.ofNullable(bulkInsertAggregates.get(bulkInsertKey));
     }
 
     public Optional<Record> getRecordByPrimaryKey(String primaryKeyValue) {
-        var matchingRecords = recordByPrimaryKey.getOrDefault(primaryKeyValue, List.of());
-        switch (matchingRecords.size()) {
-            case 0:
-                return Optional.empty();
-            case 1:
-                return Optional.of(matchingRecords.get(0));
-            default:
-                throw new InconsistentResultSetException("More than one row found with primaryKeyValue " + primaryKeyValue + ". Rows found:\n" + matchingRecords);
+        var duplicateRecords = duplicateRecordsByPrimaryKey.get(primaryKeyValue);
+        if (duplicateRecords != null) {
+            throw new InconsistentResultSetException("More than one row found with primaryKeyValue " + primaryKeyValue + ". Rows found:\n" + duplicateRecords);
         }
+        return Optional.ofNullable(recordByPrimaryKey.get(primaryKeyValue));
     }
 
 }
@@ -0,0 +1,46 @@
+package org.example.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.transactionlog.TransactionLogEvent;
+import org.example.writer.Configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything needed to replay a run: its configuration, the transaction log in the order it was written, which writer
+ * took which transaction, and the verifications of the readers. The commit order of the transactions is the order of
+ * the sequence numbers in their commit events.
+ */
+@Getter
+@AllArgsConstructor(staticName = "create")
+public class Schedule implements Serializable {
+    private final Configuration configuration;
+    private final List<TransactionLogEvent> transactionLogEvents;
+    private final Map<UUID, String> writerNamesByTransactionId;
+    private final List<ScheduledRead> reads;
+
+    public void write(Path scheduleFile) throws IOException {
+        try (var output = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(scheduleFile)))) {
+            output.writeObject(this);
+        }
+    }
+
+    public static Schedule read(Path scheduleFile) throws IOException {
+        try (var input = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(scheduleFile)))) {
+            return (Schedule) input.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Invalid schedule file " + scheduleFile, e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.schedule;
+
+import org.example.transactionlog.Transaction;
+import org.example.transactionlog.TransactionLog;
+import org.example.writer.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the schedule of a run while it runs. The transaction log itself already holds the order of the intents and
+ * commits, so it is only added to the {@link Schedule} at the end.
+ */
+public class ScheduleRecorder {
+    private final Map<UUID, String> writerNamesByTransactionId = new ConcurrentHashMap<>();
+    private final List<ScheduledRead> reads = new ArrayList<>();
+
+    /**
+     * Records that the current thread took the transaction. For worker processes, that is the thread of the
+     * coordinator serving the worker process.
+     */
+    public void recordTake(Transaction transaction) {
+        writerNamesByTransactionId.put(transaction.transactionId, Thread.currentThread().getName());
+    }
+
+    public synchronized void recordRead(ScheduledRead read) {
+        reads.add(read);
+    }
+
+    public synchronized Schedule toSchedule(Configuration configuration, TransactionLog transactionLog) {
+        return Schedule.create(
+                configuration,
+                transactionLog.getFirstNEvents(transactionLog.getEventCount()),
+                Map.copyOf(writerNamesByTransactionId),
+                List.copyOf(reads)
+        );
+    }
+}
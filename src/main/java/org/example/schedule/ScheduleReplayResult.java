@@ -0,0 +1,34 @@
+package org.example.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of the {@link ScheduleReplayer}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class ScheduleReplayResult {
+    private final int replayedTransactions;
+    private final int replayedReads;
+    /**
+     * Reads of a snapshot that can't be mapped to a replayed snapshot, like a snapshot of a maintenance action that
+     * was no longer in the table metadata.
+     */
+    private final int unmappedReads;
+    private final int failedReads;
+    private final int recordedFailedReads;
+    private final List<String> failureExamples;
+    private final long durationInMillis;
+
+    /**
+     * @return Whether the recorded run failed a verification and the replay failed one as well
+     */
+    public boolean isFailureReproduced() {
+        return recordedFailedReads > 0 && failedReads > 0;
+    }
+}
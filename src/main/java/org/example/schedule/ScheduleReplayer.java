@@ -0,0 +1,211 @@
+package org.example.schedule;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.spark.sql.SparkSession;
+import org.example.catalog.CatalogType;
+import org.example.metrics.IcebergMetrics;
+import org.example.reader.TableReader;
+import org.example.report.RunStatistics;
+import org.example.resultexpectations.ResultSetExpectationProducer;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.EventType;
+import org.example.transactionlog.InMemoryTransactionLog;
+import org.example.transactionlog.TransactionLogEvent;
+import org.example.writer.Configuration;
+import org.example.writer.RunContext;
+import org.example.writer.TransactionManager;
+import org.example.writer.TransactionWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a recorded {@link Schedule} against a fresh table, on a single thread, to reproduce a failed verification
+ * without rerunning the whole workload.
+ * <p>
+ * The transactions are committed one by one, by a {@link TransactionWriter}, in the order of the sequence numbers they
+ * were committed with. Every recorded read is then replayed on the replayed snapshot with the same contents as the
+ * snapshot it read, with the expectations of the same window of the recorded transaction log. Maintenance actions
+ * aren't replayed, as they don't change the contents of the table, and neither are the monotonic read checks.
+ */
+@Slf4j
+public class ScheduleReplayer {
+    private static final int MAXIMUM_NUMBER_OF_EXAMPLES = 10;
+
+    private final SparkSession session;
+    private final Configuration configuration;
+
+    /**
+     * @param configuration The configuration of the table to replay on, usually the {@link Schedule#getConfiguration()
+     *                      recorded configuration} with a local catalog
+     */
+    public ScheduleReplayer(SparkSession session, Configuration configuration) {
+        this.session = session;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Replays a schedule file in a separate process, on a local Spark session and a {@link CatalogType#HADOOP} catalog,
+     * whatever the catalog of the recorded run was.
+     *
+     * @param args The schedule file and the warehouse location of the replayed table
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ScheduleReplayer <schedule file> <warehouse location>");
+            System.exit(2);
+        }
+        var schedule = Schedule.read(Path.of(args[0]));
+        var configuration = schedule.getConfiguration()
+                .withCatalogType(CatalogType.HADOOP)
+                .withCatalogName("acid_replay")
+                .withWarehouseLocation(args[1]);
+        var session = SparkSession.builder()
+                .appName("acid-verification-replay")
+                .master("local[*]")
+                .config("spark.sql.extensions", "org.apache.iceberg.spark.extensions.IcebergSparkSessionExtensions")
+                .config("spark.ui.enabled", "false")
+                .getOrCreate();
+        ScheduleReplayResult result;
+        try {
+            result = new ScheduleReplayer(session, configuration).replay(schedule);
+        } finally {
+            session.stop();
+        }
+        System.out.println("ACID Verification replay! failureReproduced=" + result.isFailureReproduced() + " " + result);
+        System.exit(result.getFailedReads() == 0 ? 0 : 1);
+    }
+
+    public ScheduleReplayResult replay(Schedule schedule) {
+        var timeBeforeReplay = System.currentTimeMillis();
+        new TransactionManager(configuration, session).createTable();
+        var commitEvents = getCommitEventsInCommitOrder(schedule.getTransactionLogEvents());
+        var replayedSnapshotIds = commitInOrder(commitEvents);
+
+        var transactionLog = new InMemoryTransactionLog();
+        schedule.getTransactionLogEvents().forEach(transactionLog::add);
+        var tableReader = TableReader.create(configuration.getReaderBackend(), session, configuration.getFullyQualifiedTableName(), configuration.getPayloadSchema());
+        var producersByReaderName = new HashMap<String, ResultSetExpectationProducer>();
+        var replayedReads = 0;
+        var unmappedReads = 0;
+        var failedReads = 0;
+        var recordedFailedReads = 0;
+        var failureExamples = new ArrayList<String>();
+        for (var read : schedule.getReads()) {
+            recordedFailedReads += read.isSatisfied() ? 0 : 1;
+            // Every read goes through the producer of its reader, as the producer keeps state between the windows
+            var resultSetExpectations = producersByReaderName
+                    .computeIfAbsent(read.getReaderName(), readerName -> new ResultSetExpectationProducer(transactionLog))
+                    .createResultSetExpectations(read.getEventCountBeforeRead(), read.getEventCountAfterRead(), read.getRequiredCommitTimeInMillis());
+            var numberOfVisibleCommits = getNumberOfVisibleCommits(read, commitEvents);
+            if (numberOfVisibleCommits < 0) {
+                unmappedReads++;
+                continue;
+            }
+            var resultSet = new ResultSet(new ArrayList<>());
+            if (numberOfVisibleCommits > 0) {
+                var snapshotId = replayedSnapshotIds.get(numberOfVisibleCommits - 1);
+                resultSet = tableReader.readRecords(snapshotId);
+                if (resultSetExpectations.areBulkInsertsExpected()) {
+                    resultSet = resultSet.withBulkInsertAggregates(tableReader.readBulkInsertAggregates(snapshotId));
+                }
+                var baselineExpectation = resultSetExpectations.getBaselineExpectation();
+                if (baselineExpectation.isPresent()) {
+                    resultSet = resultSet.withBaselineAggregate(tableReader.readBaselineAggregate(snapshotId, baselineExpectation.get().getUncertainPrimaryKeyValues()));
+                }
+            }
+            replayedReads++;
+            if (!resultSetExpectations.isStatisfied(resultSet)) {
+                failedReads++;
+                if (failureExamples.size() < MAXIMUM_NUMBER_OF_EXAMPLES) {
+                    failureExamples.add("reader=" + read.getReaderName() + " iteration=" + read.getIteration()
+                            + " eventCountBeforeRead=" + read.getEventCountBeforeRead() + " eventCountAfterRead=" + read.getEventCountAfterRead()
+                            + " visibleCommits=" + numberOfVisibleCommits + " recordedSatisfied=" + read.isSatisfied());
+                }
+            }
+        }
+        var result = ScheduleReplayResult.create(commitEvents.size(), replayedReads, unmappedReads, failedReads, recordedFailedReads, failureExamples, System.currentTimeMillis() - timeBeforeReplay);
+        log.info("Acid Verification replay failureReproduced='{}' {}", result.isFailureReproduced(), result);
+        return result;
+    }
+
+    /**
+     * Without a sequence number, a transaction keeps its position in the transaction log.
+     */
+    private static List<TransactionLogEvent> getCommitEventsInCommitOrder(List<TransactionLogEvent> transactionLogEvents) {
+        return transactionLogEvents
+                .stream()
+                .filter(event -> event.eventType == EventType.TRANSACTION_COMMITTED)
+                .sorted(Comparator.comparing(event -> event.sequenceNumber, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The snapshot committed by each transaction, in commit order
+     */
+    private List<Long> commitInOrder(List<TransactionLogEvent> commitEvents) {
+        var transactions = commitEvents.stream().map(event -> event.transaction).iterator();
+        var replayLog = new InMemoryTransactionLog();
+        var stop = new AtomicBoolean(false);
+        var runContext = RunContext.create(replayLog, stop, () -> {
+        }, new IcebergMetrics(), new RunStatistics());
+        var writer = new TransactionWriter(
+                configuration,
+                runContext,
+                session,
+                () -> {
+                    if (transactions.hasNext()) {
+                        return transactions.next();
+                    }
+                    stop.set(true);
+                    return null;
+                },
+                transaction -> {
+                }
+        );
+        // Runs the writer on this thread, so the commits happen one by one
+        writer.run();
+        if (writer.getWriterException() != null) {
+            throw new IllegalStateException("Unable to replay the transactions", writer.getWriterException());
+        }
+        var snapshotIds = replayLog.getFirstNEvents(replayLog.getEventCount())
+                .stream()
+                .filter(event -> event.eventType == EventType.TRANSACTION_COMMITTED)
+                .map(event -> event.snapshotId)
+                .collect(Collectors.toList());
+        if (snapshotIds.contains(null)) {
+            throw new IllegalStateException("Replayed transactions without a snapshot, the catalog doesn't report its commits");
+        }
+        return snapshotIds;
+    }
+
+    /**
+     * @return The number of transactions, in commit order, that were visible in the snapshot of the read, or -1 if the
+     * snapshot is unknown
+     */
+    private static int getNumberOfVisibleCommits(ScheduledRead read, List<TransactionLogEvent> commitEvents) {
+        if (read.getReadSnapshotId() == null) {
+            return 0;
+        }
+        for (var index = 0; index < commitEvents.size(); index++) {
+            if (read.getReadSnapshotId().equals(commitEvents.get(index).snapshotId)) {
+                return index + 1;
+            }
+        }
+        // A snapshot of a maintenance action has the contents of the last transaction before it
+        var readSequenceNumber = read.getReadSequenceNumber();
+        if (readSequenceNumber == null || readSequenceNumber == 0) {
+            return -1;
+        }
+        return (int) commitEvents
+                .stream()
+                .filter(event -> event.sequenceNumber != null && event.sequenceNumber <= readSequenceNumber)
+                .count();
+    }
+}
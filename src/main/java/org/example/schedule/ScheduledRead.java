@@ -0,0 +1,31 @@
+package org.example.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * A verification of a reader: the window of the transaction log it built its expectations from, the snapshot it read
+ * and whether the result set satisfied the expectations.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class ScheduledRead implements Serializable {
+    private final String readerName;
+    private final int iteration;
+    private final int eventCountBeforeRead;
+    private final int eventCountAfterRead;
+    private final long requiredCommitTimeInMillis;
+    /**
+     * Null if the table had no snapshot yet.
+     */
+    private final Long readSnapshotId;
+    /**
+     * Null if the snapshot was no longer in the table metadata.
+     */
+    private final Long readSequenceNumber;
+    private final boolean satisfied;
+}
@@ -0,0 +1,17 @@
+package org.example.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * How Spark distributes the rows of a write over its tasks before Iceberg writes them to data files.
+ */
+@Getter
+@AllArgsConstructor
+public enum DistributionMode {
+    NONE("none"),
+    HASH("hash"),
+    RANGE("range");
+
+    private final String propertyValue;
+}
@@ -0,0 +1,16 @@
+package org.example.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Isolation level Iceberg validates row-level operations against when they are committed.
+ */
+@Getter
+@AllArgsConstructor
+public enum IsolationLevel {
+    SERIALIZABLE("serializable"),
+    SNAPSHOT("snapshot");
+
+    private final String propertyValue;
+}
@@ -0,0 +1,81 @@
+package org.example.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tables that mirror the table of a run, for transactions that span several tables. A multi-table transaction
+ * commits to the linked tables first and to the table last, and records the snapshots it committed to the linked
+ * tables in the summary of the snapshot of the table. That snapshot is the commit point of the transaction: readers
+ * find the snapshots of the linked tables that belong to a snapshot of the table through it, so they don't see the
+ * commits to the linked tables before the table committed.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "create")
+public class LinkedTables implements Serializable {
+    public static final String LINKED_SNAPSHOT_PROPERTY_PREFIX = "acid-verification.linked-snapshot.";
+    /**
+     * Recorded for a linked table without snapshots.
+     */
+    public static final long NO_SNAPSHOT = -1L;
+
+    private final String fullyQualifiedTableName;
+    private final List<String> linkedTableNames;
+
+    /**
+     * @return The linked tables {@code <table>_linked<n>} in the database of the table
+     */
+    public static LinkedTables create(String fullyQualifiedTableName, int numberOfLinkedTables) {
+        var linkedTableNames = IntStream.range(0, numberOfLinkedTables)
+                .mapToObj(linkedTableNumber -> fullyQualifiedTableName + "_linked" + linkedTableNumber)
+                .collect(Collectors.toList());
+        return create(fullyQualifiedTableName, linkedTableNames);
+    }
+
+    /**
+     * @return The snapshot summary properties of the table that record the given snapshots of the linked tables
+     */
+    public Map<String, String> getCommitProperties(Map<String, Long> linkedSnapshotIds) {
+        var commitProperties = new HashMap<String, String>();
+        for (var linkedTableName : linkedTableNames) {
+            commitProperties.put(LINKED_SNAPSHOT_PROPERTY_PREFIX + linkedTableName, String.valueOf(linkedSnapshotIds.get(linkedTableName)));
+        }
+        return commitProperties;
+    }
+
+    /**
+     * Maintenance commits of the table don't record the linked snapshots, so they are taken from the nearest ancestor
+     * that does.
+     *
+     * @param table The table, not one of the linked tables
+     * @return The snapshots of the linked tables by linked table name, which may be {@link #NO_SNAPSHOT}. Empty when
+     * no ancestor of the snapshot records them, before the first multi-table commit or when the ancestors expired.
+     */
+    public Optional<Map<String, Long>> getLinkedSnapshotIds(Table table, long snapshotId) {
+        Snapshot snapshot = table.snapshot(snapshotId);
+        while (snapshot != null) {
+            var summary = snapshot.summary();
+            if (summary.containsKey(LINKED_SNAPSHOT_PROPERTY_PREFIX + linkedTableNames.get(0))) {
+                var linkedSnapshotIds = new HashMap<String, Long>();
+                for (var linkedTableName : linkedTableNames) {
+                    linkedSnapshotIds.put(linkedTableName, Long.parseLong(summary.get(LINKED_SNAPSHOT_PROPERTY_PREFIX + linkedTableName)));
+                }
+                return Optional.of(linkedSnapshotIds);
+            }
+            snapshot = snapshot.parentId() == null ? null : table.snapshot(snapshot.parentId());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.table;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.With;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extra payload columns of the table, to measure data throughput instead of only per-commit overhead. The columns
+ * cycle through {@code STRING}, {@code BIGINT}, {@code DOUBLE} and, when enabled, a nested struct of a string and a
+ * number.
+ * <p>
+ * The payload of a row is derived from its primary key value and data value by SQL expressions that run on the
+ * executors, so it never passes through the driver and the expectations of the readers don't change. Readers verify
+ * the payload by comparing the hash of the stored columns to the hash of the derived ones, per row, on the executors.
+ */
+@Getter
+@With
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "create")
+public class PayloadSchema implements Serializable {
+    public static final PayloadSchema NONE = create(0, 0, false);
+
+    private static final int HEX_CHARACTERS_PER_HASH = 64;
+
+    private final int numberOfColumns;
+    /**
+     * Size of the text in the string and struct columns of a row together, in characters.
+     */
+    private final int payloadSizeInBytes;
+    private final boolean nestedStructs;
+
+    public boolean isEmpty() {
+        return numberOfColumns == 0;
+    }
+
+    /**
+     * @return The column definitions for a {@code CREATE TABLE} statement
+     */
+    public List<String> getColumnDefinitions() {
+        var columnDefinitions = new ArrayList<String>(numberOfColumns);
+        for (var column = 0; column < numberOfColumns; column++) {
+            columnDefinitions.add(getColumnName(column) + " " + getColumnType(column));
+        }
+        return columnDefinitions;
+    }
+
+    public List<String> getColumnNames() {
+        var columnNames = new ArrayList<String>(numberOfColumns);
+        for (var column = 0; column < numberOfColumns; column++) {
+            columnNames.add(getColumnName(column));
+        }
+        return columnNames;
+    }
+
+    /**
+     * @return Expressions that derive the payload columns from the {@code primaryKeyValue} and {@code dataValue}
+     * columns, aliased to the payload column names
+     */
+    public List<String> getColumnExpressions() {
+        var columnExpressions = new ArrayList<String>(numberOfColumns);
+        for (var column = 0; column < numberOfColumns; column++) {
+            columnExpressions.add(getColumnExpression(column) + " AS " + getColumnName(column));
+        }
+        return columnExpressions;
+    }
+
+    /**
+     * @return The records with the payload columns added, which are derived from the record columns on the executors
+     */
+    public Dataset<Row> addTo(Dataset<Row> records) {
+        if (isEmpty()) {
+            return records;
+        }
+        var columns = new ArrayList<>(List.of(records.columns()));
+        columns.addAll(getColumnExpressions());
+        return records.selectExpr(columns.toArray(String[]::new));
+    }
+
+    /**
+     * @return Boolean expression that tells whether the stored payload of a row is the payload derived from its primary
+     * key value and data value
+     */
+    public String getPayloadMatchesExpression() {
+        var derivedColumns = new ArrayList<String>(numberOfColumns);
+        for (var column = 0; column < numberOfColumns; column++) {
+            derivedColumns.add(getColumnExpression(column));
+        }
+        return "xxhash64(" + String.join(", ", getColumnNames()) + ") = xxhash64(" + String.join(", ", derivedColumns) + ")";
+    }
+
+    private String getColumnName(int column) {
+        return "payload" + column;
+    }
+
+    private String getColumnType(int column) {
+        switch (getColumnKind(column)) {
+            case 0:
+                return "STRING";
+            case 1:
+                return "BIGINT";
+            case 2:
+                return "DOUBLE";
+            default:
+                return "STRUCT<text: STRING, number: BIGINT>";
+        }
+    }
+
+    private String getColumnExpression(int column) {
+        switch (getColumnKind(column)) {
+            case 0:
+                return getTextExpression(column);
+            case 1:
+                return getNumberExpression(column);
+            case 2:
+                return "cast(" + getNumberExpression(column) + " AS DOUBLE) / 1024";
+            default:
+                return "named_struct('text', " + getTextExpression(column) + ", 'number', " + getNumberExpression(column) + ")";
+        }
+    }
+
+    private int getColumnKind(int column) {
+        return column % (nestedStructs ? 4 : 3);
+    }
+
+    private String getNumberExpression(int column) {
+        return "xxhash64(primaryKeyValue, dataValue, " + column + ")";
+    }
+
+    /**
+     * Concatenates distinct hashes instead of repeating one, so the text doesn't compress away in the data files.
+     */
+    private String getTextExpression(int column) {
+        var textSize = getTextSizePerColumn();
+        var numberOfHashes = (textSize + HEX_CHARACTERS_PER_HASH - 1) / HEX_CHARACTERS_PER_HASH;
+        if (numberOfHashes == 0) {
+            return "''";
+        }
+        return "substring(array_join(transform(sequence(1, " + numberOfHashes + "), " +
+                "part -> sha2(concat_ws('|', primaryKeyValue, dataValue, '" + column + "', part), 256)), ''), 1, " + textSize + ")";
+    }
+
+    private int getTextSizePerColumn() {
+        var textColumns = 0;
+        for (var column = 0; column < numberOfColumns; column++) {
+            var columnKind = getColumnKind(column);
+            if (columnKind == 0 || columnKind == 3) {
+                textColumns++;
+            }
+        }
+        return textColumns == 0 ? 0 : payloadSizeInBytes / textColumns;
+    }
+
+    /**
+     * @return The columns to select to read records with {@link org.example.resultset.Record#COLUMNS} followed by a
+     * column that tells whether the payload of the row matches
+     */
+    public String getSelectColumns(String recordColumns) {
+        if (isEmpty()) {
+            return recordColumns;
+        }
+        return recordColumns + ", " + getPayloadMatchesExpression() + " AS payloadMatches";
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.table;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.writer.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combination of table settings that is applied to the delete, update and merge operations alike.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(staticName = "create")
+public class TableSettings {
+    private final int formatVersion;
+    private final WriteMode writeMode;
+    private final IsolationLevel isolationLevel;
+
+    public Configuration applyTo(Configuration configuration) {
+        return configuration
+                .withFormatVersion(formatVersion)
+                .withWriteDeleteMode(writeMode)
+                .withWriteUpdateMode(writeMode)
+                .withWriteMergeMode(writeMode)
+                .withDeleteIsolationLevel(isolationLevel)
+                .withUpdateIsolationLevel(isolationLevel)
+                .withMergeIsolationLevel(isolationLevel);
+    }
+
+    /**
+     * @return All valid combinations of settings. Merge-on-read requires delete files, so format version 1 is only
+     * combined with copy-on-write.
+     */
+    public static List<TableSettings> allCombinations() {
+        var combinations = new ArrayList<TableSettings>();
+        for (var formatVersion : List.of(1, 2)) {
+            for (var writeMode : WriteMode.values()) {
+                if (formatVersion == 1 && writeMode == WriteMode.MERGE_ON_READ) {
+                    continue;
+                }
+                for (var isolationLevel : IsolationLevel.values()) {
+                    combinations.add(create(formatVersion, writeMode, isolationLevel));
+                }
+            }
+        }
+        return combinations;
+    }
+}
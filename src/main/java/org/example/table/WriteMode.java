@@ -0,0 +1,16 @@
+package org.example.table;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * How Iceberg applies row-level deletes, updates and merges to a table.
+ */
+@Getter
+@AllArgsConstructor
+public enum WriteMode {
+    COPY_ON_WRITE("copy-on-write"),
+    MERGE_ON_READ("merge-on-read");
+
+    private final String propertyValue;
+}
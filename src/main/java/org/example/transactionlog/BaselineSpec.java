@@ -0,0 +1,107 @@
+package org.example.transactionlog;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Compact checkpoint of the records the table is pre-populated with before a run, logged as a single
+ * {@link ManipulationType#BASELINE} transaction instead of an event per record.
+ * <p>
+ * The primary key of record {@code n} is {@code Baseline<n>}. Unlike the records of bulk inserts, baseline records are
+ * updated and deleted by the transactions of the run, like any other record. A baseline record that was never touched
+ * still has its {@link #getDataValue(long) baseline data value}, which no transaction writes, so the unchanged records
+ * can be told apart by {@link #UNCHANGED_PREDICATE} and verified by their number and {@link #getChecksum() checksum}.
+ */
+@EqualsAndHashCode(exclude = "checksum")
+@ToString(exclude = "checksum")
+public class BaselineSpec implements Serializable {
+    public static final String KEY_PREFIX = "Baseline";
+    private static final String DATA_VALUE_PREFIX = "Baseline value ";
+    /**
+     * Predicate on the rows that still have their baseline data value.
+     */
+    public static final String UNCHANGED_PREDICATE = "primaryKeyValue LIKE '" + KEY_PREFIX + "%'" +
+            " AND dataValue = concat('" + DATA_VALUE_PREFIX + "', substring(primaryKeyValue, " + (KEY_PREFIX.length() + 1) + "))";
+
+    public final int numberOfRecords;
+    public final int numberOfPartitions;
+    private transient Long checksum;
+
+    public BaselineSpec(final int numberOfRecords, final int numberOfPartitions) {
+        if (numberOfRecords <= 0 || numberOfPartitions <= 0) {
+            throw new IllegalArgumentException("Invalid baseline: " + numberOfRecords + " records, " + numberOfPartitions + " partitions");
+        }
+        this.numberOfRecords = numberOfRecords;
+        this.numberOfPartitions = numberOfPartitions;
+    }
+
+    /**
+     * @return Whether a row still has its baseline value, like {@link #UNCHANGED_PREDICATE}
+     */
+    public static boolean hasBaselineValue(String primaryKeyValue, String dataValue) {
+        return primaryKeyValue.startsWith(KEY_PREFIX)
+                && dataValue != null
+                && dataValue.length() == DATA_VALUE_PREFIX.length() + primaryKeyValue.length() - KEY_PREFIX.length()
+                && dataValue.startsWith(DATA_VALUE_PREFIX)
+                && dataValue.endsWith(primaryKeyValue.substring(KEY_PREFIX.length()));
+    }
+
+    public boolean isBaselineKey(String primaryKeyValue) {
+        return primaryKeyValue.startsWith(KEY_PREFIX);
+    }
+
+    public int getRecordNumber(String primaryKeyValue) {
+        return Integer.parseInt(primaryKeyValue.substring(KEY_PREFIX.length()));
+    }
+
+    public String getPrimaryKeyValue(int recordNumber) {
+        return KEY_PREFIX + recordNumber;
+    }
+
+    public String getPartitionKeyValue(int recordNumber) {
+        return "Partition" + Math.floorMod(recordNumber, numberOfPartitions);
+    }
+
+    public String getDataValue(int recordNumber) {
+        return DATA_VALUE_PREFIX + recordNumber;
+    }
+
+    /**
+     * @return SQL expressions for the primary key, partition key and data value of the record with number {@code id},
+     * the column of {@code spark.range(numberOfRecords)}. They match the getters of the record values.
+     */
+    public String[] getColumnExpressions() {
+        return new String[]{
+                "concat('" + KEY_PREFIX + "', id) AS primaryKeyValue",
+                "concat('Partition', pmod(id, " + numberOfPartitions + ")) AS partitionKeyValue",
+                "concat('" + DATA_VALUE_PREFIX + "', id) AS dataValue"
+        };
+    }
+
+    /**
+     * @return The {@link BulkInsertSpec#CHECKSUM_EXPRESSION} of the baseline record with the given primary key value
+     */
+    public long getChecksum(String primaryKeyValue) {
+        return getChecksum(getRecordNumber(primaryKeyValue));
+    }
+
+    private long getChecksum(int recordNumber) {
+        return BulkInsertSpec.checksumOf(getPrimaryKeyValue(recordNumber), getPartitionKeyValue(recordNumber), getDataValue(recordNumber));
+    }
+
+    /**
+     * @return The sum of the {@link BulkInsertSpec#CHECKSUM_EXPRESSION} over all baseline records, computed on first use
+     */
+    public synchronized long getChecksum() {
+        if (checksum == null) {
+            var sum = 0L;
+            for (var recordNumber = 0; recordNumber < numberOfRecords; recordNumber++) {
+                sum += getChecksum(recordNumber);
+            }
+            checksum = sum;
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.transactionlog;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Compact description of the records inserted by a {@link ManipulationType#BULK_INSERT} transaction. The records are
+ * never listed: writers expand the spec on the executors with {@link #getColumnExpressions()}, and verifiers compare
+ * the number of records and the {@link #getChecksum() checksum} of the rows found for the spec.
+ * <p>
+ * The primary key of record {@code n} of bulk insert {@code b} is {@code Bulk<b>-<n>}, so the rows of a bulk insert
+ * can be grouped by {@link #getBulkInsertKey()}. Records of bulk inserts are never updated or deleted.
+ */
+@EqualsAndHashCode(exclude = "checksum")
+@ToString(exclude = "checksum")
+public class BulkInsertSpec implements Serializable {
+    public static final String KEY_PREFIX = "Bulk";
+    /**
+     * SQL expression that gives the {@link #getBulkInsertKey()} of a row.
+     */
+    public static final String BULK_INSERT_KEY_EXPRESSION = "substring_index(primaryKeyValue, '-', 1)";
+    /**
+     * SQL expression that gives the checksum of a row, to be summed over the rows of a bulk insert.
+     */
+    public static final String CHECKSUM_EXPRESSION = "crc32(cast(concat_ws('|', primaryKeyValue, partitionKeyValue, dataValue) AS BINARY))";
+
+    public final long bulkInsertNumber;
+    public final long numberOfRecords;
+    public final int seed;
+    public final int numberOfPartitions;
+    private transient Long checksum;
+
+    public BulkInsertSpec(final long bulkInsertNumber, final long numberOfRecords, final int seed, final int numberOfPartitions) {
+        if (numberOfRecords <= 0 || seed < 0 || numberOfPartitions <= 0) {
+            throw new IllegalArgumentException("Invalid bulk insert: " + numberOfRecords + " records, seed " + seed + ", " + numberOfPartitions + " partitions");
+        }
+        this.bulkInsertNumber = bulkInsertNumber;
+        this.numberOfRecords = numberOfRecords;
+        this.seed = seed;
+        this.numberOfPartitions = numberOfPartitions;
+    }
+
+    public String getBulkInsertKey() {
+        return KEY_PREFIX + bulkInsertNumber;
+    }
+
+    public static boolean isBulkInsertKey(String primaryKeyValue) {
+        return primaryKeyValue.startsWith(KEY_PREFIX);
+    }
+
+    /**
+     * @return The {@link #getBulkInsertKey()} of the bulk insert of a record, like {@link #BULK_INSERT_KEY_EXPRESSION}
+     */
+    public static String getBulkInsertKey(String primaryKeyValue) {
+        var separatorIndex = primaryKeyValue.indexOf('-');
+        return separatorIndex < 0 ? primaryKeyValue : primaryKeyValue.substring(0, separatorIndex);
+    }
+
+    public String getPrimaryKeyValue(long recordNumber) {
+        return getBulkInsertKey() + "-" + recordNumber;
+    }
+
+    public String getPartitionKeyValue(long recordNumber) {
+        return "Partition" + Math.floorMod(recordNumber * 31 + seed, numberOfPartitions);
+    }
+
+    public String getDataValue(long recordNumber) {
+        return "Bulk value " + seed + "-" + recordNumber;
+    }
+
+    /**
+     * @return SQL expressions for the primary key, partition key and data value of the record with number {@code id},
+     * the column of {@code spark.range(numberOfRecords)}. They match the getters of the record values.
+     */
+    public String[] getColumnExpressions() {
+        return new String[]{
+                "concat('" + getBulkInsertKey() + "-', id) AS primaryKeyValue",
+                "concat('Partition', pmod(id * 31 + " + seed + ", " + numberOfPartitions + ")) AS partitionKeyValue",
+                "concat('Bulk value " + seed + "-', id) AS dataValue"
+        };
+    }
+
+    /**
+     * @return The sum of the {@link #CHECKSUM_EXPRESSION} over all records, computed on first use
+     */
+    public synchronized long getChecksum() {
+        if (checksum == null) {
+            var sum = 0L;
+            for (var recordNumber = 0L; recordNumber < numberOfRecords; recordNumber++) {
+                sum += checksumOf(getPrimaryKeyValue(recordNumber), getPartitionKeyValue(recordNumber), getDataValue(recordNumber));
+            }
+            checksum = sum;
+        }
+        return checksum;
+    }
+
+    /**
+     * @return The {@link #CHECKSUM_EXPRESSION} of a row
+     */
+    public static long checksumOf(String primaryKeyValue, String partitionKeyValue, String dataValue) {
+        var crc = new CRC32();
+        crc.update((primaryKeyValue + "|" + partitionKeyValue + "|" + dataValue).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
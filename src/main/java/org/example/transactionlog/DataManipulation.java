@@ -3,11 +3,12 @@ package org.example.transactionlog;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 @EqualsAndHashCode
 @ToString
-public class DataManipulation {
+public class DataManipulation implements Serializable {
     public final String primaryKeyValue;
     public final String partitionKeyValue;
     public final String dataValue;
@@ -0,0 +1,30 @@
+package org.example.transactionlog;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class InMemoryTransactionLog implements TransactionLog {
+    private final List<TransactionLogEvent> transactionLogEvents = new LinkedList<>();
+
+    @Override
+    public synchronized void add(TransactionLogEvent event) {
+        Objects.requireNonNull(event);
+        transactionLogEvents.add(event);
+    }
+
+    @Override
+    public synchronized List<TransactionLogEvent> getFirstNEvents(int n) {
+        return transactionLogEvents
+                .stream()
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized int getEventCount() {
+        return transactionLogEvents.size();
+    }
+
+}
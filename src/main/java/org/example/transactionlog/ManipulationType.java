@@ -1,5 +1,13 @@
 package org.example.transactionlog;
 
 public enum ManipulationType {
-    INSERT, UPDATE, DELETE
+    INSERT, UPDATE, DELETE,
+    /**
+     * Insert of many new records, described by a {@link BulkInsertSpec} instead of {@link DataManipulation}s.
+     */
+    BULK_INSERT,
+    /**
+     * Pre-population of the table before the run, described by a {@link BaselineSpec}. Logged as the first transaction.
+     */
+    BASELINE
 }
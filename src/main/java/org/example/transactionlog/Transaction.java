@@ -3,20 +3,57 @@ package org.example.transactionlog;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.UUID;
 
 @EqualsAndHashCode
 @ToString
-public class Transaction {
+public class Transaction implements Serializable {
     public final UUID transactionId;
     public final ManipulationType manipulationType;
     public final List<DataManipulation> dataManipulations;
+    /**
+     * The records of a {@link ManipulationType#BULK_INSERT}, which has no data manipulations. Null otherwise.
+     */
+    public final BulkInsertSpec bulkInsertSpec;
+    /**
+     * The records the table was pre-populated with, for a {@link ManipulationType#BASELINE}. Null otherwise.
+     */
+    public final BaselineSpec baselineSpec;
 
     public Transaction(final ManipulationType manipulationType, final List<DataManipulation> dataManipulations) {
         this.transactionId = UUID.randomUUID();
         this.manipulationType = manipulationType;
         this.dataManipulations = dataManipulations;
+        this.bulkInsertSpec = null;
+        this.baselineSpec = null;
+    }
+
+    public Transaction(final BulkInsertSpec bulkInsertSpec) {
+        this.transactionId = UUID.randomUUID();
+        this.manipulationType = ManipulationType.BULK_INSERT;
+        this.dataManipulations = List.of();
+        this.bulkInsertSpec = bulkInsertSpec;
+        this.baselineSpec = null;
+    }
+
+    public Transaction(final BaselineSpec baselineSpec) {
+        this.transactionId = UUID.randomUUID();
+        this.manipulationType = ManipulationType.BASELINE;
+        this.dataManipulations = List.of();
+        this.bulkInsertSpec = null;
+        this.baselineSpec = baselineSpec;
+    }
+
+    public long getNumberOfRecords() {
+        if (bulkInsertSpec != null) {
+            return bulkInsertSpec.numberOfRecords;
+        }
+        if (baselineSpec != null) {
+            return baselineSpec.numberOfRecords;
+        }
+        return dataManipulations.size();
     }
 
 }
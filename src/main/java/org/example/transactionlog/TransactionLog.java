@@ -1,37 +1,41 @@
 package org.example.transactionlog;
 
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
-public class TransactionLog {
-    private final List<TransactionLogEvent> transactionLogEvents = new LinkedList<>();
+/**
+ * Append-only log of the intents and commits of the transactions of a run, which the readers use to determine what
+ * they should see.
+ */
+public interface TransactionLog {
 
-    public synchronized void add(TransactionLogEvent event) {
-        Objects.requireNonNull(event);
-        transactionLogEvents.add(event);
+    void add(TransactionLogEvent event);
+
+    default void logIntent(Transaction transaction) {
+        add(new TransactionLogEvent(EventType.TRANSACTION_INTENDED, transaction));
     }
 
-    public void logIntent(Transaction transaction) {
-        var event = new TransactionLogEvent(EventType.TRANSACTION_INTENDED, transaction);
-        add(event);
+    default void logCommit(Transaction transaction) {
+        logCommit(transaction, null, null);
     }
 
-    public void logCommit(Transaction transaction) {
-        var event = new TransactionLogEvent(EventType.TRANSACTION_COMMITTED, transaction);
-        add(event);
+    default void logCommit(Transaction transaction, Long snapshotId, Long sequenceNumber) {
+        add(new TransactionLogEvent(EventType.TRANSACTION_COMMITTED, transaction, snapshotId, sequenceNumber));
     }
 
-    public synchronized List<TransactionLogEvent> getFirstNEvents(int n) {
-        return transactionLogEvents
-                .stream()
-                .limit(n)
-                .collect(Collectors.toList());
+    /**
+     * Seeds the log with a checkpoint of the records the table was pre-populated with, instead of an event per record.
+     */
+    default void logBaseline(BaselineSpec baselineSpec, Long snapshotId, Long sequenceNumber) {
+        logBaseline(new Transaction(baselineSpec), snapshotId, sequenceNumber);
     }
 
-    public synchronized int getEventCount() {
-        return transactionLogEvents.size();
+    default void logBaseline(Transaction baselineTransaction, Long snapshotId, Long sequenceNumber) {
+        logIntent(baselineTransaction);
+        logCommit(baselineTransaction, snapshotId, sequenceNumber);
     }
 
+    List<TransactionLogEvent> getFirstNEvents(int n);
+
+    int getEventCount();
+
 }
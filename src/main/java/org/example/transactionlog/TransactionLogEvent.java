@@ -3,18 +3,38 @@ package org.example.transactionlog;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 @EqualsAndHashCode
 @ToString
-public class TransactionLogEvent {
+public class TransactionLogEvent implements Serializable {
     public final EventType eventType;
     public final Transaction transaction;
+    /**
+     * Iceberg snapshot committed by the transaction, when known. Only set on commit events.
+     */
+    public final Long snapshotId;
+    /**
+     * Sequence number of the committed snapshot, when known. Only set on commit events.
+     */
+    public final Long sequenceNumber;
+    /**
+     * Wall clock time at which the event was logged.
+     */
+    public final long timestampInMillis;
 
     public TransactionLogEvent(final EventType eventType, final Transaction transaction) {
+        this(eventType, transaction, null, null);
+    }
+
+    public TransactionLogEvent(final EventType eventType, final Transaction transaction, final Long snapshotId, final Long sequenceNumber) {
         Objects.requireNonNull(eventType);
         Objects.requireNonNull(transaction);
         this.eventType = eventType;
         this.transaction = transaction;
+        this.snapshotId = snapshotId;
+        this.sequenceNumber = sequenceNumber;
+        this.timestampInMillis = System.currentTimeMillis();
     }
 }
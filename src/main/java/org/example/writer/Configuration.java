@@ -1,12 +1,28 @@
 package org.example.writer;
 
 import lombok.*;
+import org.example.catalog.CatalogType;
+import org.example.durability.FaultPoint;
+import org.example.durability.FaultType;
+import org.example.maintenance.MaintenanceAction;
+import org.example.reader.ReaderBackend;
+import org.example.table.DistributionMode;
+import org.example.table.IsolationLevel;
+import org.example.table.PayloadSchema;
+import org.example.table.WriteMode;
+
+import java.io.Serializable;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 @NoArgsConstructor(staticName = "create")
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Getter
-public class Configuration {
+public class Configuration implements Serializable {
     public static final String DEFAULT_CATALOG_NAME = "iceberghive";
+    public static final CatalogType DEFAULT_CATALOG_TYPE = CatalogType.HIVE;
+    public static final String DEFAULT_WAREHOUSE_LOCATION = "/tmp/lakehouse/warehouse";
     public static final String DEFAULT_DATABASE_NAME = "concurrencytestdb";
     public static final String DEFAULT_TABLE_NAME = "acid_verification";
     public static final int DEFAULT_NUMBER_OF_WRITERS_THREADS = 4;
@@ -17,25 +33,85 @@ public class Configuration {
     public static final int DEFAULT_MAXIMUM_NUMBER_OF_RECORDS = 100;
     public static final int DEFAULT_MAXIMUM_NUMBER_OF_PARTITIONS = 4;
     public static final int DEFAULT_RECORDS_PER_TRANSACTION = 3;
+    public static final int DEFAULT_NUMBER_OF_BASELINE_RECORDS = 0;
     public static final float DEFAULT_PREFERENCE_TO_INSERT_OVER_OTHER_MANIPULATIONS = 0.25F;
     public static final float DEFAULT_PREFERENCE_TO_UPDATE_OVER_DELETE = 0.75F;
     public static final long DEFAULT_RANDOM_SEED = 1234L;
+    public static final long DEFAULT_NUMBER_OF_RECORDS_PER_BULK_INSERT = 0L;
+    public static final float DEFAULT_PREFERENCE_TO_BULK_INSERT_OVER_OTHER_MANIPULATIONS = 0.1F;
+    public static final WriteMode DEFAULT_WRITE_MODE = WriteMode.COPY_ON_WRITE;
+    public static final IsolationLevel DEFAULT_ISOLATION_LEVEL = IsolationLevel.SERIALIZABLE;
+    public static final int DEFAULT_FORMAT_VERSION = 2;
+    public static final long DEFAULT_TARGET_FILE_SIZE_IN_BYTES = 0L;
+    public static final int DEFAULT_NUMBER_OF_SNAPSHOT_VERIFICATION_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_NUMBER_OF_WORKER_PROCESSES = 0;
+    public static final long DEFAULT_WORKER_PROCESS_TIMEOUT_IN_MILLIS = 3_600_000L;
+    public static final int DEFAULT_NUMBER_OF_MAINTENANCE_THREADS = 0;
+    public static final Set<MaintenanceAction> DEFAULT_MAINTENANCE_ACTIONS = EnumSet.allOf(MaintenanceAction.class);
+    public static final long DEFAULT_MAINTENANCE_INTERVAL_IN_MILLIS = 10_000L;
+    public static final int DEFAULT_MAINTENANCE_DATA_FILE_THRESHOLD = 0;
+    public static final long DEFAULT_SNAPSHOT_RETENTION_IN_MILLIS = 60_000L;
+    public static final long DEFAULT_READER_STALENESS_BOUND_IN_MILLIS = 0L;
+    public static final long DEFAULT_READER_TABLE_REFRESH_INTERVAL_IN_MILLIS = 0L;
+    public static final long DEFAULT_STREAMING_TRIGGER_INTERVAL_IN_MILLIS = 1_000L;
+    public static final FaultType DEFAULT_FAULT_TYPE = FaultType.FAILED_WRITE;
+    public static final double DEFAULT_FAULT_PROBABILITY = 0.1;
+    public static final long DEFAULT_FAULT_LATENCY_IN_MILLIS = 1_000L;
+    public static final int DEFAULT_MAXIMUM_NUMBER_OF_FAULTS = 10;
 
     @With
     private String catalogName = DEFAULT_CATALOG_NAME;
 
+    @With
+    private CatalogType catalogType = DEFAULT_CATALOG_TYPE;
+
+    /**
+     * Warehouse location of the catalog, only used for catalog types that are registered by the
+     * {@link TransactionManager} itself.
+     */
+    @With
+    private String warehouseLocation = DEFAULT_WAREHOUSE_LOCATION;
+
     @With
     private String databaseName = DEFAULT_DATABASE_NAME;
 
     @With
     private String tableName = DEFAULT_TABLE_NAME;
 
+    /**
+     * Whether the Iceberg catalog caches its tables. Cached tables are only refreshed when they expire, are
+     * invalidated or are committed to by the same session, so readers need a {@link #readerStalenessBoundInMillis}.
+     */
+    @With
+    private boolean catalogCacheEnabled = false;
+
     @With
     private int numberOfWriterThreads = DEFAULT_NUMBER_OF_WRITERS_THREADS;
 
     @With
     private int numberOfReaderThreads = DEFAULT_NUMBER_OF_READER_THREADS;
 
+    /**
+     * How old the table state seen by a reader may be. Transactions committed more than this long before a read must
+     * be visible, more recent ones may or may not be. Atomicity and monotonic reads per reader are still verified.
+     * 0 requires every transaction committed before the read to be visible.
+     */
+    @With
+    private long readerStalenessBoundInMillis = DEFAULT_READER_STALENESS_BOUND_IN_MILLIS;
+
+    /**
+     * How the readers read the table: with Spark queries, or with Iceberg's generic readers on the driver.
+     */
+    @With
+    private ReaderBackend readerBackend = ReaderBackend.SPARK;
+
+    /**
+     * Interval at which readers invalidate the cached table with {@code REFRESH TABLE}, or 0 to never do so. Iceberg
+     * expires cached tables after they have not been accessed for a while, which never happens for a busy reader.
+     */
+    @With
+    private long readerTableRefreshIntervalInMillis = DEFAULT_READER_TABLE_REFRESH_INTERVAL_IN_MILLIS;
+
     @With
     private int numberOfSparkSessionsForWriters = DEFAULT_NUMBER_OF_SPARK_SESSIONS_FOR_WRITERS;
 
@@ -54,6 +130,13 @@ public class Configuration {
     @With
     private int recordsPerTransaction = DEFAULT_RECORDS_PER_TRANSACTION;
 
+    /**
+     * Number of records the table is pre-populated with, in one distributed write before the run, or 0 to start from
+     * an empty table. These records exist from the start, in addition to the {@link #maximumNumberOfRecords}.
+     */
+    @With
+    private int numberOfBaselineRecords = DEFAULT_NUMBER_OF_BASELINE_RECORDS;
+
     @With
     private float preferenceToInsertOverOtherManipulations = DEFAULT_PREFERENCE_TO_INSERT_OVER_OTHER_MANIPULATIONS;
 
@@ -62,4 +145,231 @@ public class Configuration {
 
     @With
     private long randomSeed = DEFAULT_RANDOM_SEED;
+
+    /**
+     * Number of records of a bulk insert, or 0 to not generate bulk inserts. Bulk inserts are generated on the
+     * executors and verified by record count and checksum, so they can be much larger than the other transactions.
+     */
+    @With
+    private long numberOfRecordsPerBulkInsert = DEFAULT_NUMBER_OF_RECORDS_PER_BULK_INSERT;
+
+    /**
+     * Chance that a transaction is a bulk insert, when {@link #numberOfRecordsPerBulkInsert} is set.
+     */
+    @With
+    private float preferenceToBulkInsertOverOtherManipulations = DEFAULT_PREFERENCE_TO_BULK_INSERT_OVER_OTHER_MANIPULATIONS;
+
+    @With
+    private WriteMode writeDeleteMode = DEFAULT_WRITE_MODE;
+
+    @With
+    private WriteMode writeUpdateMode = DEFAULT_WRITE_MODE;
+
+    @With
+    private WriteMode writeMergeMode = DEFAULT_WRITE_MODE;
+
+    @With
+    private IsolationLevel deleteIsolationLevel = DEFAULT_ISOLATION_LEVEL;
+
+    @With
+    private IsolationLevel updateIsolationLevel = DEFAULT_ISOLATION_LEVEL;
+
+    @With
+    private IsolationLevel mergeIsolationLevel = DEFAULT_ISOLATION_LEVEL;
+
+    @With
+    private int formatVersion = DEFAULT_FORMAT_VERSION;
+
+    /**
+     * How the writers update and delete records. {@link RowLevelWriteMethod#EQUALITY_DELETES} ignores the write modes.
+     */
+    @With
+    private RowLevelWriteMethod rowLevelWriteMethod = RowLevelWriteMethod.SQL;
+
+    /**
+     * Distribution of the rows of a write over the Spark tasks ({@code write.distribution-mode}), which the row-level
+     * operations fall back to as well. Null keeps the default of Iceberg.
+     */
+    @With
+    private DistributionMode writeDistributionMode = null;
+
+    /**
+     * Target size of the data files ({@code write.target-file-size-bytes}), or 0 to keep the default of Iceberg.
+     */
+    @With
+    private long targetFileSizeInBytes = DEFAULT_TARGET_FILE_SIZE_IN_BYTES;
+
+    /**
+     * Columns the rows are sorted by, ascending, within the data files. Unsorted when empty.
+     */
+    @With
+    private List<String> sortColumns = List.of();
+
+    /**
+     * Whether Spark keeps a data file open for every partition of a task ({@code write.spark.fanout.enabled}), instead of
+     * requiring the rows of a task to be clustered by partition.
+     */
+    @With
+    private boolean fanoutWritersEnabled = false;
+
+    /**
+     * Extra payload columns of the table, to measure data throughput. No payload by default.
+     */
+    @With
+    private PayloadSchema payloadSchema = PayloadSchema.NONE;
+
+    /**
+     * When set, every transaction spans the table and this number of {@link org.example.table.LinkedTables linked
+     * tables} that mirror it, committed atomically by a {@link MultiTableCommitCoordinator}. Readers verify that the
+     * linked tables match the table. Not supported with worker processes.
+     */
+    @With
+    private int numberOfLinkedTables = 0;
+
+    /**
+     * When set, the writers run in this number of separate JVMs instead of in this one, each with
+     * {@link #numberOfWriterThreads} writers. Only supported for catalogs that are shared across processes.
+     */
+    @With
+    private int numberOfWriterProcesses = DEFAULT_NUMBER_OF_WORKER_PROCESSES;
+
+    /**
+     * Like {@link #numberOfWriterProcesses}, for the readers. Only used, and then required, when the writers run in
+     * separate JVMs.
+     */
+    @With
+    private int numberOfReaderProcesses = DEFAULT_NUMBER_OF_WORKER_PROCESSES;
+
+    /**
+     * Time the writer processes get to finish after they started, and the reader processes after the writers
+     * finished. Processes that are still running then are killed and count as failed.
+     */
+    @With
+    private long workerProcessTimeoutInMillis = DEFAULT_WORKER_PROCESS_TIMEOUT_IN_MILLIS;
+
+    @With
+    private int numberOfMaintenanceThreads = DEFAULT_NUMBER_OF_MAINTENANCE_THREADS;
+
+    @With
+    private Set<MaintenanceAction> maintenanceActions = DEFAULT_MAINTENANCE_ACTIONS;
+
+    @With
+    private long maintenanceIntervalInMillis = DEFAULT_MAINTENANCE_INTERVAL_IN_MILLIS;
+
+    /**
+     * Number of data files in the table that triggers maintenance before the interval elapsed, or 0 to disable.
+     */
+    @With
+    private int maintenanceDataFileThreshold = DEFAULT_MAINTENANCE_DATA_FILE_THRESHOLD;
+
+    /**
+     * Minimum age of the snapshots expired by the maintenance threads.
+     */
+    @With
+    private long snapshotRetentionInMillis = DEFAULT_SNAPSHOT_RETENTION_IN_MILLIS;
+
+    /**
+     * When set, a flight recording of the whole run is written to this file.
+     */
+    @With
+    private String flightRecordingFile = null;
+
+    /**
+     * When set, the history of all transactions and reads is written to this file and checked for isolation anomalies
+     * after the run.
+     */
+    @With
+    private String historyFile = null;
+
+    /**
+     * When set, the schedule of the run is written to this file after the run, so it can be replayed by the
+     * {@link org.example.schedule.ScheduleReplayer}. Reads are only recorded for reader threads, not reader processes.
+     */
+    @With
+    private String scheduleFile = null;
+
+    /**
+     * When set, the full contents of every snapshot of the table are verified after the run.
+     */
+    @With
+    private boolean verifyAllSnapshots = false;
+
+    /**
+     * When set, every read is checked against the snapshots its Spark session observed before: it may not see an
+     * older snapshot than an earlier read or commit in the same session. Needs format version 2.
+     */
+    @With
+    private boolean verifySessionGuarantees = false;
+
+    /**
+     * When set together with {@link #verifySessionGuarantees}, writers read the table right after each commit, in the
+     * same session, and fail the verification if they don't see their own commit.
+     */
+    @With
+    private boolean readYourWritesProbesEnabled = false;
+
+    /**
+     * When set, a Spark Structured Streaming query reads the table during the run and verifies that every committed
+     * insert transaction arrives exactly once and whole, see {@link org.example.reader.StreamingVerifier}.
+     */
+    @With
+    private boolean streamingVerificationEnabled = false;
+
+    /**
+     * Trigger interval of the streaming query of {@link #streamingVerificationEnabled}.
+     */
+    @With
+    private long streamingTriggerIntervalInMillis = DEFAULT_STREAMING_TRIGGER_INTERVAL_IN_MILLIS;
+
+    /**
+     * When set, reader threads don't verify their reads, they only read them and spill them to this directory. After
+     * the run, the transaction log is written to the directory as well and the reads are verified by
+     * {@link #numberOfSnapshotVerificationThreads} threads of the {@link org.example.capture.CapturedReadVerifier}, which
+     * can also verify the directory again in a separate process. Reader processes don't capture their reads.
+     */
+    @With
+    private String readCaptureDirectory = null;
+
+    /**
+     * When set, the catalog writes through the {@link org.example.durability.FaultInjectingFileIO}, which injects
+     * storage faults into the writes of the writers at this point of their commits. After the run, the
+     * {@link org.example.durability.DurabilityChecker} checks that the committed transactions survived.
+     */
+    @With
+    private FaultPoint faultInjectionPoint = null;
+
+    /**
+     * Fault that is injected at {@link #faultInjectionPoint}. {@link FaultType#ABORT} needs writer processes.
+     */
+    @With
+    private FaultType faultType = DEFAULT_FAULT_TYPE;
+
+    /**
+     * Chance that a write at {@link #faultInjectionPoint} gets a fault.
+     */
+    @With
+    private double faultProbability = DEFAULT_FAULT_PROBABILITY;
+
+    @With
+    private long faultLatencyInMillis = DEFAULT_FAULT_LATENCY_IN_MILLIS;
+
+    /**
+     * Maximum number of faults per JVM, so the writers can still finish their transactions.
+     */
+    @With
+    private int maximumNumberOfFaults = DEFAULT_MAXIMUM_NUMBER_OF_FAULTS;
+
+    /**
+     * When larger than 0, an {@link org.example.reader.AdaptiveReaderController} paces the reader threads, so the number
+     * of transaction log events during a read stays around this size. Reader processes are not paced.
+     */
+    @With
+    private int adaptiveReaderTargetWindowSize = 0;
+
+    @With
+    private int numberOfSnapshotVerificationThreads = DEFAULT_NUMBER_OF_SNAPSHOT_VERIFICATION_THREADS;
+
+    public String getFullyQualifiedTableName() {
+        return String.format("%s.%s.%s", catalogName, databaseName, tableName);
+    }
 }
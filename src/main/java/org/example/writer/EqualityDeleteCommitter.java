@@ -0,0 +1,186 @@
+package org.example.writer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.IsolationLevel;
+import org.apache.iceberg.PartitionKey;
+import org.apache.iceberg.RowDelta;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.data.GenericAppenderFactory;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.data.InternalRecordWrapper;
+import org.apache.iceberg.encryption.EncryptedOutputFile;
+import org.apache.iceberg.exceptions.CommitStateUnknownException;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.io.FileWriter;
+import org.apache.iceberg.io.OutputFileFactory;
+import org.apache.iceberg.spark.CommitMetadata;
+import org.apache.iceberg.types.Types;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.example.resultset.Record;
+import org.example.transactionlog.ManipulationType;
+import org.example.transactionlog.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Writes updates and deletes as equality deletes on {@code primaryKeyValue}, like streaming ingest does, instead of
+ * rewriting or position-deleting the rows that are found by a scan. An update is an equality delete plus the new row,
+ * a delete only the equality delete. The files are written on the driver and committed as one row delta.
+ * <p>
+ * Equality deletes only apply to data files with a lower sequence number, so the new rows of an update are not deleted
+ * by its own delete files. Concurrent commits with data or delete files for the same keys fail the validation, like a
+ * {@code MERGE INTO}, depending on the isolation level of the table for the operation. The files of a row delta that
+ * failed are deleted again, unless the outcome of its commit is unknown.
+ */
+@Slf4j
+class EqualityDeleteCommitter {
+    private static final String PRIMARY_KEY_VALUE = "primaryKeyValue";
+    private static final AtomicInteger TASK_IDS = new AtomicInteger();
+
+    private final Table table;
+
+    EqualityDeleteCommitter(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * @param rows The new rows, with the payload columns of the table
+     */
+    void update(Transaction transaction, Dataset<Row> rows) {
+        commit(transaction, rows.collectAsList());
+    }
+
+    void delete(Transaction transaction) {
+        commit(transaction, List.of());
+    }
+
+    private void commit(Transaction transaction, List<Row> rows) {
+        table.refresh();
+        var startSnapshot = table.currentSnapshot();
+        var schema = table.schema();
+        var spec = table.spec();
+        var primaryKeyFieldId = schema.findField(PRIMARY_KEY_VALUE).fieldId();
+        var deleteSchema = schema.select(PRIMARY_KEY_VALUE);
+        var appenderFactory = new GenericAppenderFactory(schema, spec, new int[]{primaryKeyFieldId}, deleteSchema, null)
+                .setAll(table.properties());
+        var format = FileFormat.fromString(table.properties().getOrDefault(TableProperties.DEFAULT_FILE_FORMAT, TableProperties.DEFAULT_FILE_FORMAT_DEFAULT));
+        var outputFileFactory = OutputFileFactory.builderFor(table, 0, TASK_IDS.incrementAndGet()).format(format).build();
+
+        var deletesByPartition = new LinkedHashMap<StructLike, List<org.apache.iceberg.data.Record>>();
+        var rowsByPartition = new LinkedHashMap<StructLike, List<org.apache.iceberg.data.Record>>();
+        var partitionKey = new PartitionKey(spec, schema);
+        var wrapper = new InternalRecordWrapper(schema.asStruct());
+        for (var dataManipulation : transaction.dataManipulations) {
+            var keyRecord = GenericRecord.create(schema);
+            keyRecord.setField(PRIMARY_KEY_VALUE, dataManipulation.primaryKeyValue);
+            keyRecord.setField("partitionKeyValue", dataManipulation.partitionKeyValue);
+            partitionKey.partition(wrapper.wrap(keyRecord));
+            var deleteRecord = GenericRecord.create(deleteSchema);
+            deleteRecord.setField(PRIMARY_KEY_VALUE, dataManipulation.primaryKeyValue);
+            deletesByPartition.computeIfAbsent(partitionKey.copy(), partition -> new ArrayList<>()).add(deleteRecord);
+        }
+        for (var row : rows) {
+            var record = toRecord(row, schema.asStruct());
+            partitionKey.partition(wrapper.wrap(record));
+            rowsByPartition.computeIfAbsent(partitionKey.copy(), partition -> new ArrayList<>()).add(record);
+        }
+
+        var rowDelta = table.newRowDelta();
+        var outputFiles = new ArrayList<EncryptedOutputFile>();
+        try {
+            for (var entry : deletesByPartition.entrySet()) {
+                var outputFile = outputFileFactory.newOutputFile(spec, entry.getKey());
+                outputFiles.add(outputFile);
+                var writer = appenderFactory.newEqDeleteWriter(outputFile, format, entry.getKey());
+                writeAll(writer, entry.getValue());
+                rowDelta.addDeletes(writer.toDeleteFile());
+            }
+            for (var entry : rowsByPartition.entrySet()) {
+                var outputFile = outputFileFactory.newOutputFile(spec, entry.getKey());
+                outputFiles.add(outputFile);
+                var writer = appenderFactory.newDataWriter(outputFile, format, entry.getKey());
+                writeAll(writer, entry.getValue());
+                rowDelta.addRows(writer.toDataFile());
+            }
+            commit(transaction, rowDelta, startSnapshot);
+        } catch (CommitStateUnknownException e) {
+            // The row delta may have been committed, so its files may be part of the table
+            throw e;
+        } catch (RuntimeException e) {
+            deleteFiles(outputFiles);
+            throw e;
+        }
+    }
+
+    private void commit(Transaction transaction, RowDelta rowDelta, Snapshot startSnapshot) {
+        if (startSnapshot != null) {
+            var primaryKeyValues = transaction.dataManipulations
+                    .stream()
+                    .map(dataManipulation -> dataManipulation.primaryKeyValue)
+                    .collect(Collectors.toList());
+            rowDelta.validateFromSnapshot(startSnapshot.snapshotId())
+                    .conflictDetectionFilter(Expressions.in(PRIMARY_KEY_VALUE, primaryKeyValues.toArray()))
+                    .validateNoConflictingDeleteFiles();
+            if (getIsolationLevel(transaction) == IsolationLevel.SERIALIZABLE) {
+                rowDelta.validateNoConflictingDataFiles();
+            }
+        }
+        // Like the Spark writes, so the equality deletes can take part in multi-table commits
+        CommitMetadata.commitProperties().forEach(rowDelta::set);
+        rowDelta.commit();
+    }
+
+    private void deleteFiles(List<EncryptedOutputFile> outputFiles) {
+        for (var outputFile : outputFiles) {
+            var location = outputFile.encryptingOutputFile().location();
+            try {
+                table.io().deleteFile(location);
+            } catch (RuntimeException e) {
+                log.warn("Unable to delete {} of a failed row delta, it's left for orphan file cleanup.", location, e);
+            }
+        }
+    }
+
+    private IsolationLevel getIsolationLevel(Transaction transaction) {
+        var property = transaction.manipulationType == ManipulationType.UPDATE
+                ? TableProperties.UPDATE_ISOLATION_LEVEL
+                : TableProperties.DELETE_ISOLATION_LEVEL;
+        return IsolationLevel.fromName(table.properties().getOrDefault(property, TableProperties.UPDATE_ISOLATION_LEVEL_DEFAULT));
+    }
+
+    private static void writeAll(FileWriter<org.apache.iceberg.data.Record, ?> writer, List<org.apache.iceberg.data.Record> records) {
+        try (writer) {
+            for (var record : records) {
+                writer.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts a Spark row with the columns of {@link Record} and the payload columns to an Iceberg record, by name.
+     */
+    private static org.apache.iceberg.data.Record toRecord(Row row, Types.StructType struct) {
+        var record = GenericRecord.create(struct);
+        for (var field : struct.fields()) {
+            var value = row.getAs(field.name());
+            record.setField(field.name(), field.type().isStructType() && value != null
+                    ? toRecord((Row) value, field.type().asStructType())
+                    : value);
+        }
+        return record;
+    }
+}
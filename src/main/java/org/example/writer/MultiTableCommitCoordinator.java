@@ -0,0 +1,101 @@
+package org.example.writer;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.metrics.IcebergMetrics;
+import org.example.metrics.MetricsScope;
+import org.example.report.RunStatistics;
+import org.example.table.LinkedTables;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Commits transactions that span the table and its {@link LinkedTables}. None of the catalogs of the verification
+ * commit several tables atomically, so the writers coordinate: the commits of a transaction to all tables happen
+ * under one lock, and the commit to the table is the commit point. As no two transactions commit concurrently, the
+ * snapshots of the linked tables that a snapshot of the table records contain exactly the same transactions.
+ * <p>
+ * That only holds while every commit succeeds. The commits to the linked tables are not rolled back when a later
+ * commit of the transaction fails for good, so the linked tables are then ahead of the table. The coordinator fails
+ * that transaction and every multi-table transaction after it, which fails the writers and the run.
+ */
+@Slf4j
+public class MultiTableCommitCoordinator {
+    @Getter
+    private final LinkedTables linkedTables;
+    private final RunStatistics runStatistics;
+    /**
+     * Fair, so the lock wait reflects the cost of the serialized commits instead of the luck of a writer.
+     */
+    private final ReentrantLock commitLock = new ReentrantLock(true);
+    /**
+     * The current snapshots of the linked tables, which only this coordinator commits to. Guarded by the lock.
+     */
+    private final Map<String, Long> linkedSnapshotIds = new HashMap<>();
+    /**
+     * Label of the transaction that committed to some tables only, after which no transaction can commit. Guarded by
+     * the lock.
+     */
+    private String partiallyCommittedTransaction;
+
+    public MultiTableCommitCoordinator(LinkedTables linkedTables, RunStatistics runStatistics) {
+        this.linkedTables = linkedTables;
+        this.runStatistics = runStatistics;
+        for (var linkedTableName : linkedTables.getLinkedTableNames()) {
+            linkedSnapshotIds.put(linkedTableName, LinkedTables.NO_SNAPSHOT);
+        }
+    }
+
+    /**
+     * Applies a transaction to the linked tables, then to the table, with the snapshots of the linked tables as
+     * commit properties of the table. The metrics of the commits to the linked tables are kept out of the current
+     * {@link MetricsScope}, so its last commit report is the one of the table.
+     *
+     * @param label       Label of the transaction, for the metrics
+     * @param commitTable Applies the transaction to the table with the given name, with the given commit properties,
+     *                    and returns the number of attempts it took. It retries on its own, so no table ever gets the
+     *                    transaction twice, and passes the commit properties to every attempt.
+     * @return The number of attempts it took on all tables
+     */
+    public int commit(String label, IcebergMetrics icebergMetrics, ToIntBiFunction<String, Map<String, String>> commitTable) {
+        var timeBeforeLock = System.currentTimeMillis();
+        commitLock.lock();
+        try {
+            var lockWait = System.currentTimeMillis() - timeBeforeLock;
+            runStatistics.recordMultiTableCommitLockWait(lockWait);
+            if (partiallyCommittedTransaction != null) {
+                throw new IllegalStateException("The linked tables hold " + partiallyCommittedTransaction + ", which the table doesn't, so " + label + " can't commit.");
+            }
+            var attempts = 0;
+            var committedTables = 0;
+            try {
+                for (var linkedTableName : linkedTables.getLinkedTableNames()) {
+                    try (var metricsScope = MetricsScope.open(label + " table=" + linkedTableName, icebergMetrics)) {
+                        attempts += commitTable.applyAsInt(linkedTableName, Map.of());
+                        committedTables++;
+                        var commitReports = metricsScope.getCommitReports();
+                        // Without a commit report, like for a delete of absent keys, the linked table didn't change
+                        if (!commitReports.isEmpty()) {
+                            linkedSnapshotIds.put(linkedTableName, commitReports.get(commitReports.size() - 1).snapshotId());
+                        }
+                    }
+                }
+                var commitProperties = linkedTables.getCommitProperties(linkedSnapshotIds);
+                attempts += commitTable.applyAsInt(linkedTables.getFullyQualifiedTableName(), commitProperties);
+            } catch (RuntimeException e) {
+                if (committedTables > 0) {
+                    partiallyCommittedTransaction = label;
+                    log.error("Acid Verification threadType='coordinator' {} committed to {} of {} tables, later multi-table transactions fail.", label, committedTables, linkedSnapshotIds.size() + 1);
+                }
+                throw e;
+            }
+            log.info("Acid Verification threadType='coordinator' {} lockWait={} linkedTables={} attempts={}", label, lockWait, linkedSnapshotIds.size(), attempts);
+            return attempts;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.writer;
+
+/**
+ * How the writers update and delete records.
+ */
+public enum RowLevelWriteMethod {
+    /**
+     * {@code MERGE INTO} and {@code DELETE FROM} statements, which follow the write modes of the table.
+     */
+    SQL,
+    /**
+     * An equality delete on the primary key, plus the new rows for updates, committed as a single row delta. Needs
+     * format version 2.
+     */
+    EQUALITY_DELETES
+}
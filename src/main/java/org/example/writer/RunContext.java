@@ -0,0 +1,43 @@
+package org.example.writer;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.With;
+import org.example.history.HistoryRecorder;
+import org.example.metrics.IcebergMetrics;
+import org.example.reader.AdaptiveReaderController;
+import org.example.reader.SessionGuarantees;
+import org.example.report.RunStatistics;
+import org.example.schedule.ScheduleRecorder;
+import org.example.transactionlog.TransactionLog;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * What the writer and reader threads of a run share, next to its {@link Configuration}. The hooks of optional
+ * features are null when the feature is off.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RunContext {
+    private final TransactionLog transactionLog;
+    private final AtomicBoolean stop;
+    private final Runnable verificationFailedCallback;
+    private final IcebergMetrics icebergMetrics;
+    private final RunStatistics runStatistics;
+    @With
+    private final SessionGuarantees sessionGuarantees;
+    @With
+    private final HistoryRecorder historyRecorder;
+    @With
+    private final ScheduleRecorder scheduleRecorder;
+    @With
+    private final MultiTableCommitCoordinator multiTableCommitCoordinator;
+    @With
+    private final AdaptiveReaderController adaptiveReaderController;
+
+    public static RunContext create(TransactionLog transactionLog, AtomicBoolean stop, Runnable verificationFailedCallback, IcebergMetrics icebergMetrics, RunStatistics runStatistics) {
+        return new RunContext(transactionLog, stop, verificationFailedCallback, icebergMetrics, runStatistics, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.writer;
+
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.spark.CommitMetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/**
+ * Records the transaction of a commit in the summary of the snapshot it commits, so the snapshot of every committed
+ * transaction is known from the table itself, whether the catalog reports its commits or not.
+ */
+public final class TransactionCommitProperties {
+    public static final String TRANSACTION_ID_PROPERTY = "acid-verification.transaction-id";
+
+    private TransactionCommitProperties() {
+    }
+
+    /**
+     * Runs the commits of a transaction with its id as commit property, next to the given commit properties, like the
+     * linked snapshots of a multi-table commit. Iceberg clears the commit properties of the thread after every call,
+     * so every attempt of a retried commit has to pass them again.
+     */
+    public static <R> R withTransactionId(UUID transactionId, Map<String, String> commitProperties, Callable<R> commit) {
+        var transactionCommitProperties = new HashMap<>(commitProperties);
+        transactionCommitProperties.put(TRANSACTION_ID_PROPERTY, transactionId.toString());
+        return CommitMetadata.withCommitProperties(transactionCommitProperties, commit, RuntimeException.class);
+    }
+
+    /**
+     * @return The sequence numbers of the snapshots that committed a transaction, by transaction id. Maintenance
+     * commits don't commit transactions, so they are not part of it.
+     */
+    public static Map<UUID, Long> getSequenceNumbersByTransactionId(Iterable<Snapshot> snapshots) {
+        var sequenceNumbers = new HashMap<UUID, Long>();
+        for (var snapshot : snapshots) {
+            var transactionId = snapshot.summary().get(TRANSACTION_ID_PROPERTY);
+            if (transactionId != null) {
+                sequenceNumbers.put(UUID.fromString(transactionId), snapshot.sequenceNumber());
+            }
+        }
+        return sequenceNumbers;
+    }
+}
@@ -1,12 +1,16 @@
 package org.example.writer;
 
 import lombok.NonNull;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.BulkInsertSpec;
 import org.example.transactionlog.DataManipulation;
 import org.example.transactionlog.ManipulationType;
 import org.example.transactionlog.Transaction;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -18,18 +22,37 @@ public class TransactionGenerator {
     private final AvailableRecordIdentifiers availableRecordIdentifiers;
     private final float preferenceToInsertOverOtherManipulation;
     private final float preferenceToUpdateOverDelete;
+    private final long numberOfRecordsPerBulkInsert;
+    private final float preferenceToBulkInsertOverOtherManipulations;
+    private final BaselineSpec baselineSpec;
+    private long nextBulkInsertNumber;
     
     public TransactionGenerator(@NonNull Configuration configuration) {
         maximumNumberOfPartitions = configuration.getMaximumNumberOfPartitions();
         recordsPertransaction = configuration.getRecordsPerTransaction();
         preferenceToInsertOverOtherManipulation = configuration.getPreferenceToInsertOverOtherManipulations();
         preferenceToUpdateOverDelete = configuration.getPreferenceToUpdateOverDelete();
+        numberOfRecordsPerBulkInsert = configuration.getNumberOfRecordsPerBulkInsert();
+        preferenceToBulkInsertOverOtherManipulations = configuration.getPreferenceToBulkInsertOverOtherManipulations();
+        baselineSpec = configuration.getNumberOfBaselineRecords() > 0 ? new BaselineSpec(configuration.getNumberOfBaselineRecords(), maximumNumberOfPartitions) : null;
         randomGenerator = new Random(configuration.getRandomSeed());
-        availableRecordIdentifiers = new AvailableRecordIdentifiers(configuration.getMaximumNumberOfRecords());
+        availableRecordIdentifiers = new AvailableRecordIdentifiers(configuration.getMaximumNumberOfRecords(), configuration.getNumberOfBaselineRecords());
+    }
+
+    /**
+     * @return The records the table is pre-populated with, which exist before the first transaction, or null
+     */
+    public BaselineSpec getBaselineSpec() {
+        return baselineSpec;
     }
     
     public Transaction getNextTransaction() {
         synchronized (availableRecordIdentifiers) {
+            if (numberOfRecordsPerBulkInsert > 0 && randomBulkInsertDecision()) {
+                final var transaction = createBulkInsertTransaction();
+                System.out.println(transaction);
+                return transaction;
+            }
             var enoughExistingRecordsForUpdateOrDelete = availableRecordIdentifiers.getNumberOfExistingRecords() >= recordsPertransaction;
             var enoughExistingRecordsForInsert = availableRecordIdentifiers.getNumberOfNonExistingRecords() >= recordsPertransaction;
             ManipulationType manipulationType;
@@ -60,6 +83,10 @@ public class TransactionGenerator {
         return randomGenerator.nextFloat() < preferenceToInsertOverOtherManipulation;
     }
     
+    private boolean randomBulkInsertDecision() {
+        return randomGenerator.nextFloat() < preferenceToBulkInsertOverOtherManipulations;
+    }
+
     private boolean randomUpdateDecision() {
         return randomGenerator.nextFloat() < preferenceToUpdateOverDelete;
     }
@@ -72,25 +99,49 @@ public class TransactionGenerator {
         return new Transaction(manipulationType, dataManipulations);
     }
     
+    private Transaction createBulkInsertTransaction() {
+        var bulkInsertSpec = new BulkInsertSpec(nextBulkInsertNumber++, numberOfRecordsPerBulkInsert, randomGenerator.nextInt(Integer.MAX_VALUE), maximumNumberOfPartitions);
+        return new Transaction(bulkInsertSpec);
+    }
+
     private DataManipulation createDataManipulation(String recordIdentifier) {
-        int partitionNumber = recordIdentifier.hashCode() % maximumNumberOfPartitions;
         var dataValue = "Some random value: " + randomGenerator.nextLong();
-        return new DataManipulation(recordIdentifier, "Partition" + partitionNumber, dataValue);
+        return new DataManipulation(recordIdentifier, getPartitionKeyValue(recordIdentifier), dataValue);
+    }
+
+    /**
+     * Updates don't move records to another partition, so baseline records keep the partition they were written to.
+     */
+    private String getPartitionKeyValue(String recordIdentifier) {
+        if (baselineSpec != null && baselineSpec.isBaselineKey(recordIdentifier)) {
+            return baselineSpec.getPartitionKeyValue(baselineSpec.getRecordNumber(recordIdentifier));
+        }
+        int partitionNumber = recordIdentifier.hashCode() % maximumNumberOfPartitions;
+        return "Partition" + partitionNumber;
     }
 
     private final class AvailableRecordIdentifiers {
         private final List<String> existingRecordIdentifiers;
         private final List<String> nonExistingRecordIdentifiers;
-        
-        private AvailableRecordIdentifiers(int maximumNumberOfRecords) {
+        /**
+         * Baseline records that no transaction touched yet. There can be millions of them, so position {@code i} below
+         * {@link #numberOfUntouchedBaselineRecords} holds baseline record {@code i}, unless another record was moved
+         * there. Only the moved record numbers are stored.
+         */
+        private final Map<Integer, Integer> movedBaselineRecordNumbers;
+        private int numberOfUntouchedBaselineRecords;
+
+        private AvailableRecordIdentifiers(int maximumNumberOfRecords, int numberOfBaselineRecords) {
             this.existingRecordIdentifiers = new LinkedList<>();
             this.nonExistingRecordIdentifiers = IntStream.range(0, maximumNumberOfRecords)
                     .mapToObj(recordNr -> "Record" + recordNr)
                     .collect(Collectors.toCollection(LinkedList::new));
+            this.movedBaselineRecordNumbers = new HashMap<>();
+            this.numberOfUntouchedBaselineRecords = numberOfBaselineRecords;
         }
         
         private int getNumberOfExistingRecords() {
-            return existingRecordIdentifiers.size();
+            return existingRecordIdentifiers.size() + numberOfUntouchedBaselineRecords;
         }
         
         private int getNumberOfNonExistingRecords() {
@@ -105,7 +156,27 @@ public class TransactionGenerator {
         }
         
         private String pollIdentifierForExistingRecord() {
-            return pollRecordIdentifier(existingRecordIdentifiers);
+            if (numberOfUntouchedBaselineRecords == 0) {
+                return pollRecordIdentifier(existingRecordIdentifiers);
+            }
+            var index = randomGenerator.nextInt(getNumberOfExistingRecords());
+            if (index < existingRecordIdentifiers.size()) {
+                return existingRecordIdentifiers.remove(index);
+            }
+            return pollUntouchedBaselineRecordIdentifier(index - existingRecordIdentifiers.size());
+        }
+
+        /**
+         * Removes the baseline record at the index by moving the last untouched one into its place.
+         */
+        private String pollUntouchedBaselineRecordIdentifier(int index) {
+            var lastIndex = --numberOfUntouchedBaselineRecords;
+            var recordNumber = movedBaselineRecordNumbers.getOrDefault(index, index);
+            var lastRecordNumber = movedBaselineRecordNumbers.remove(lastIndex);
+            if (index != lastIndex) {
+                movedBaselineRecordNumbers.put(index, lastRecordNumber == null ? lastIndex : lastRecordNumber);
+            }
+            return baselineSpec.getPrimaryKeyValue(recordNumber);
         }
         
         private String pollIdentifiersForNonExistingRecords() {
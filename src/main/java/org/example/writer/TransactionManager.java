@@ -1,19 +1,69 @@
 package org.example.writer;
 
+import jdk.jfr.Recording;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.spark.Spark3Util;
 import org.apache.spark.sql.Column;
 import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
 import org.apache.spark.sql.catalyst.analysis.TableAlreadyExistsException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.capture.CapturedReadVerificationResult;
+import org.example.capture.CapturedReadVerifier;
+import org.example.catalog.CatalogType;
+import org.example.coordination.CoordinatorServer;
+import org.example.coordination.WorkerProcess;
+import org.example.coordination.WorkerRole;
+import org.example.durability.DurabilityCheckResult;
+import org.example.durability.DurabilityChecker;
+import org.example.durability.FaultInjectingFileIO;
+import org.example.durability.FaultType;
+import org.example.history.HistoryCheckResult;
+import org.example.history.HistoryChecker;
+import org.example.history.HistoryRecorder;
+import org.example.maintenance.MaintenanceThread;
+import org.example.metrics.IcebergMetrics;
+import org.example.metrics.IcebergMetricsReporter;
+import org.example.metrics.MetricsScope;
+import org.example.reader.AdaptiveReaderController;
+import org.example.reader.AdaptiveReaderReport;
 import org.example.reader.ReaderThread;
-import org.example.resultset.Record;
+import org.example.reader.SessionGuarantees;
+import org.example.reader.SnapshotVerificationResult;
+import org.example.reader.SnapshotVerifier;
+import org.example.reader.StreamingVerificationResult;
+import org.example.reader.StreamingVerifier;
+import org.example.report.RunReport;
+import org.example.report.RunStatistics;
+import org.example.schedule.ScheduleRecorder;
+import org.example.table.LinkedTables;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.InMemoryTransactionLog;
 import org.example.transactionlog.Transaction;
 import org.example.transactionlog.TransactionLog;
+import scala.collection.JavaConverters;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
+@Slf4j
 public class TransactionManager {
+    private static final List<String> WORKER_SPARK_CONFIGURATION_PREFIXES = List.of(
+            "spark.master", "spark.driver.host", "spark.driver.bindAddress", "spark.sql.", "spark.hadoop.", "hive.");
+
     private final Configuration configuration;
     private final SparkSession session;
     private final TransactionLog transactionLog;
@@ -22,6 +72,12 @@ public class TransactionManager {
     private final AtomicInteger transactionCount;
     private final AtomicBoolean stopReadersAndWriters;
     private final AtomicInteger failedVerificationCount;
+    private final AtomicInteger committedTransactionCount;
+    private final IcebergMetrics icebergMetrics;
+    private final RunStatistics runStatistics;
+    private final ScheduleRecorder scheduleRecorder;
+    private final SessionGuarantees sessionGuarantees;
+    private final MultiTableCommitCoordinator multiTableCommitCoordinator;
 
     @Getter
     private boolean hasFailedWriters;
@@ -29,21 +85,182 @@ public class TransactionManager {
     @Getter
     private boolean hasFailedReaders;
 
+    @Getter
+    private boolean hasFailedMaintenance;
+
+    @Getter
+    private RunReport runReport;
+
+    @Getter
+    private HistoryCheckResult historyCheckResult;
+
+    @Getter
+    private SnapshotVerificationResult snapshotVerificationResult;
+
+    @Getter
+    private StreamingVerificationResult streamingVerificationResult;
+
+    @Getter
+    private CapturedReadVerificationResult capturedReadVerificationResult;
+
+    @Getter
+    private DurabilityCheckResult durabilityCheckResult;
+
+    @Getter
+    private AdaptiveReaderReport adaptiveReaderReport;
+
+    private HistoryRecorder historyRecorder;
+    private Path faultLogFile;
+
     public TransactionManager(Configuration configuration, SparkSession session) {
         this.configuration = configuration;
         this.session = session;
-        this.transactionLog = new TransactionLog();
+        this.transactionLog = new InMemoryTransactionLog();
         this.transactionGenerator = new TransactionGenerator(configuration);
-        this.fullyQualifiedTableName = String.format("%s.%s.%s", configuration.getCatalogName(), configuration.getDatabaseName(), configuration.getTableName());
+        this.fullyQualifiedTableName = configuration.getFullyQualifiedTableName();
         this.transactionCount = new AtomicInteger();
         this.stopReadersAndWriters = new AtomicBoolean(false);
         this.failedVerificationCount = new AtomicInteger();
+        this.committedTransactionCount = new AtomicInteger();
+        this.icebergMetrics = new IcebergMetrics();
+        this.runStatistics = new RunStatistics();
+        this.scheduleRecorder = configuration.getScheduleFile() == null ? null : new ScheduleRecorder();
+        this.sessionGuarantees = configuration.isVerifySessionGuarantees() ? new SessionGuarantees(configuration.isReadYourWritesProbesEnabled()) : null;
+        this.multiTableCommitCoordinator = configuration.getNumberOfLinkedTables() > 0
+                ? new MultiTableCommitCoordinator(LinkedTables.create(fullyQualifiedTableName, configuration.getNumberOfLinkedTables()), runStatistics)
+                : null;
     }
 
     public void run() throws InterruptedException {
+        if (configuration.getRowLevelWriteMethod() == RowLevelWriteMethod.EQUALITY_DELETES && configuration.getFormatVersion() < 2) {
+            throw new IllegalArgumentException("Equality deletes need format version 2, not " + configuration.getFormatVersion() + ".");
+        }
+        if (configuration.isVerifySessionGuarantees() && configuration.getFormatVersion() < 2) {
+            throw new IllegalArgumentException("Session guarantees need format version 2, not " + configuration.getFormatVersion() + ".");
+        }
+        if (configuration.isStreamingVerificationEnabled() && configuration.getCatalogType() == CatalogType.IN_MEMORY) {
+            throw new IllegalArgumentException("The streaming query stores its offsets with the file IO of the table, which the in-memory catalog keeps in memory.");
+        }
+        if (configuration.getNumberOfWriterProcesses() > 0 && configuration.getNumberOfReaderProcesses() <= 0) {
+            throw new IllegalArgumentException("With writer processes, the readers run in reader processes too, so a run without reader processes verifies nothing.");
+        }
+        if (configuration.getNumberOfLinkedTables() > 0 && configuration.getNumberOfWriterProcesses() > 0) {
+            throw new IllegalArgumentException("Linked tables need the writers to share the commit lock of this JVM, they can't run in worker processes.");
+        }
+        if (configuration.getFaultInjectionPoint() != null && configuration.getFaultType() == FaultType.ABORT && configuration.getNumberOfWriterProcesses() == 0) {
+            throw new IllegalArgumentException("Aborts halt the JVM of the writers, so they need writer processes.");
+        }
+        createTable();
+
+        try (var flightRecording = startFlightRecording(); var history = createHistoryRecorder()) {
+            historyRecorder = history;
+            prePopulateTable();
+            runReadersAndWriters();
+            writeSchedule();
+            if (flightRecording != null) {
+                flightRecording.stop();
+                log.info("Flight recording written to {}", flightRecording.getDestination());
+            }
+        } finally {
+            historyRecorder = null;
+        }
+        checkHistory();
+        checkDurability();
+        verifyAllSnapshots();
+    }
+
+    /**
+     * Registers the catalog and creates the table and its linked tables, or recreates them when they exist.
+     */
+    public void createTable() {
+        registerCatalog();
         createDatabaseIfNotExists();
-        createOrRecreateTable();
+        createOrRecreateTable(fullyQualifiedTableName);
+        if (multiTableCommitCoordinator != null) {
+            multiTableCommitCoordinator.getLinkedTables().getLinkedTableNames().forEach(this::createOrRecreateTable);
+        }
+    }
 
+    private void runReadersAndWriters() throws InterruptedException {
+        var timeBeforeRun = System.currentTimeMillis();
+
+        hasFailedMaintenance = false;
+        var maintenanceThreads = createAndStartMaintenanceThreads(configuration.getNumberOfMaintenanceThreads());
+        var streamingVerifier = startStreamingVerifier();
+
+        if (configuration.getNumberOfWriterProcesses() > 0) {
+            runWorkerProcesses();
+        } else {
+            // The maintenance threads share the JVM of the writer threads, so their writes get faults as well
+            if (faultLogFile != null) {
+                FaultInjectingFileIO.arm();
+            }
+            try {
+                runWorkerThreads();
+            } finally {
+                FaultInjectingFileIO.disarm();
+            }
+        }
+
+        if (streamingVerifier != null) {
+            streamingVerificationResult = streamingVerifier.finish();
+            log.info("Acid Verification streaming verification satisfied='{}' {}", streamingVerificationResult.isSatisfied(), streamingVerificationResult);
+        }
+        verifyCapturedReads();
+
+        var performedMaintenanceActions = 0;
+        var failedMaintenanceActions = 0;
+        for (var maintenanceThread : maintenanceThreads) {
+            maintenanceThread.join();
+            hasFailedMaintenance = hasFailedMaintenance || maintenanceThread.getMaintenanceException() != null;
+            performedMaintenanceActions += maintenanceThread.getPerformedActions();
+            failedMaintenanceActions += maintenanceThread.getFailedActions();
+        }
+        runReport = RunReport.create(
+                System.currentTimeMillis() - timeBeforeRun,
+                committedTransactionCount.get(),
+                runStatistics.getTransactionAttempts().sum(),
+                runStatistics.getCommitLatencies().summarize(),
+                runStatistics.getReadLatencies().summarize(),
+                runStatistics.getMultiTableCommitLockWaits().summarize(),
+                failedVerificationCount.get(),
+                hasFailedWriters || hasFailedReaders || hasFailedMaintenance,
+                performedMaintenanceActions,
+                failedMaintenanceActions,
+                icebergMetrics
+        );
+        log.info("Acid Verification run report {}", runReport);
+        System.out.println("ACID Verification finished!");
+    }
+
+    /**
+     * Persists the transaction log next to the reads the readers captured, and verifies them.
+     */
+    private void verifyCapturedReads() throws InterruptedException {
+        if (configuration.getReadCaptureDirectory() == null) {
+            return;
+        }
+        var captureDirectory = Path.of(configuration.getReadCaptureDirectory());
+        try {
+            CapturedReadVerifier.writeTransactionLog(captureDirectory, transactionLog);
+            capturedReadVerificationResult = new CapturedReadVerifier(captureDirectory, configuration.getNumberOfSnapshotVerificationThreads()).verify();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to verify the reads captured in " + captureDirectory, e);
+        }
+        failedVerificationCount.addAndGet(capturedReadVerificationResult.getFailedReads());
+        log.info("Acid Verification captured read verification satisfied='{}' {}", capturedReadVerificationResult.isSatisfied(), capturedReadVerificationResult);
+    }
+
+    private StreamingVerifier startStreamingVerifier() {
+        if (!configuration.isStreamingVerificationEnabled()) {
+            return null;
+        }
+        var streamingVerifier = new StreamingVerifier(createSparkSessions(1)[0], fullyQualifiedTableName, transactionLog, configuration.getStreamingTriggerIntervalInMillis());
+        streamingVerifier.start();
+        return streamingVerifier;
+    }
+
+    private void runWorkerThreads() throws InterruptedException {
         var numberOfSparkSessionsForWriters = configuration.getNumberOfSparkSessionsForWriters();
         var numberOfSparkSessionsForReaders = configuration.getNumberOfSparkSessionsForReaders();
         var sparkSessionForWriters = createSparkSessions(numberOfSparkSessionsForWriters);
@@ -51,40 +268,381 @@ public class TransactionManager {
 
         hasFailedReaders = false;
         var numberOfReaderThreads = configuration.getNumberOfReaderThreads();
-        var readerThreads = createAndStartReaderThreads(numberOfReaderThreads, sparkSessionForReaders, numberOfSparkSessionsForReaders);
+        var adaptiveReaderController = configuration.getAdaptiveReaderTargetWindowSize() > 0
+                ? new AdaptiveReaderController(configuration.getAdaptiveReaderTargetWindowSize(), numberOfReaderThreads)
+                : null;
+        var runContext = RunContext.create(transactionLog, stopReadersAndWriters, this::failedVerificationCallback, icebergMetrics, runStatistics)
+                .withSessionGuarantees(sessionGuarantees)
+                .withHistoryRecorder(historyRecorder)
+                .withScheduleRecorder(scheduleRecorder)
+                .withMultiTableCommitCoordinator(multiTableCommitCoordinator);
+        var readerThreads = createAndStartReaderThreads(numberOfReaderThreads, sparkSessionForReaders, numberOfSparkSessionsForReaders, runContext.withAdaptiveReaderController(adaptiveReaderController));
 
         hasFailedWriters = false;
         var numberOfWriterThreads = configuration.getNumberOfWriterThreads();
-        var writerThreads = createAndStartTransactionWriters(numberOfWriterThreads, sparkSessionForWriters, numberOfSparkSessionsForWriters);
+        var writerThreads = createAndStartTransactionWriters(numberOfWriterThreads, sparkSessionForWriters, numberOfSparkSessionsForWriters, runContext);
 
         for (var writerThread : writerThreads) {
             writerThread.join();
-            hasFailedWriters = hasFailedWriters && writerThread.getWriterException() != null;
+            hasFailedWriters = hasFailedWriters || writerThread.getWriterException() != null;
         }
 
         stopReadersAndWriters.set(true);
 
         for (var readerThread : readerThreads) {
             readerThread.join();
-            hasFailedReaders = hasFailedReaders && readerThread.getReaderException() != null;
+            hasFailedReaders = hasFailedReaders || readerThread.getReaderException() != null;
         }
-        System.out.println("ACID Verification finished!");
+
+        if (adaptiveReaderController != null) {
+            adaptiveReaderReport = adaptiveReaderController.createReport();
+            log.info("Acid Verification adaptive readers {}", adaptiveReaderReport);
+        }
+    }
+
+    /**
+     * Runs the writers and readers in separate JVMs, which get their transactions and the transaction log from a
+     * {@link CoordinatorServer} in this JVM.
+     */
+    private void runWorkerProcesses() throws InterruptedException {
+        var catalogType = configuration.getCatalogType();
+        if (!catalogType.isSharedAcrossProcesses()) {
+            throw new IllegalArgumentException("Catalog type " + catalogType + " can't be shared by worker processes.");
+        }
+        try (var coordinator = new CoordinatorServer(
+                transactionLog,
+                configuration,
+                getWorkerSparkConfiguration(session),
+                this::provideTransactionIfLimitNotReached,
+                this::transactionCommitted,
+                this::failedVerificationCallback,
+                stopReadersAndWriters,
+                runStatistics
+        )) {
+            coordinator.start();
+
+            hasFailedReaders = false;
+            var readerProcesses = startWorkerProcesses(WorkerRole.READER, configuration.getNumberOfReaderProcesses(), coordinator.getPort());
+
+            hasFailedWriters = false;
+            var writerProcesses = startWorkerProcesses(WorkerRole.WRITER, configuration.getNumberOfWriterProcesses(), coordinator.getPort());
+
+            var writerDeadline = System.currentTimeMillis() + configuration.getWorkerProcessTimeoutInMillis();
+            for (var writerProcess : writerProcesses) {
+                hasFailedWriters = waitForProcess(writerProcess, writerDeadline - System.currentTimeMillis()) != 0 || hasFailedWriters;
+            }
+
+            stopReadersAndWriters.set(true);
+
+            var readerDeadline = System.currentTimeMillis() + configuration.getWorkerProcessTimeoutInMillis();
+            for (var readerProcess : readerProcesses) {
+                hasFailedReaders = waitForProcess(readerProcess, readerDeadline - System.currentTimeMillis()) != 0 || hasFailedReaders;
+            }
+        }
+    }
+
+    private List<Process> startWorkerProcesses(WorkerRole workerRole, int numberOfProcesses, int coordinatorPort) {
+        var command = createJavaCommand(WorkerProcess.class);
+        command.add(String.valueOf(coordinatorPort));
+        command.add(workerRole.name());
+
+        var processes = new ArrayList<Process>();
+        for (var workerNumber = 0; workerNumber < numberOfProcesses; workerNumber++) {
+            var workerCommand = new ArrayList<>(command);
+            workerCommand.add(String.valueOf(workerNumber));
+            try {
+                processes.add(new ProcessBuilder(workerCommand).inheritIO().start());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to start worker process", e);
+            }
+        }
+        return processes;
+    }
+
+    /**
+     * Waits for a forked JVM, and kills it when it didn't exit within the timeout, so a wedged process can't hang the
+     * run.
+     *
+     * @return The exit code of the process, or -1 when it was killed
+     */
+    public static int waitForProcess(Process process, long timeoutInMillis) throws InterruptedException {
+        if (process.waitFor(Math.max(0, timeoutInMillis), TimeUnit.MILLISECONDS)) {
+            return process.exitValue();
+        }
+        log.error("Process {} didn't exit within {} ms and is killed.", process.pid(), timeoutInMillis);
+        process.destroyForcibly().waitFor();
+        return -1;
+    }
+
+    /**
+     * @return The command that starts the main class in a new JVM with the JVM arguments and class path of this one
+     */
+    public static List<String> createJavaCommand(Class<?> mainClass) {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        ManagementFactory.getRuntimeMXBean()
+                .getInputArguments()
+                .stream()
+                .filter(argument -> !argument.startsWith("-agentlib:jdwp") && !argument.startsWith("-Xrunjdwp"))
+                .forEach(command::add);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        return command;
+    }
+
+    /**
+     * @return The Spark configuration other processes need to reach the same catalogs as the session
+     */
+    public static Map<String, String> getWorkerSparkConfiguration(SparkSession session) {
+        var sparkConfiguration = new HashMap<String, String>();
+        for (var entry : session.sparkContext().getConf().getAll()) {
+            sparkConfiguration.put(entry._1(), entry._2());
+        }
+        sparkConfiguration.putAll(JavaConverters.mapAsJavaMap(session.conf().getAll()));
+        sparkConfiguration.keySet().removeIf(key -> WORKER_SPARK_CONFIGURATION_PREFIXES.stream().noneMatch(key::startsWith));
+        return sparkConfiguration;
+    }
+
+    /**
+     * Registers the catalog on the session, unless it needs an external service and is configured on the session upfront.
+     * Spark loads catalogs lazily, so this has to happen before the catalog is used for the first time.
+     */
+    private void registerCatalog() {
+        var catalogType = configuration.getCatalogType();
+        var catalogPrefix = "spark.sql.catalog." + configuration.getCatalogName();
+        registerFaultInjection(catalogPrefix);
+        // The commit and scan reports are the only source of the snapshots the writers committed and the readers read
+        session.conf().set(catalogPrefix + "." + CatalogType.METRICS_REPORTER_PROPERTY, IcebergMetricsReporter.class.getName());
+        if (catalogType.requiresExternalService()) {
+            // Only the caching and the reporter are up to the run, the sessions of the threads pick them up when they are cloned
+            session.conf().set(catalogPrefix + "." + CatalogType.CACHE_ENABLED_PROPERTY, String.valueOf(configuration.isCatalogCacheEnabled()));
+            return;
+        }
+        session.conf().set(catalogPrefix, "org.apache.iceberg.spark.SparkCatalog");
+        catalogType.getCatalogProperties(configuration.getCatalogName(), configuration.getWarehouseLocation(), configuration.isCatalogCacheEnabled())
+                .forEach((key, value) -> session.conf().set(catalogPrefix + "." + key, value));
+    }
+
+    /**
+     * Makes the catalog write through the {@link FaultInjectingFileIO}, which only injects faults once the writers run.
+     * The worker processes get the catalog properties with the rest of the Spark configuration.
+     */
+    private void registerFaultInjection(String catalogPrefix) {
+        if (configuration.getFaultInjectionPoint() == null) {
+            return;
+        }
+        try {
+            faultLogFile = Files.createTempFile("acid-verification-faults", ".log");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create the fault log", e);
+        }
+        FaultInjectingFileIO.getCatalogProperties(
+                configuration.getFaultInjectionPoint(),
+                configuration.getFaultType(),
+                configuration.getFaultProbability(),
+                configuration.getFaultLatencyInMillis(),
+                configuration.getMaximumNumberOfFaults(),
+                faultLogFile
+        ).forEach((key, value) -> session.conf().set(catalogPrefix + "." + key, value));
+    }
+
+    private Recording startFlightRecording() {
+        var flightRecordingFile = configuration.getFlightRecordingFile();
+        if (flightRecordingFile == null) {
+            return null;
+        }
+        try {
+            var recording = new Recording(jdk.jfr.Configuration.getConfiguration("default"));
+            recording.setName("acid-verification");
+            recording.setDestination(Path.of(flightRecordingFile));
+            recording.start();
+            return recording;
+        } catch (IOException | java.text.ParseException e) {
+            throw new IllegalStateException("Unable to start the flight recording", e);
+        }
+    }
+
+    private void writeSchedule() {
+        if (scheduleRecorder == null) {
+            return;
+        }
+        var scheduleFile = configuration.getScheduleFile();
+        try {
+            scheduleRecorder.toSchedule(configuration, transactionLog).write(Path.of(scheduleFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write schedule file " + scheduleFile, e);
+        }
+        log.info("Schedule written to {}", scheduleFile);
+    }
+
+    private HistoryRecorder createHistoryRecorder() {
+        var historyFile = configuration.getHistoryFile();
+        return historyFile == null ? null : new HistoryRecorder(Path.of(historyFile));
+    }
+
+    private void checkHistory() {
+        var historyFile = configuration.getHistoryFile();
+        if (historyFile == null) {
+            return;
+        }
+        try {
+            historyCheckResult = HistoryChecker.check(getHistoryFiles(historyFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to check history file " + historyFile, e);
+        }
+    }
+
+    private void checkDurability() {
+        if (faultLogFile == null) {
+            return;
+        }
+        var durabilityChecker = new DurabilityChecker(session, fullyQualifiedTableName, configuration.getPayloadSchema(), transactionLog, faultLogFile);
+        try {
+            durabilityCheckResult = durabilityChecker.check();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read fault log " + faultLogFile, e);
+        }
+        log.info("Acid Verification durability check satisfied='{}' {}", durabilityCheckResult.isSatisfied(), durabilityCheckResult);
+    }
+
+    private List<Path> getHistoryFiles(String historyFile) {
+        var historyFiles = new ArrayList<Path>();
+        historyFiles.add(Path.of(historyFile));
+        for (var workerNumber = 0; workerNumber < configuration.getNumberOfWriterProcesses(); workerNumber++) {
+            historyFiles.add(WorkerProcess.getHistoryFile(configuration, WorkerRole.WRITER, workerNumber));
+        }
+        for (var workerNumber = 0; workerNumber < configuration.getNumberOfReaderProcesses(); workerNumber++) {
+            historyFiles.add(WorkerProcess.getHistoryFile(configuration, WorkerRole.READER, workerNumber));
+        }
+        return historyFiles;
+    }
+
+    private void verifyAllSnapshots() throws InterruptedException {
+        if (!configuration.isVerifyAllSnapshots()) {
+            return;
+        }
+        var snapshotVerifier = new SnapshotVerifier(session, fullyQualifiedTableName, configuration.getPayloadSchema(), configuration.getNumberOfSnapshotVerificationThreads());
+        snapshotVerificationResult = snapshotVerifier.verify(transactionLog.getFirstNEvents(transactionLog.getEventCount()));
+        log.info("Acid Verification snapshot verification satisfied='{}' {}", snapshotVerificationResult.isSatisfied(), snapshotVerificationResult);
     }
 
     private void createDatabaseIfNotExists() {
         session.sql("CREATE DATABASE IF NOT EXISTS " + configuration.getCatalogName() + "." + configuration.getDatabaseName() + ";");
     }
 
-    private void createOrRecreateTable() {
-        session.sql("DROP TABLE IF EXISTS " + fullyQualifiedTableName);
+    private void createOrRecreateTable(String tableName) {
+        var payloadColumns = configuration.getPayloadSchema()
+                .getColumnDefinitions()
+                .stream()
+                .map(columnDefinition -> ",\n" + columnDefinition)
+                .collect(Collectors.joining());
+        session.sql("DROP TABLE IF EXISTS " + tableName);
         session.sql(String.format("CREATE TABLE IF NOT EXISTS %s(\n" +
                 "primaryKeyValue STRING,\n" +
                 "partitionKeyValue STRING,\n" +
-                "dataValue STRING)\n" +
+                "dataValue STRING%s)\n" +
                 "USING iceberg\n" +
                 "PARTITIONED BY (partitionKeyValue)\n" +
                 "TBLPROPERTIES (\n" +
-                "'commit.retry.num-retries' = '100')", fullyQualifiedTableName));
+                "%s)", tableName, payloadColumns, formatTableProperties(createTableProperties())));
+        replaceSortOrder(tableName);
+    }
+
+    /**
+     * Writes the baseline records in one distributed write, generated on the executors, and seeds the transaction log
+     * with a checkpoint of them. Their commit is not part of the metrics of the run. With linked tables, they get the
+     * baseline records in the same multi-table commit.
+     */
+    private void prePopulateTable() {
+        var baselineSpec = transactionGenerator.getBaselineSpec();
+        if (baselineSpec == null) {
+            return;
+        }
+        var timeBeforePrePopulation = System.currentTimeMillis();
+        var baselineTransaction = new Transaction(baselineSpec);
+        Long snapshotId = null;
+        Long sequenceNumber = null;
+        try (var metricsScope = MetricsScope.open("baseline", new IcebergMetrics())) {
+            if (multiTableCommitCoordinator == null) {
+                writeBaseline(baselineTransaction, fullyQualifiedTableName, Map.of());
+            } else {
+                multiTableCommitCoordinator.commit(metricsScope.getLabel(), new IcebergMetrics(), (tableName, commitProperties) -> {
+                    writeBaseline(baselineTransaction, tableName, commitProperties);
+                    // The tables are empty, so the baseline commits at the first attempt
+                    return 1;
+                });
+            }
+            var commitReports = metricsScope.getCommitReports();
+            if (!commitReports.isEmpty()) {
+                snapshotId = commitReports.get(commitReports.size() - 1).snapshotId();
+                sequenceNumber = commitReports.get(commitReports.size() - 1).sequenceNumber();
+            }
+            if (historyRecorder != null) {
+                // The baseline records are recorded as one key, like the records of a bulk insert
+                var table = Spark3Util.loadIcebergTable(session, fullyQualifiedTableName);
+                historyRecorder.recordWrite("baseline", metricsScope, table, List.of(), List.of(BaselineSpec.KEY_PREFIX));
+            }
+        } catch (NoSuchTableException | ParseException e) {
+            throw new RuntimeException(e);
+        }
+        transactionLog.logBaseline(baselineTransaction, snapshotId, sequenceNumber);
+        log.info("Acid Verification pre-population records={} duration={}", baselineSpec.numberOfRecords, System.currentTimeMillis() - timeBeforePrePopulation);
+    }
+
+    private void writeBaseline(Transaction baselineTransaction, String tableName, Map<String, String> commitProperties) {
+        var baselineSpec = baselineTransaction.baselineSpec;
+        var records = TransactionWriter.generateRecords(session, configuration.getPayloadSchema(), baselineSpec.numberOfRecords, baselineSpec.getColumnExpressions());
+        TransactionCommitProperties.withTransactionId(baselineTransaction.transactionId, commitProperties, () -> {
+            TransactionWriter.append(records, tableName);
+            return null;
+        });
+    }
+
+    /**
+     * Uses the Iceberg API instead of {@code ALTER TABLE ... WRITE ORDERED BY}, as that statement sets the distribution
+     * mode of the table as well.
+     */
+    private void replaceSortOrder(String tableName) {
+        if (configuration.getSortColumns().isEmpty()) {
+            return;
+        }
+        try {
+            var replaceSortOrder = Spark3Util.loadIcebergTable(session, tableName).replaceSortOrder();
+            for (var sortColumn : configuration.getSortColumns()) {
+                replaceSortOrder.asc(sortColumn);
+            }
+            replaceSortOrder.commit();
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Map<String, String> createTableProperties() {
+        var tableProperties = new LinkedHashMap<String, String>();
+        tableProperties.put("commit.retry.num-retries", "100");
+        tableProperties.put("format-version", String.valueOf(configuration.getFormatVersion()));
+        tableProperties.put("write.delete.mode", configuration.getWriteDeleteMode().getPropertyValue());
+        tableProperties.put("write.update.mode", configuration.getWriteUpdateMode().getPropertyValue());
+        tableProperties.put("write.merge.mode", configuration.getWriteMergeMode().getPropertyValue());
+        tableProperties.put("write.delete.isolation-level", configuration.getDeleteIsolationLevel().getPropertyValue());
+        tableProperties.put("write.update.isolation-level", configuration.getUpdateIsolationLevel().getPropertyValue());
+        tableProperties.put("write.merge.isolation-level", configuration.getMergeIsolationLevel().getPropertyValue());
+        if (configuration.getWriteDistributionMode() != null) {
+            tableProperties.put("write.distribution-mode", configuration.getWriteDistributionMode().getPropertyValue());
+        }
+        if (configuration.getTargetFileSizeInBytes() > 0) {
+            tableProperties.put("write.target-file-size-bytes", String.valueOf(configuration.getTargetFileSizeInBytes()));
+        }
+        tableProperties.put("write.spark.fanout.enabled", String.valueOf(configuration.isFanoutWritersEnabled()));
+        return tableProperties;
+    }
+
+    private static String formatTableProperties(Map<String, String> tableProperties) {
+        return tableProperties.entrySet()
+                .stream()
+                .map(property -> String.format("'%s' = '%s'", property.getKey(), property.getValue()))
+                .collect(Collectors.joining(",\n"));
     }
 
     public boolean hasFailedVerification() {
@@ -95,49 +653,75 @@ public class TransactionManager {
         var childSessions = new SparkSession[numberOfSparkSessions];
         for (var sessionNumber = 0; sessionNumber < numberOfSparkSessions; sessionNumber++) {
             childSessions[sessionNumber] = session.cloneSession();
+            // Every session gets its own catalog instance. Initialize them one by one, as some catalogs (like the JDBC
+            // catalog) can't be initialized concurrently.
+            childSessions[sessionNumber].sessionState().catalogManager().catalog(configuration.getCatalogName());
         }
         return childSessions;
     }
 
-    private ReaderThread[] createAndStartReaderThreads(final int numberOfReaderThreads, final SparkSession[] sessions, final int numberOfSparkSessions) {
+    private ReaderThread[] createAndStartReaderThreads(final int numberOfReaderThreads, final SparkSession[] sessions, final int numberOfSparkSessions, final RunContext runContext) {
         var readerThreads = new ReaderThread[numberOfReaderThreads];
         for (var readerNumber = 0; readerNumber < numberOfReaderThreads; readerNumber++) {
             var childSession = sessions[readerNumber % numberOfSparkSessions];
-            readerThreads[readerNumber] = new ReaderThread(transactionLog, childSession, fullyQualifiedTableName, stopReadersAndWriters, this::failedVerificationCallback);
+            readerThreads[readerNumber] = new ReaderThread(configuration, runContext, childSession);
             readerThreads[readerNumber].setName("acid-reader-" + readerNumber);
             readerThreads[readerNumber].start();
         }
         return readerThreads;
     }
 
-    private TransactionWriter[] createAndStartTransactionWriters(final int numberOfWriterThreads, final SparkSession[] sessions, final int numberOfSparkSessions) {
+    private TransactionWriter[] createAndStartTransactionWriters(final int numberOfWriterThreads, final SparkSession[] sessions, final int numberOfSparkSessions, final RunContext runContext) {
         var writerThreads = new TransactionWriter[numberOfWriterThreads];
         for (var writerNumber = 0; writerNumber < numberOfWriterThreads; writerNumber++) {
             var childSession = sessions[writerNumber % numberOfSparkSessions];
-            writerThreads[writerNumber] = new TransactionWriter(
-                    transactionLog,
-                    this::provideTransactionIfLimitNotReached,
-                    transactionGenerator::transactionCommitted,
-                    childSession,
-                    fullyQualifiedTableName,
-                    stopReadersAndWriters
-            );
+            writerThreads[writerNumber] = new TransactionWriter(configuration, runContext, childSession, this::provideTransactionIfLimitNotReached, this::transactionCommitted);
             writerThreads[writerNumber].setName("acid-writer-" + writerNumber);
             writerThreads[writerNumber].start();
         }
         return writerThreads;
     }
 
+    private MaintenanceThread[] createAndStartMaintenanceThreads(final int numberOfMaintenanceThreads) {
+        var sessions = createSparkSessions(numberOfMaintenanceThreads);
+        var maintenanceThreads = new MaintenanceThread[numberOfMaintenanceThreads];
+        for (var maintenanceNumber = 0; maintenanceNumber < numberOfMaintenanceThreads; maintenanceNumber++) {
+            maintenanceThreads[maintenanceNumber] = new MaintenanceThread(
+                    sessions[maintenanceNumber],
+                    fullyQualifiedTableName,
+                    stopReadersAndWriters,
+                    configuration.getMaintenanceActions(),
+                    configuration.getMaintenanceIntervalInMillis(),
+                    configuration.getMaintenanceDataFileThreshold(),
+                    configuration.getSnapshotRetentionInMillis(),
+                    icebergMetrics,
+                    historyRecorder
+            );
+            maintenanceThreads[maintenanceNumber].setName("acid-maintenance-" + maintenanceNumber);
+            maintenanceThreads[maintenanceNumber].start();
+        }
+        return maintenanceThreads;
+    }
+
     private Transaction provideTransactionIfLimitNotReached() {
         final var transactionNumber = transactionCount.incrementAndGet();
         if (transactionNumber <= configuration.getTotalNumberOfTransactions()) {
-            return transactionGenerator.getNextTransaction();
+            var transaction = transactionGenerator.getNextTransaction();
+            if (scheduleRecorder != null) {
+                scheduleRecorder.recordTake(transaction);
+            }
+            return transaction;
         } else {
             stopReadersAndWriters.set(true);
             return null;
         }
     }
 
+    private void transactionCommitted(Transaction transaction) {
+        committedTransactionCount.incrementAndGet();
+        transactionGenerator.transactionCommitted(transaction);
+    }
+
     private void failedVerificationCallback() {
         this.failedVerificationCount.incrementAndGet();
         this.stopReadersAndWriters.set(true);
@@ -2,14 +2,30 @@ package org.example.writer;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.metrics.CommitMetricsResult;
+import org.apache.iceberg.spark.Spark3Util;
 import org.apache.spark.SparkException;
 import org.apache.spark.sql.AnalysisException;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalyst.analysis.NoSuchTableException;
+import org.apache.spark.sql.catalyst.parser.ParseException;
+import org.example.history.HistoryRecorder;
+import org.example.metrics.IcebergMetrics;
+import org.example.metrics.MetricsScope;
+import org.example.metrics.TransactionCommitEvent;
+import org.example.reader.SessionGuarantees;
+import org.example.report.RunStatistics;
 import org.example.resultset.InconsistentResultSetException;
 import org.example.resultset.Record;
+import org.example.table.PayloadSchema;
 import org.example.transactionlog.*;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -23,27 +39,45 @@ public class TransactionWriter extends Thread {
     private final Consumer<Transaction> transactionCommittedConsumer;
     private final SparkSession session;
     private final String fullyQualifiedTableName;
+    private final PayloadSchema payloadSchema;
+    private final RowLevelWriteMethod rowLevelWriteMethod;
+    private final MultiTableCommitCoordinator multiTableCommitCoordinator;
     private final AtomicInteger tempViewNumber;
     private final AtomicBoolean stopWriter;
+    private final IcebergMetrics icebergMetrics;
+    private final RunStatistics runStatistics;
+    private final Runnable verificationFailedCallback;
+    private final SessionGuarantees sessionGuarantees;
+    private final HistoryRecorder historyRecorder;
+    private final Map<String, EqualityDeleteCommitter> equalityDeleteCommitters;
+    private Table table;
 
     @Getter
     private Exception writerException;
 
     public TransactionWriter(
-            TransactionLog transactionLog,
-            Supplier<Transaction> transactionSupplier,
-            Consumer<Transaction> transactionCommittedConsumer,
+            Configuration configuration,
+            RunContext runContext,
             SparkSession session,
-            String fullyQualifiedTableName,
-            AtomicBoolean stopWriter
+            Supplier<Transaction> transactionSupplier,
+            Consumer<Transaction> transactionCommittedConsumer
     ) {
-        this.transactionLog = transactionLog;
+        this.transactionLog = runContext.getTransactionLog();
         this.transactionSupplier = transactionSupplier;
         this.transactionCommittedConsumer = transactionCommittedConsumer;
         this.session = session;
-        this.fullyQualifiedTableName = fullyQualifiedTableName;
+        this.fullyQualifiedTableName = configuration.getFullyQualifiedTableName();
+        this.payloadSchema = configuration.getPayloadSchema();
+        this.rowLevelWriteMethod = configuration.getRowLevelWriteMethod();
+        this.multiTableCommitCoordinator = runContext.getMultiTableCommitCoordinator();
+        this.equalityDeleteCommitters = new HashMap<>();
         this.tempViewNumber = new AtomicInteger();
-        this.stopWriter = stopWriter;
+        this.stopWriter = runContext.getStop();
+        this.icebergMetrics = runContext.getIcebergMetrics();
+        this.runStatistics = runContext.getRunStatistics();
+        this.verificationFailedCallback = runContext.getVerificationFailedCallback();
+        this.sessionGuarantees = runContext.getSessionGuarantees();
+        this.historyRecorder = runContext.getHistoryRecorder();
     }
 
     @Override
@@ -67,28 +101,151 @@ public class TransactionWriter extends Thread {
     private void handleTransaction(final Transaction transaction) {
         transactionLog.add(new TransactionLogEvent(EventType.TRANSACTION_INTENDED, transaction));
         var timeBeforeTransaction = System.currentTimeMillis();
-        withRetryOnException(() -> {
-            switch (transaction.manipulationType) {
-                case INSERT:
-                    insertTransaction(transaction);
-                    break;
-                case UPDATE:
-                    updateTransaction(transaction);
-                    break;
-                case DELETE:
-                    deleteTransaction(transaction);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unknown manipulationType: " + transaction.manipulationType);
+        var commitEvent = new TransactionCommitEvent();
+        commitEvent.begin();
+        int attempts;
+        Long snapshotId = null;
+        Long sequenceNumber = null;
+        CommitMetricsResult commitMetrics = null;
+        try (var metricsScope = MetricsScope.open("transaction=" + transaction.transactionId, icebergMetrics)) {
+            attempts = multiTableCommitCoordinator == null
+                    ? withRetryOnException(() -> commitTransaction(transaction, fullyQualifiedTableName, Map.of()))
+                    : multiTableCommitCoordinator.commit(metricsScope.getLabel(), icebergMetrics, (tableName, commitProperties) -> withRetryOnException(() -> commitTransaction(transaction, tableName, commitProperties)));
+            var commitReports = metricsScope.getCommitReports();
+            if (!commitReports.isEmpty()) {
+                var commitReport = commitReports.get(commitReports.size() - 1);
+                snapshotId = commitReport.snapshotId();
+                sequenceNumber = commitReport.sequenceNumber();
+                commitMetrics = commitReport.commitMetrics();
             }
-        });
+            if (historyRecorder != null) {
+                recordHistory(transaction, metricsScope);
+            }
+        }
+        commitEvent.end();
+        if (commitEvent.shouldCommit()) {
+            commitEvent.transactionId = transaction.transactionId.toString();
+            commitEvent.manipulationType = transaction.manipulationType.name();
+            commitEvent.keyCount = transaction.getNumberOfRecords();
+            commitEvent.attempts = attempts;
+            if (commitMetrics != null) {
+                commitEvent.setCommitMetrics(commitMetrics);
+            }
+            commitEvent.commit();
+        }
         var transactionDuration = System.currentTimeMillis() - timeBeforeTransaction;
-        log.info("Acid Verification threadType='writer' manipulationType={} duration={}", transaction.manipulationType, transactionDuration);
+        runStatistics.recordCommit(transactionDuration, attempts);
+        log.info("Acid Verification threadType='writer' manipulationType={} duration={} attempts={} records={}", transaction.manipulationType, transactionDuration, attempts, transaction.getNumberOfRecords());
         transactionCommittedConsumer.accept(transaction);
-        transactionLog.logCommit(transaction);
+        transactionLog.logCommit(transaction, snapshotId, sequenceNumber);
+        if (sessionGuarantees != null && sequenceNumber != null) {
+            sessionGuarantees.observed(session, sequenceNumber);
+            if (sessionGuarantees.isReadYourWritesProbesEnabled()) {
+                probeReadYourWrites(transaction, sequenceNumber);
+            }
+        }
+    }
+
+    /**
+     * Applies the transaction with its id and the given commit properties in the summary of the snapshot it commits.
+     */
+    private void commitTransaction(Transaction transaction, String tableName, Map<String, String> commitProperties) {
+        TransactionCommitProperties.withTransactionId(transaction.transactionId, commitProperties, () -> {
+            applyTransaction(transaction, tableName);
+            return null;
+        });
+    }
+
+    private void applyTransaction(Transaction transaction, String tableName) throws InconsistentResultSetException {
+        switch (transaction.manipulationType) {
+            case INSERT:
+                insertTransaction(transaction, tableName);
+                break;
+            case UPDATE:
+                updateTransaction(transaction, tableName);
+                break;
+            case DELETE:
+                deleteTransaction(transaction, tableName);
+                break;
+            case BULK_INSERT:
+                bulkInsertTransaction(transaction.bulkInsertSpec, tableName);
+                break;
+            case BASELINE:
+                baselineTransaction(transaction.baselineSpec, tableName);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown manipulationType: " + transaction.manipulationType);
+        }
     }
 
-    private void withRetryOnException(DataManipulationTransaction transaction) {
+    /**
+     * Reads the table in the session of the writer right after the commit. Other writers may have changed the keys of
+     * the transaction since, so only the snapshot that was read is checked, not its contents.
+     */
+    private void probeReadYourWrites(Transaction transaction, long committedSequenceNumber) {
+        Long probedSnapshotId;
+        try (var metricsScope = MetricsScope.open("transaction=" + transaction.transactionId + " probe", icebergMetrics)) {
+            session.sql("SELECT primaryKeyValue FROM " + fullyQualifiedTableName + " WHERE primaryKeyValue = '" + getWriteKeys(transaction).get(0) + "'")
+                    .collectAsList();
+            probedSnapshotId = metricsScope.getLastScannedSnapshotId();
+        }
+        var probedSnapshot = probedSnapshotId == null ? null : loadTable().snapshot(probedSnapshotId);
+        if (probedSnapshotId != null && probedSnapshot == null) {
+            loadTable().refresh();
+            probedSnapshot = loadTable().snapshot(probedSnapshotId);
+        }
+        var probedSequenceNumber = probedSnapshot == null ? -1 : probedSnapshot.sequenceNumber();
+        if (!sessionGuarantees.verifyRead(session, "Read-your-writes probe of transaction " + transaction.transactionId, committedSequenceNumber, probedSequenceNumber)) {
+            verificationFailedCallback.run();
+        }
+    }
+
+    /**
+     * Inserts are blind writes. Updates and deletes read the keys they write, to find the rows to change. The records
+     * of a bulk insert are recorded as one key, as no other transaction touches them.
+     */
+    private void recordHistory(Transaction transaction, MetricsScope metricsScope) {
+        var keys = getWriteKeys(transaction);
+        var readKeys = transaction.manipulationType == ManipulationType.INSERT || transaction.manipulationType == ManipulationType.BULK_INSERT ? List.<String>of() : keys;
+        historyRecorder.recordWrite(transaction.transactionId.toString(), metricsScope, loadTable(), readKeys, keys);
+    }
+
+    private static List<String> getWriteKeys(Transaction transaction) {
+        if (transaction.baselineSpec != null) {
+            return List.of(BaselineSpec.KEY_PREFIX);
+        }
+        if (transaction.bulkInsertSpec != null) {
+            return List.of(transaction.bulkInsertSpec.getBulkInsertKey());
+        }
+        return transaction.dataManipulations
+                .stream()
+                .map(dataManipulation -> dataManipulation.primaryKeyValue)
+                .collect(Collectors.toList());
+    }
+
+    private Table loadTable() {
+        if (table == null) {
+            table = loadTable(fullyQualifiedTableName);
+        }
+        return table;
+    }
+
+    private Table loadTable(String tableName) {
+        try {
+            return Spark3Util.loadIcebergTable(session, tableName);
+        } catch (ParseException | NoSuchTableException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private EqualityDeleteCommitter getEqualityDeleteCommitter(String tableName) {
+        return equalityDeleteCommitters.computeIfAbsent(tableName, name -> new EqualityDeleteCommitter(name.equals(fullyQualifiedTableName) ? loadTable() : loadTable(name)));
+    }
+
+    /**
+     * @return The number of attempts it took to run the transaction successfully
+     */
+    static int withRetryOnException(DataManipulationTransaction transaction) {
         var retryCount = 0;
         var ranSuccessfully = false;
         while (!ranSuccessfully) {
@@ -103,38 +260,61 @@ public class TransactionWriter extends Thread {
                 retryCount++;
             }
         }
+        return retryCount + 1;
     }
 
-    private void insertTransaction(Transaction transaction) {
-        final var records = transaction.dataManipulations
-                .stream()
-                .map(TransactionWriter::mapToRecord)
-                .collect(Collectors.toList());
-        final var dataSet = session.createDataset(records, Record.getEncoder());
+    private void insertTransaction(Transaction transaction, String tableName) {
+        append(createDataFrame(transaction), tableName);
+    }
 
+    private void bulkInsertTransaction(BulkInsertSpec bulkInsertSpec, String tableName) {
+        append(generateRecords(session, payloadSchema, bulkInsertSpec.numberOfRecords, bulkInsertSpec.getColumnExpressions()), tableName);
+    }
+
+    /**
+     * Only for replayed schedules, as runs pre-populate the table before the writers start.
+     */
+    private void baselineTransaction(BaselineSpec baselineSpec, String tableName) {
+        append(generateRecords(session, payloadSchema, baselineSpec.numberOfRecords, baselineSpec.getColumnExpressions()), tableName);
+    }
+
+    /**
+     * Expands the records of a bulk insert or baseline on the executors, so they never pass through the driver.
+     *
+     * @param columnExpressions The column expressions of the {@link BulkInsertSpec} or {@link BaselineSpec}
+     */
+    static Dataset<Row> generateRecords(SparkSession session, PayloadSchema payloadSchema, long numberOfRecords, String[] columnExpressions) {
+        return payloadSchema.addTo(session.range(numberOfRecords).selectExpr(columnExpressions));
+    }
+
+    static void append(Dataset<Row> records, String tableName) {
         try {
-            dataSet.writeTo(fullyQualifiedTableName).append();
+            records.writeTo(tableName).append();
         } catch (NoSuchTableException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void updateTransaction(Transaction transaction) throws InconsistentResultSetException {
-        final var records = transaction.dataManipulations
-                .stream()
-                .map(TransactionWriter::mapToRecord)
-                .collect(Collectors.toList());
-
+    private void updateTransaction(Transaction transaction, String tableName) throws InconsistentResultSetException {
+        if (rowLevelWriteMethod == RowLevelWriteMethod.EQUALITY_DELETES) {
+            getEqualityDeleteCommitter(tableName).update(transaction, createDataFrame(transaction));
+            return;
+        }
         try {
-            var rowsToUpdate = session.createDataset(records, Record.getEncoder());
+            var rowsToUpdate = createDataFrame(transaction);
             var tempViewName = "temp_view_" + tempViewNumber.incrementAndGet();
             rowsToUpdate.createTempView(tempViewName);
-            var updateStatement = "MERGE INTO " + fullyQualifiedTableName + " t \n" +
+            var payloadColumnNames = payloadSchema.getColumnNames();
+            var payloadUpdates = payloadColumnNames.stream().map(columnName -> ", t." + columnName + " = s." + columnName).collect(Collectors.joining());
+            var payloadTargetColumns = payloadColumnNames.stream().map(columnName -> ", t." + columnName).collect(Collectors.joining());
+            var payloadSourceColumns = payloadColumnNames.stream().map(columnName -> ", s." + columnName).collect(Collectors.joining());
+            var updateStatement = "MERGE INTO " + tableName + " t \n" +
                     "USING (SELECT * FROM " + tempViewName +") s \n" +
                     "ON t.primaryKeyValue = s.primaryKeyValue \n" +
-                    "WHEN MATCHED THEN UPDATE SET t.dataValue = s.dataValue " +
+                    "WHEN MATCHED THEN UPDATE SET t.dataValue = s.dataValue" + payloadUpdates + " " +
                     "WHEN NOT MATCHED THEN " +
-                    "INSERT (t.primaryKeyValue, t.partitionKeyValue, t.dataValue) VALUES (s.primaryKeyValue, s.partitionKeyValue, s.dataValue);";
+                    "INSERT (t.primaryKeyValue, t.partitionKeyValue, t.dataValue" + payloadTargetColumns + ") " +
+                    "VALUES (s.primaryKeyValue, s.partitionKeyValue, s.dataValue" + payloadSourceColumns + ");";
             System.out.println(updateStatement);
             session.sql(updateStatement);
         } catch (AnalysisException e) {
@@ -142,22 +322,35 @@ public class TransactionWriter extends Thread {
         }
     }
 
-    private void deleteTransaction(Transaction transaction) throws InconsistentResultSetException {
+    private void deleteTransaction(Transaction transaction, String tableName) throws InconsistentResultSetException {
+        if (rowLevelWriteMethod == RowLevelWriteMethod.EQUALITY_DELETES) {
+            getEqualityDeleteCommitter(tableName).delete(transaction);
+            return;
+        }
         var primaryKeyValues = transaction.dataManipulations
                 .stream()
                .map(dataManipulation -> dataManipulation.primaryKeyValue)
                .collect(Collectors.joining("', '", "'", "'"));
 
-        var deleteStatement = String.format("DELETE FROM %s WHERE primaryKeyValue IN (%s)", fullyQualifiedTableName, primaryKeyValues);
+        var deleteStatement = String.format("DELETE FROM %s WHERE primaryKeyValue IN (%s)", tableName, primaryKeyValues);
         System.out.println(deleteStatement);
         session.sql(deleteStatement);
     }
 
+    private Dataset<Row> createDataFrame(Transaction transaction) {
+        final var rows = transaction.dataManipulations
+                .stream()
+                .map(TransactionWriter::mapToRecord)
+                .map(Record::toRow)
+                .collect(Collectors.toList());
+        return payloadSchema.addTo(session.createDataFrame(rows, Record.SCHEMA));
+    }
+
     private static Record mapToRecord(DataManipulation dataManipulation) {
         return new Record(dataManipulation.primaryKeyValue, dataManipulation.partitionKeyValue, dataManipulation.dataValue);
     }
 
-    private interface DataManipulationTransaction {
+    interface DataManipulationTransaction {
         void run() throws SparkException;
     }
 }
@@ -0,0 +1,28 @@
+package org.example.benchmark;
+
+import org.example.writer.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SweepPointTest {
+
+    @Test
+    void allPointsIsTheCartesianProductOfTheRanges() {
+        var ranges = new LinkedHashMap<SweepParameter, List<Integer>>();
+        ranges.put(SweepParameter.WRITER_THREADS, List.of(1, 2, 4));
+        ranges.put(SweepParameter.PARTITIONS, List.of(1, 8));
+
+        var points = SweepPoint.allPoints(ranges);
+
+        assertThat(points).hasSize(6);
+        var lastConfiguration = points.get(5).applyTo(Configuration.create());
+        assertThat(lastConfiguration.getNumberOfWriterThreads()).isEqualTo(4);
+        assertThat(lastConfiguration.getMaximumNumberOfPartitions()).isEqualTo(8);
+        assertThat(points.get(1).getValue(SweepParameter.WRITER_THREADS)).isEqualTo(1);
+        assertThat(points.get(1).getValue(SweepParameter.PARTITIONS)).isEqualTo(8);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.capture;
+
+import org.example.resultset.Record;
+import org.example.transactionlog.DataManipulation;
+import org.example.transactionlog.InMemoryTransactionLog;
+import org.example.transactionlog.ManipulationType;
+import org.example.transactionlog.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapturedReadVerifierTest {
+    private static final Record RECORD = new Record("PK1", "Partition1", "Value 1");
+
+    private Path captureDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        captureDirectory = Files.createTempDirectory("captured-reads");
+    }
+
+    @Test
+    void readsAreVerifiedAgainstThePersistedTransactionLog() throws Exception {
+        // Given
+        var transactionLog = new InMemoryTransactionLog();
+        var insert = new Transaction(ManipulationType.INSERT, List.of(new DataManipulation(RECORD.getPrimaryKeyValue(), RECORD.getPartitionKeyValue(), RECORD.getDataValue())));
+        transactionLog.logIntent(insert);
+        transactionLog.logCommit(insert);
+        CapturedReadVerifier.writeTransactionLog(captureDirectory, transactionLog);
+        spill("reader-0",
+                capturedRead("reader-0", 0, 0, List.of()),
+                capturedRead("reader-0", 1, 2, List.of(RECORD)));
+        spill("reader-1",
+                capturedRead("reader-1", 0, 2, List.of()));
+
+        // When
+        var result = new CapturedReadVerifier(captureDirectory, 2).verify();
+
+        // Then
+        assertThat(result.getSpillFiles()).isEqualTo(2);
+        assertThat(result.getVerifiedReads()).isEqualTo(2);
+        assertThat(result.getFailedReads()).isEqualTo(1);
+        assertThat(result.getFailureExamples()).singleElement().asString().contains("readerName=reader-1");
+        assertThat(result.isSatisfied()).isFalse();
+    }
+
+    private static CapturedRead capturedRead(String readerName, int iteration, int eventCount, List<Record> records) {
+        return CapturedRead.create(readerName, iteration, eventCount, eventCount, Long.MAX_VALUE, null, records, Map.of(), List.of(), null);
+    }
+
+    private void spill(String readerName, CapturedRead... capturedReads) throws IOException {
+        try (var output = new ObjectOutputStream(Files.newOutputStream(ReadCapture.getSpillFile(captureDirectory, readerName)))) {
+            for (var capturedRead : capturedReads) {
+                output.writeObject(capturedRead);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.coordination;
+
+import org.example.report.RunStatistics;
+import org.example.transactionlog.DataManipulation;
+import org.example.transactionlog.InMemoryTransactionLog;
+import org.example.transactionlog.ManipulationType;
+import org.example.transactionlog.Transaction;
+import org.example.writer.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoordinatorServerTest {
+
+    @Test
+    void workersShareTheTransactionLogAndTheTransactionsOfTheCoordinator() {
+        var transactionLog = new InMemoryTransactionLog();
+        var configuration = Configuration.create().withTableName("coordinated");
+        var transaction = new Transaction(ManipulationType.INSERT, List.of(new DataManipulation("PK1", "Partition1", "Value 1")));
+        var providedTransactions = new ArrayList<>(List.of(transaction));
+        var committedTransactions = new ArrayList<Transaction>();
+        var failedVerifications = new AtomicInteger();
+        var stopped = new AtomicBoolean(false);
+        var runStatistics = new RunStatistics();
+
+        try (var coordinator = new CoordinatorServer(
+                transactionLog,
+                configuration,
+                Map.of("spark.master", "local[2]"),
+                () -> providedTransactions.isEmpty() ? null : providedTransactions.remove(0),
+                committedTransactions::add,
+                failedVerifications::incrementAndGet,
+                stopped,
+                runStatistics
+        )) {
+            coordinator.start();
+            try (var client = new CoordinatorClient(coordinator.getPort())) {
+                var remoteTransactionLog = new RemoteTransactionLog(client);
+
+                assertThat(client.getConfiguration().getTableName()).isEqualTo("coordinated");
+                assertThat(client.getSparkConfiguration()).containsEntry("spark.master", "local[2]");
+
+                var nextTransaction = client.nextTransaction();
+                assertThat(nextTransaction).isEqualTo(transaction);
+                assertThat(client.nextTransaction()).isNull();
+
+                remoteTransactionLog.logIntent(nextTransaction);
+                remoteTransactionLog.logCommit(nextTransaction, 42L, 1L);
+                client.transactionCommitted(nextTransaction);
+                client.verificationFailed();
+                client.recordCommit(10, 2);
+
+                assertThat(transactionLog.getEventCount()).isEqualTo(2);
+                assertThat(remoteTransactionLog.getFirstNEvents(2)).isEqualTo(transactionLog.getFirstNEvents(2));
+                assertThat(committedTransactions).containsExactly(transaction);
+                assertThat(failedVerifications).hasValue(1);
+                assertThat(runStatistics.getTransactionAttempts().sum()).isEqualTo(2);
+
+                assertThat(client.isStopped()).isFalse();
+                stopped.set(true);
+                assertThat(client.isStopped()).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.durability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaultPointTest {
+    private static final String TABLE_LOCATION = "file:/tmp/lakehouse/warehouse/concurrencytestdb/acid_verification";
+
+    @Test
+    void filesAreMappedToTheStepOfTheCommitThatWritesThem() {
+        assertThat(FaultPoint.of(TABLE_LOCATION + "/data/partitionKeyValue=Partition1/00000-1-abc-00001.parquet")).isEqualTo(FaultPoint.AFTER_DATA_FILES);
+        assertThat(FaultPoint.of(TABLE_LOCATION + "/metadata/abc-m0.avro")).isEqualTo(FaultPoint.AFTER_MANIFESTS);
+        assertThat(FaultPoint.of(TABLE_LOCATION + "/metadata/snap-42-1-abc.avro")).isEqualTo(FaultPoint.AFTER_MANIFESTS);
+        assertThat(FaultPoint.of(TABLE_LOCATION + "/metadata/00003-abc.metadata.json")).isEqualTo(FaultPoint.BEFORE_METADATA_SWAP);
+        assertThat(FaultPoint.of(TABLE_LOCATION + "/metadata/abc.stats")).isNull();
+    }
+
+    @Test
+    void injectedFaultsSurviveTheFaultLog() {
+        var fault = InjectedFault.create(42L, FaultPoint.AFTER_MANIFESTS, FaultType.PARTIAL_FILE, TABLE_LOCATION + "/metadata/a,b-m0.avro");
+
+        var parsed = InjectedFault.parse(fault.toLine());
+
+        assertThat(parsed).usingRecursiveComparison().isEqualTo(fault);
+    }
+}
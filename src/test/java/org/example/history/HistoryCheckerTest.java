@@ -0,0 +1,124 @@
+package org.example.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryCheckerTest {
+
+    @Test
+    void serialHistoryIsSerializable() {
+        var historyChecker = new HistoryChecker();
+        historyChecker.add(write("insert", null, 1L, null, List.of(), List.of("a", "b")));
+        historyChecker.add(write("update", 1L, 2L, 1L, List.of("a"), List.of("a")));
+        historyChecker.add(read("reader", 1L));
+        historyChecker.add(write("delete", 2L, 3L, 2L, List.of("a", "b"), List.of("a", "b")));
+
+        var result = historyChecker.check();
+
+        assertThat(result.isSerializable()).isTrue();
+        assertThat(result.getCommittedTransactions()).isEqualTo(3);
+        assertThat(result.getWriteWriteDependencies()).isEqualTo(3);
+        assertThat(result.getReads()).isEqualTo(1);
+    }
+
+    @Test
+    void lostUpdateViolatesSnapshotIsolation() {
+        var historyChecker = new HistoryChecker();
+        historyChecker.add(write("insert", null, 1L, null, List.of(), List.of("a")));
+        historyChecker.add(write("first", 1L, 2L, 1L, List.of("a"), List.of("a")));
+        // Read the version of the insert, but committed on top of the first update.
+        historyChecker.add(write("second", 1L, 3L, 2L, List.of("a"), List.of("a")));
+
+        var result = historyChecker.check();
+
+        assertThat(result.getCycles()).isEqualTo(1);
+        assertThat(result.getSingleAntiDependencyCycles()).isEqualTo(1);
+        assertThat(result.isSnapshotIsolation()).isFalse();
+        assertThat(result.isSerializable()).isFalse();
+    }
+
+    @Test
+    void writeSkewIsSnapshotIsolationButNotSerializable() {
+        var historyChecker = new HistoryChecker();
+        historyChecker.add(write("insert", null, 1L, null, List.of(), List.of("a", "b")));
+        historyChecker.add(write("first", 1L, 2L, 1L, List.of("a", "b"), List.of("a")));
+        historyChecker.add(write("second", 1L, 3L, 2L, List.of("a", "b"), List.of("b")));
+
+        var result = historyChecker.check();
+
+        assertThat(result.getCycles()).isEqualTo(1);
+        assertThat(result.isSnapshotIsolation()).isTrue();
+        assertThat(result.isSerializable()).isFalse();
+    }
+
+    @Test
+    void readOnlyAnomalyIsFoundThroughTheRead() {
+        var historyChecker = new HistoryChecker();
+        historyChecker.add(write("insert", null, 1L, null, List.of(), List.of("x", "y")));
+        historyChecker.add(write("blind", null, 2L, 1L, List.of(), List.of("x")));
+        historyChecker.add(write("skewed", 1L, 3L, 2L, List.of("x", "y"), List.of("y")));
+        // Sees the blind write of x, but not the write of y that was serialized before it.
+        historyChecker.add(read("reader", 2L));
+
+        var result = historyChecker.check();
+
+        assertThat(result.getCycles()).isEqualTo(1);
+        assertThat(result.isSnapshotIsolation()).isTrue();
+        assertThat(result.isSerializable()).isFalse();
+    }
+
+    @Test
+    void forkedLineageIsInvalid() {
+        var historyChecker = new HistoryChecker();
+        historyChecker.add(write("insert", null, 1L, null, List.of(), List.of("a")));
+        historyChecker.add(write("first", 1L, 2L, 1L, List.of("a"), List.of("a")));
+        historyChecker.add(write("second", 1L, 3L, 1L, List.of("a"), List.of("a")));
+
+        var result = historyChecker.check();
+
+        assertThat(result.getForkedSnapshots()).isEqualTo(1);
+        assertThat(result.hasValidLineage()).isFalse();
+    }
+
+    @Test
+    @Timeout(60)
+    void historyOfTwoMillionTransactionsIsCheckedWithinTheTimeout() {
+        var numberOfTransactions = 2_000_000;
+        var historyChecker = new HistoryChecker();
+        historyChecker.add(write("insert", null, 0L, null, List.of(), List.of("0", "1", "2", "3")));
+        for (long snapshotId = 1; snapshotId <= numberOfTransactions; snapshotId++) {
+            // Every other transaction reads one snapshot behind, but misses no write of its key, so the history is serializable.
+            var readSnapshotId = snapshotId % 2 == 0 ? snapshotId - 2 : snapshotId - 1;
+            var key = String.valueOf(snapshotId % 4);
+            historyChecker.add(write("t" + snapshotId, readSnapshotId < 0 ? null : readSnapshotId, snapshotId, snapshotId - 1, List.of(key), List.of(key)));
+            if (snapshotId % 10 == 0) {
+                historyChecker.add(read("r" + snapshotId, snapshotId));
+            }
+        }
+
+        var result = historyChecker.check();
+
+        assertThat(result.getCommittedTransactions()).isEqualTo(numberOfTransactions + 1);
+        assertThat(result.isSerializable()).isTrue();
+    }
+
+    @Test
+    void historyEntryRoundTripsThroughLine() {
+        var historyEntry = write("update", 1L, 2L, 1L, List.of("a", "b"), List.of("a"));
+
+        assertThat(HistoryEntry.fromLine(historyEntry.toLine())).isEqualTo(historyEntry);
+        assertThat(HistoryEntry.fromLine(read("reader", null).toLine())).isEqualTo(read("reader", null));
+    }
+
+    private static HistoryEntry write(String id, Long readSnapshotId, Long snapshotId, Long parentSnapshotId, List<String> readKeys, List<String> writeKeys) {
+        return HistoryEntry.create(HistoryEntryType.WRITE, id, readSnapshotId, snapshotId, parentSnapshotId, readKeys, writeKeys);
+    }
+
+    private static HistoryEntry read(String id, Long readSnapshotId) {
+        return HistoryEntry.create(HistoryEntryType.READ, id, readSnapshotId, null, null, List.of(), List.of());
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.reader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveReaderControllerTest {
+
+    @Test
+    void readsAreSpacedBeforeReadersAreDeactivated() {
+        var controller = new AdaptiveReaderController(10, 2);
+
+        recordRounds(controller, 1, 2, 50);
+        assertThat(controller.createReport().getReadSpacingInMillis()).isEqualTo(100);
+        assertThat(controller.createReport().getActiveReaders()).isEqualTo(2);
+
+        // The spacing doubles until the reads no longer overlap, which is the scan duration of 1000 ms
+        recordRounds(controller, 4, 2, 50);
+        assertThat(controller.createReport().getReadSpacingInMillis()).isEqualTo(1600);
+        recordRounds(controller, 1, 2, 50);
+        assertThat(controller.createReport().getActiveReaders()).isEqualTo(1);
+    }
+
+    @Test
+    void readersAreReactivatedOnceTheReadsAreNoLongerSpaced() {
+        var controller = new AdaptiveReaderController(10, 2);
+        recordRounds(controller, 6, 2, 50);
+        assertThat(controller.createReport().getActiveReaders()).isEqualTo(1);
+
+        // The smoothed window needs a few rounds to drop below the target
+        recordRounds(controller, 40, 1, 0);
+
+        var report = controller.createReport();
+        assertThat(report.getReadSpacingInMillis()).isZero();
+        assertThat(report.getActiveReaders()).isEqualTo(2);
+    }
+
+    private static void recordRounds(AdaptiveReaderController controller, int rounds, int readsPerRound, int windowSize) {
+        for (var read = 0; read < rounds * readsPerRound; read++) {
+            controller.recordRead(windowSize, 1000, 10);
+        }
+    }
+}
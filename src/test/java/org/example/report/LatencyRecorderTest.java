@@ -0,0 +1,23 @@
+package org.example.report;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    @Test
+    void summarizeUsesNearestRankPercentiles() {
+        var latencyRecorder = new LatencyRecorder();
+        for (var latency = 100; latency >= 1; latency--) {
+            latencyRecorder.record(latency);
+        }
+
+        assertThat(latencyRecorder.summarize()).isEqualTo(LatencySummary.create(100, 50.5, 50, 95, 99, 100));
+    }
+
+    @Test
+    void summarizeWithoutLatencies() {
+        assertThat(new LatencyRecorder().summarize()).isEqualTo(LatencySummary.create(0, 0, 0, 0, 0, 0));
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -78,6 +79,30 @@ class ExpectationTest {
         assertThat(satisfied).isEqualTo(expectedResult);
     }
 
+    @ParameterizedTest
+    @MethodSource
+    void expectAtomicVisibility(ResultSet resultSet, boolean expectedResult) {
+        // Given
+        final var expectation = ExpectAtomicVisibility.create(UUID.randomUUID());
+        expectation.addRecord(ExpectRecordPresence.create(RECORD_1_UPDATED), ExpectRecordPresence.create(RECORD_1_INITIAL));
+        expectation.addRecord(ExpectRecordAbsence.create(RECORD_2_INITIAL), ExpectRecordPresence.create(RECORD_2_INITIAL));
+
+        // When
+        final var satisfied = expectation.isSatisfied(resultSet);
+
+        // Then
+        assertThat(satisfied).isEqualTo(expectedResult);
+    }
+
+    static Stream<Arguments> expectAtomicVisibility() {
+        return Stream.of(
+                Arguments.of(new ResultSet(List.of(RECORD_1_INITIAL, RECORD_2_INITIAL)), true),
+                Arguments.of(new ResultSet(List.of(RECORD_1_UPDATED)), true),
+                Arguments.of(new ResultSet(List.of(RECORD_1_UPDATED, RECORD_2_INITIAL)), false),
+                Arguments.of(new ResultSet(List.of(RECORD_1_INITIAL)), false)
+        );
+    }
+
     static Stream<Arguments> expectRecordPresence() {
         final var resultSet = new ResultSet(List.of(RECORD_1_INITIAL, RECORD_2_INITIAL));
 
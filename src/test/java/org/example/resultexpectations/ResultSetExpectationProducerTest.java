@@ -0,0 +1,121 @@
+package org.example.resultexpectations;
+
+import org.example.resultset.BaselineAggregate;
+import org.example.resultset.BulkInsertAggregate;
+import org.example.resultset.Record;
+import org.example.resultset.ResultSet;
+import org.example.transactionlog.BaselineSpec;
+import org.example.transactionlog.BulkInsertSpec;
+import org.example.transactionlog.DataManipulation;
+import org.example.transactionlog.InMemoryTransactionLog;
+import org.example.transactionlog.ManipulationType;
+import org.example.transactionlog.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultSetExpectationProducerTest {
+    private static final Record RECORD_1 = new Record("PK1", "Partition1", "Value 1");
+    private static final Record RECORD_2 = new Record("PK2", "Partition2", "Value 2");
+    private static final Record RECORD_1_UPDATED = new Record("PK1", "Partition1", "Value 1 updated");
+    private static final Record RECORD_2_UPDATED = new Record("PK2", "Partition2", "Value 2 updated");
+
+    private InMemoryTransactionLog transactionLog;
+    private ResultSetExpectationProducer resultSetExpectationProducer;
+    private long requiredCommitTime;
+
+    @BeforeEach
+    void setUp() {
+        transactionLog = new InMemoryTransactionLog();
+        resultSetExpectationProducer = new ResultSetExpectationProducer(transactionLog);
+        var insert = new Transaction(ManipulationType.INSERT, List.of(toDataManipulation(RECORD_1), toDataManipulation(RECORD_2)));
+        transactionLog.logIntent(insert);
+        transactionLog.logCommit(insert);
+        var insertCommitTime = transactionLog.getFirstNEvents(2).get(1).timestampInMillis;
+        // Only the insert is old enough to be required, so the update has to be logged in a later millisecond
+        while (System.currentTimeMillis() <= insertCommitTime) {
+            Thread.onSpinWait();
+        }
+        requiredCommitTime = insertCommitTime + 1;
+        var update = new Transaction(ManipulationType.UPDATE, List.of(toDataManipulation(RECORD_1_UPDATED), toDataManipulation(RECORD_2_UPDATED)));
+        transactionLog.logIntent(update);
+        transactionLog.logCommit(update);
+    }
+
+    @Test
+    void staleReadMayMissRecentlyCommittedTransactions() {
+        // When
+        var strictExpectations = resultSetExpectationProducer.createResultSetExpectations(4, 4);
+        var staleExpectations = resultSetExpectationProducer.createResultSetExpectations(4, 4, requiredCommitTime);
+
+        // Then
+        var staleResultSet = new ResultSet(List.of(RECORD_1, RECORD_2));
+        assertThat(strictExpectations.isStatisfied(staleResultSet)).isFalse();
+        assertThat(staleExpectations.isStatisfied(staleResultSet)).isTrue();
+        assertThat(staleExpectations.isStatisfied(new ResultSet(List.of(RECORD_1_UPDATED, RECORD_2_UPDATED)))).isTrue();
+    }
+
+    @Test
+    void staleReadMustSeeTransactionsAtomically() {
+        // When
+        var staleExpectations = resultSetExpectationProducer.createResultSetExpectations(4, 4, requiredCommitTime);
+
+        // Then
+        assertThat(staleExpectations.isStatisfied(new ResultSet(List.of(RECORD_1_UPDATED, RECORD_2)))).isFalse();
+    }
+
+    @Test
+    void bulkInsertMustBeVisibleCompletely() {
+        // Given
+        var bulkInsertSpec = new BulkInsertSpec(0, 1000, 42, 4);
+        var bulkInsert = new Transaction(bulkInsertSpec);
+        transactionLog.logIntent(bulkInsert);
+
+        // When
+        var expectations = resultSetExpectationProducer.createResultSetExpectations(5, 5);
+
+        // Then
+        var records = List.of(RECORD_1_UPDATED, RECORD_2_UPDATED);
+        var bulkInsertKey = bulkInsertSpec.getBulkInsertKey();
+        assertThat(expectations.areBulkInsertsExpected()).isTrue();
+        assertThat(expectations.isStatisfied(new ResultSet(records))).isTrue();
+        assertThat(expectations.isStatisfied(new ResultSet(records, Map.of(bulkInsertKey, BulkInsertAggregate.create(1000, bulkInsertSpec.getChecksum(), 0))))).isTrue();
+        assertThat(expectations.isStatisfied(new ResultSet(records, Map.of(bulkInsertKey, BulkInsertAggregate.create(999, bulkInsertSpec.getChecksum(), 0))))).isFalse();
+        assertThat(expectations.isStatisfied(new ResultSet(records, Map.of(bulkInsertKey, BulkInsertAggregate.create(1000, 0, 0))))).isFalse();
+        assertThat(expectations.isStatisfied(new ResultSet(records, Map.of("Bulk1", BulkInsertAggregate.create(1000, bulkInsertSpec.getChecksum(), 0))))).isFalse();
+    }
+
+    @Test
+    void untouchedBaselineRecordsAreVerifiedByTheirAggregate() {
+        // Given
+        var baselineSpec = new BaselineSpec(10, 4);
+        transactionLog.logBaseline(baselineSpec, null, null);
+        var baselineRecord = new Record("Baseline3", baselineSpec.getPartitionKeyValue(3), baselineSpec.getDataValue(3));
+        var updatedBaselineRecord = new Record("Baseline3", baselineSpec.getPartitionKeyValue(3), "Baseline 3 updated");
+        transactionLog.logIntent(new Transaction(ManipulationType.UPDATE, List.of(toDataManipulation(updatedBaselineRecord))));
+
+        // When
+        var expectations = resultSetExpectationProducer.createResultSetExpectations(7, 7);
+
+        // Then
+        var records = List.of(RECORD_1_UPDATED, RECORD_2_UPDATED);
+        var untouchedChecksum = baselineSpec.getChecksum() - baselineSpec.getChecksum("Baseline3");
+        assertThat(expectations.getBaselineExpectation()).hasValueSatisfying(baselineExpectation ->
+                assertThat(baselineExpectation.getUncertainPrimaryKeyValues()).containsExactly("Baseline3"));
+        var notUpdatedYet = new ResultSet(records).withBaselineAggregate(BaselineAggregate.create(9, untouchedChecksum, 0, List.of(baselineRecord)));
+        assertThat(expectations.isStatisfied(notUpdatedYet)).isTrue();
+        var updated = new ResultSet(List.of(RECORD_1_UPDATED, RECORD_2_UPDATED, updatedBaselineRecord)).withBaselineAggregate(BaselineAggregate.create(9, untouchedChecksum, 0, List.of()));
+        assertThat(expectations.isStatisfied(updated)).isTrue();
+        var missingBaselineRecord = new ResultSet(records).withBaselineAggregate(BaselineAggregate.create(8, untouchedChecksum, 0, List.of(baselineRecord)));
+        assertThat(expectations.isStatisfied(missingBaselineRecord)).isFalse();
+        assertThat(expectations.isStatisfied(new ResultSet(records))).isFalse();
+    }
+
+    private static DataManipulation toDataManipulation(Record record) {
+        return new DataManipulation(record.getPrimaryKeyValue(), record.getPartitionKeyValue(), record.getDataValue());
+    }
+}
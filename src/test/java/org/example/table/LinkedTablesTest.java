@@ -0,0 +1,28 @@
+package org.example.table;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkedTablesTest {
+
+    @Test
+    void linkedTablesAreNamedAfterTheTable() {
+        var linkedTables = LinkedTables.create("catalog.db.table", 2);
+
+        assertThat(linkedTables.getLinkedTableNames()).containsExactly("catalog.db.table_linked0", "catalog.db.table_linked1");
+    }
+
+    @Test
+    void commitPropertiesRecordTheSnapshotOfEveryLinkedTable() {
+        var linkedTables = LinkedTables.create("catalog.db.table", 2);
+
+        assertThat(linkedTables.getCommitProperties(Map.of("catalog.db.table_linked0", 42L, "catalog.db.table_linked1", LinkedTables.NO_SNAPSHOT)))
+                .containsOnly(
+                        Map.entry(LinkedTables.LINKED_SNAPSHOT_PROPERTY_PREFIX + "catalog.db.table_linked0", "42"),
+                        Map.entry(LinkedTables.LINKED_SNAPSHOT_PROPERTY_PREFIX + "catalog.db.table_linked1", "-1")
+                );
+    }
+}
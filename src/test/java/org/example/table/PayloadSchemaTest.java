@@ -0,0 +1,32 @@
+package org.example.table;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadSchemaTest {
+
+    @Test
+    void columnTypesCycleThroughStringNumberAndStruct() {
+        var payloadSchema = PayloadSchema.create(5, 1000, true);
+
+        assertThat(payloadSchema.getColumnDefinitions()).containsExactly(
+                "payload0 STRING",
+                "payload1 BIGINT",
+                "payload2 DOUBLE",
+                "payload3 STRUCT<text: STRING, number: BIGINT>",
+                "payload4 STRING"
+        );
+        assertThat(payloadSchema.withNestedStructs(false).getColumnDefinitions())
+                .containsExactly("payload0 STRING", "payload1 BIGINT", "payload2 DOUBLE", "payload3 STRING", "payload4 BIGINT");
+    }
+
+    @Test
+    void payloadSizeIsSharedByTheTextColumns() {
+        var payloadSchema = PayloadSchema.create(4, 1000, true);
+
+        assertThat(payloadSchema.getColumnExpressions().get(0)).endsWith(", 1, 500) AS payload0");
+        assertThat(payloadSchema.getSelectColumns("primaryKeyValue")).startsWith("primaryKeyValue, xxhash64(payload0, payload1, payload2, payload3) = ");
+        assertThat(PayloadSchema.NONE.getSelectColumns("primaryKeyValue")).isEqualTo("primaryKeyValue");
+    }
+}
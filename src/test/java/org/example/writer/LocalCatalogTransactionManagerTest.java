@@ -0,0 +1,132 @@
+package org.example.writer;
+
+import org.apache.iceberg.spark.Spark3Util;
+import org.apache.spark.sql.SparkSession;
+import org.example.SparkSessionProvider;
+import org.example.catalog.CatalogType;
+import org.example.schedule.Schedule;
+import org.example.schedule.ScheduleReplayer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.testcontainers.shaded.org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocalCatalogTransactionManagerTest {
+    private static final Path testDataDir = Path.of("/tmp/lakehouse-local");
+    private static final SparkSessionProvider SPARK_SESSION_PROVIDER = new SparkSessionProvider(testDataDir, false);
+    private static final SparkSession session = SPARK_SESSION_PROVIDER.getSession();
+
+    @BeforeAll
+    static void cleanInstallDatabase() throws IOException {
+        testDataDir.toFile().mkdir();
+        FileUtils.cleanDirectory(testDataDir.toFile());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CatalogType.class, names = {"HADOOP", "JDBC", "IN_MEMORY"})
+    void run(CatalogType catalogType) throws InterruptedException {
+        // Given
+        final var configuration = createConfiguration(catalogType)
+                .withHistoryFile(testDataDir.resolve(catalogType.name().toLowerCase() + "-history.tsv").toString())
+                .withVerifyAllSnapshots(true);
+        final var transactionManager = new TransactionManager(configuration, session);
+
+        // When
+        transactionManager.run();
+
+        // Then
+        assertThat(transactionManager.isHasFailedWriters()).withFailMessage("One or more writer threads failed").isFalse();
+        assertThat(transactionManager.isHasFailedReaders()).withFailMessage("One or more reader threads failed").isFalse();
+        assertThat(transactionManager.hasFailedVerification()).withFailMessage("ACID Verification failed.").isFalse();
+        assertThat(transactionManager.getSnapshotVerificationResult().isSatisfied()).withFailMessage("Snapshot verification failed: %s", transactionManager.getSnapshotVerificationResult()).isTrue();
+        assertThat(transactionManager.getHistoryCheckResult().isSerializable()).withFailMessage("History is not serializable: %s", transactionManager.getHistoryCheckResult()).isTrue();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CatalogType.class, names = {"HADOOP", "JDBC"})
+    void runWithStreamingVerification(CatalogType catalogType) throws InterruptedException {
+        // Given
+        final var configuration = createConfiguration(catalogType)
+                .withStreamingVerificationEnabled(true);
+        final var transactionManager = new TransactionManager(configuration, session);
+
+        // When
+        transactionManager.run();
+
+        // Then
+        assertThat(transactionManager.hasFailedVerification()).withFailMessage("ACID Verification failed.").isFalse();
+        assertThat(transactionManager.getStreamingVerificationResult().isSatisfied()).withFailMessage("Streaming verification failed: %s", transactionManager.getStreamingVerificationResult()).isTrue();
+    }
+
+    @Test
+    void runWithEqualityDeletes() throws Exception {
+        // Given
+        final var configuration = createConfiguration(CatalogType.HADOOP)
+                .withRowLevelWriteMethod(RowLevelWriteMethod.EQUALITY_DELETES)
+                .withVerifyAllSnapshots(true);
+        final var transactionManager = new TransactionManager(configuration, session);
+
+        // When
+        transactionManager.run();
+
+        // Then
+        assertThat(transactionManager.isHasFailedWriters()).withFailMessage("One or more writer threads failed").isFalse();
+        assertThat(transactionManager.isHasFailedReaders()).withFailMessage("One or more reader threads failed").isFalse();
+        assertThat(transactionManager.hasFailedVerification()).withFailMessage("ACID Verification failed.").isFalse();
+        assertThat(transactionManager.getSnapshotVerificationResult().isSatisfied()).withFailMessage("Snapshot verification failed: %s", transactionManager.getSnapshotVerificationResult()).isTrue();
+        // The files of failed row deltas are deleted, and no snapshot is expired, so every file belongs to a snapshot
+        final var table = Spark3Util.loadIcebergTable(session, configuration.getFullyQualifiedTableName());
+        final var committedFiles = new HashSet<String>();
+        for (var snapshot : table.snapshots()) {
+            snapshot.addedDataFiles(table.io()).forEach(dataFile -> committedFiles.add(Path.of(URI.create(dataFile.path().toString()).getPath()).toString()));
+            snapshot.addedDeleteFiles(table.io()).forEach(deleteFile -> committedFiles.add(Path.of(URI.create(deleteFile.path().toString()).getPath()).toString()));
+        }
+        try (var files = Files.walk(Path.of(URI.create(table.location()).getPath()).resolve("data"))) {
+            assertThat(files.filter(file -> file.toString().endsWith(".parquet")).map(Path::toString)).allMatch(committedFiles::contains);
+        }
+    }
+
+    @Test
+    void replaySchedule() throws InterruptedException, IOException {
+        // Given
+        final var scheduleFile = testDataDir.resolve("hadoop-schedule");
+        final var configuration = createConfiguration(CatalogType.HADOOP)
+                .withScheduleFile(scheduleFile.toString());
+        final var transactionManager = new TransactionManager(configuration, session);
+        transactionManager.run();
+        assertThat(transactionManager.hasFailedVerification()).withFailMessage("ACID Verification failed.").isFalse();
+        final var schedule = Schedule.read(scheduleFile);
+        final var replayConfiguration = schedule.getConfiguration()
+                .withCatalogName("iceberg_replay")
+                .withWarehouseLocation(testDataDir.resolve("replay").toString());
+
+        // When
+        final var result = new ScheduleReplayer(session, replayConfiguration).replay(schedule);
+
+        // Then
+        assertThat(result.getReplayedTransactions()).isEqualTo(configuration.getTotalNumberOfTransactions());
+        assertThat(result.getReplayedReads()).withFailMessage("No reads were replayed: %s", result).isPositive();
+        assertThat(result.getUnmappedReads()).withFailMessage("Reads of unknown snapshots: %s", result).isZero();
+        assertThat(result.getFailedReads()).withFailMessage("Replayed reads failed: %s", result).isZero();
+    }
+
+    private static Configuration createConfiguration(CatalogType catalogType) {
+        return Configuration.create()
+                .withCatalogType(catalogType)
+                .withCatalogName("iceberg_" + catalogType.name().toLowerCase())
+                .withWarehouseLocation(testDataDir.resolve(catalogType.name().toLowerCase()).toString())
+                .withTotalNumberOfTransactions(50)
+                .withNumberOfWriterThreads(2)
+                .withNumberOfSparkSessionsForWriters(2);
+    }
+
+}
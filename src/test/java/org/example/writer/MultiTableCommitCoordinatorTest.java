@@ -0,0 +1,61 @@
+package org.example.writer;
+
+import org.apache.iceberg.exceptions.CommitFailedException;
+import org.apache.iceberg.spark.CommitMetadata;
+import org.example.metrics.IcebergMetrics;
+import org.example.report.RunStatistics;
+import org.example.table.LinkedTables;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultiTableCommitCoordinatorTest {
+
+    @Test
+    void retriedCommitOfTheTableRecordsTheLinkedSnapshots() {
+        var linkedTables = LinkedTables.create("catalog.db.table", 2);
+        var multiTableCommitCoordinator = new MultiTableCommitCoordinator(linkedTables, new RunStatistics());
+        var transactionId = UUID.randomUUID();
+        var attempts = new HashMap<String, Integer>();
+        var committedProperties = new HashMap<String, Map<String, String>>();
+
+        var totalAttempts = multiTableCommitCoordinator.commit("transaction=" + transactionId, new IcebergMetrics(), (tableName, commitProperties) ->
+                TransactionWriter.withRetryOnException(() -> TransactionCommitProperties.withTransactionId(transactionId, commitProperties, () -> {
+                    // The first attempt on every table conflicts, like with a concurrent compaction
+                    if (attempts.merge(tableName, 1, Integer::sum) == 1) {
+                        throw new CommitFailedException("Conflicting commit to %s", tableName);
+                    }
+                    committedProperties.put(tableName, CommitMetadata.commitProperties());
+                    return null;
+                })));
+
+        assertThat(totalAttempts).isEqualTo(6);
+        assertThat(committedProperties.get("catalog.db.table"))
+                .containsEntry(TransactionCommitProperties.TRANSACTION_ID_PROPERTY, transactionId.toString())
+                .containsEntry(LinkedTables.LINKED_SNAPSHOT_PROPERTY_PREFIX + "catalog.db.table_linked0", String.valueOf(LinkedTables.NO_SNAPSHOT))
+                .containsEntry(LinkedTables.LINKED_SNAPSHOT_PROPERTY_PREFIX + "catalog.db.table_linked1", String.valueOf(LinkedTables.NO_SNAPSHOT));
+        assertThat(committedProperties.get("catalog.db.table_linked0"))
+                .containsOnlyKeys(TransactionCommitProperties.TRANSACTION_ID_PROPERTY);
+    }
+
+    @Test
+    void failedCommitOfTheTableFailsLaterTransactions() {
+        var linkedTables = LinkedTables.create("catalog.db.table", 1);
+        var multiTableCommitCoordinator = new MultiTableCommitCoordinator(linkedTables, new RunStatistics());
+
+        assertThatThrownBy(() -> multiTableCommitCoordinator.commit("first", new IcebergMetrics(), (tableName, commitProperties) -> {
+            if (tableName.equals("catalog.db.table")) {
+                throw new CommitFailedException("Conflicting commit to %s", tableName);
+            }
+            return 1;
+        })).isInstanceOf(CommitFailedException.class);
+        assertThatThrownBy(() -> multiTableCommitCoordinator.commit("second", new IcebergMetrics(), (tableName, commitProperties) -> 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("first");
+    }
+}